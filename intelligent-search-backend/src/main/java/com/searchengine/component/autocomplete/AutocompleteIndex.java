@@ -0,0 +1,213 @@
+package com.searchengine.component.autocomplete;
+
+import com.searchengine.component.indexing.SuggestionIndexer;
+import com.searchengine.model.entity.AutocompleteSuggestion;
+import com.searchengine.utils.QueryNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Moteur d'autocomplétion en mémoire : un {@link CompletionTrie} par langue, alimenté
+ * par les entrées de l'index de suggestions (titres et expressions des documents).
+ * Il est chargé au démarrage puis rafraîchi de façon incrémentale à chaque indexation.
+ * Le trie ne sait ni retirer une complétion ni baisser son poids : il est donc reconstruit
+ * périodiquement à partir de l'index de suggestions, puis substitué d'un bloc à l'ancien.
+ * Les requêtes populaires sont suivies à part, par {@link PopularQueryTracker}.
+ */
+@Component
+public class AutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteIndex.class);
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final Executor executor;
+    private volatile Map<String, CompletionTrie> tries = new ConcurrentHashMap<>();
+    // Tries en cours de reconstruction : les indexations concurrentes y sont aussi reportées
+    private volatile Map<String, CompletionTrie> rebuilding;
+    private final int topK;
+    private final int maxTermsPerLanguage;
+
+    @Value("${app.autocomplete.trie.bootstrap-max-entries:200000}")
+    private int bootstrapMaxEntries;
+
+    public AutocompleteIndex(ElasticsearchOperations elasticsearchOperations,
+                             @Qualifier("searchExecutor") Executor executor,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.autocomplete.trie.top-k:10}") int topK,
+                             @Value("${app.autocomplete.trie.max-terms-per-language:500000}") int maxTermsPerLanguage) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.executor = executor;
+        this.topK = topK;
+        this.maxTermsPerLanguage = maxTermsPerLanguage;
+
+        Gauge.builder("searchengine.autocomplete.trie.memory", this, total(CompletionTrie::estimatedBytes))
+                .description("Estimated heap footprint of the in-memory autocomplete tries")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("searchengine.autocomplete.trie.nodes", this, total(CompletionTrie::nodeCount))
+                .description("Nodes of the in-memory autocomplete tries")
+                .register(meterRegistry);
+        Gauge.builder("searchengine.autocomplete.trie.terms", this, total(CompletionTrie::termCount))
+                .description("Completions held by the in-memory autocomplete tries")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Charge le trie en arrière-plan une fois l'application démarrée : l'autocomplétion
+     * passe par Elasticsearch tant que le chargement n'est pas terminé.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        executor.execute(this::rebuild);
+    }
+
+    /**
+     * Reconstruit les tries depuis l'index de suggestions et remplace les anciens d'un bloc :
+     * les complétions disparues et les poids revus à la baisse ne sont pris en compte qu'ici.
+     * En cas d'échec du chargement, les tries en service sont conservés.
+     */
+    @Scheduled(fixedDelayString = "${app.autocomplete.trie.rebuild-interval-ms:21600000}",
+            initialDelayString = "${app.autocomplete.trie.rebuild-interval-ms:21600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<String, CompletionTrie> fresh = new ConcurrentHashMap<>();
+        rebuilding = fresh;
+        try {
+            int entries = loadSuggestions(fresh);
+            tries = fresh;
+            logger.info("Trie d'autocomplétion chargé en {} ms : {} suggestions",
+                    System.currentTimeMillis() - start, entries);
+        } catch (Exception e) {
+            logger.warn("Échec du chargement des suggestions dans le trie d'autocomplétion : {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Ajoute des entrées de suggestion (titres et expressions d'un document fraîchement indexé).
+     *
+     * @param suggestions Entrées construites à l'indexation
+     */
+    public void addSuggestions(List<AutocompleteSuggestion> suggestions) {
+        for (AutocompleteSuggestion suggestion : suggestions) {
+            if (suggestion.getSuggestion() == null || suggestion.getSuggestion().getInput() == null) {
+                continue;
+            }
+            Map<String, CompletionTrie> pending = rebuilding;
+            addSuggestion(tries, suggestion);
+            if (pending != null) {
+                addSuggestion(pending, suggestion);
+            }
+        }
+    }
+
+    /**
+     * Complète un préfixe à partir du trie de la langue (et des entrées sans langue),
+     * ou de tous les tries si aucune langue n'est fournie.
+     *
+     * @param prefix Préfixe saisi
+     * @param language Langue (optionnelle)
+     * @param limit Nombre maximal de complétions
+     * @return Textes des complétions, par poids décroissant
+     */
+    public List<String> complete(String prefix, String language, int limit) {
+        String key = QueryNormalizer.normalize(prefix);
+        Map<String, CompletionTrie> tries = this.tries;
+        if (!StringUtils.hasText(key) || tries.isEmpty()) {
+            return List.of();
+        }
+
+        List<CompletionTrie> sources = new ArrayList<>(2);
+        if (StringUtils.hasText(language)) {
+            CompletionTrie languageTrie = tries.get(language.toLowerCase());
+            if (languageTrie != null) {
+                sources.add(languageTrie);
+            }
+            CompletionTrie unknown = tries.get(SuggestionIndexer.UNKNOWN_LANGUAGE);
+            if (unknown != null && !SuggestionIndexer.UNKNOWN_LANGUAGE.equalsIgnoreCase(language)) {
+                sources.add(unknown);
+            }
+        } else {
+            sources.addAll(tries.values());
+        }
+
+        if (sources.size() == 1) {
+            return sources.get(0).complete(key, limit).stream().map(CompletionTrie.Completion::text).toList();
+        }
+        List<CompletionTrie.Completion> merged = new ArrayList<>();
+        for (CompletionTrie trie : sources) {
+            merged.addAll(trie.complete(key, limit));
+        }
+        merged.sort(Comparator.comparingLong(CompletionTrie.Completion::weight).reversed());
+        Set<String> texts = new LinkedHashSet<>();
+        for (CompletionTrie.Completion completion : merged) {
+            texts.add(completion.text());
+            if (texts.size() == limit) {
+                break;
+            }
+        }
+        return List.copyOf(texts);
+    }
+
+    private void addSuggestion(Map<String, CompletionTrie> target, AutocompleteSuggestion suggestion) {
+        Integer weight = suggestion.getSuggestion().getWeight();
+        for (String input : suggestion.getSuggestion().getInput()) {
+            put(target, suggestion.getLanguage(), input, suggestion.getText(), weight != null ? weight : 1);
+        }
+    }
+
+    private void put(Map<String, CompletionTrie> target, String language, String input, String text, long weight) {
+        String key = QueryNormalizer.normalize(input);
+        if (!StringUtils.hasText(key) || !StringUtils.hasText(text)) {
+            return;
+        }
+        String trieLanguage = StringUtils.hasText(language) ? language.toLowerCase() : SuggestionIndexer.UNKNOWN_LANGUAGE;
+        CompletionTrie trie = target.computeIfAbsent(trieLanguage, l -> new CompletionTrie(topK, maxTermsPerLanguage));
+        if (!trie.put(key, text, weight)) {
+            logger.debug("Trie d'autocomplétion plein pour la langue {}, entrée ignorée : {}", trieLanguage, text);
+        }
+    }
+
+    private int loadSuggestions(Map<String, CompletionTrie> target) {
+        int loaded = 0;
+        try (SearchHitsIterator<AutocompleteSuggestion> hits = elasticsearchOperations.searchForStream(
+                Query.findAll(), AutocompleteSuggestion.class, IndexCoordinates.of(SuggestionIndexer.INDEX))) {
+            while (hits.hasNext() && loaded < bootstrapMaxEntries) {
+                AutocompleteSuggestion suggestion = hits.next().getContent();
+                if (suggestion.getSuggestion() != null && suggestion.getSuggestion().getInput() != null) {
+                    addSuggestion(target, suggestion);
+                }
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private static ToDoubleFunction<AutocompleteIndex> total(ToDoubleFunction<CompletionTrie> metric) {
+        return index -> index.tries.values().stream().mapToDouble(metric).sum();
+    }
+}
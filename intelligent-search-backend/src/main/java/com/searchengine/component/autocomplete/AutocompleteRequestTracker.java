@@ -0,0 +1,92 @@
+package com.searchengine.component.autocomplete;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Suit la requête d'autocomplétion en cours de chaque session. Pendant une frappe rapide,
+ * une requête plus récente (numéro de séquence plus grand) annule la précédente : son calcul
+ * et, si personne d'autre ne l'attend, sa requête Elasticsearch sont abandonnés.
+ * Seules les requêtes portant un identifiant de session et un numéro de séquence fournis par
+ * le client sont suivies : une adresse IP est partagée par plusieurs utilisateurs (NAT, proxy)
+ * et un ordre d'arrivée côté serveur n'est pas comparable aux numéros du client.
+ */
+@Component
+public class AutocompleteRequestTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteRequestTracker.class);
+
+    private final ConcurrentMap<String, Current> sessions = new ConcurrentHashMap<>();
+    private final Counter completed;
+    private final Counter cancelled;
+
+    private record Current(long sequence, CompletableFuture<?> future) {
+    }
+
+    public AutocompleteRequestTracker(MeterRegistry meterRegistry) {
+        this.completed = Counter.builder("searchengine.autocomplete.requests")
+                .description("Autocomplete requests completed or cancelled by a newer keystroke")
+                .tag("result", "completed")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("searchengine.autocomplete.requests")
+                .description("Autocomplete requests completed or cancelled by a newer keystroke")
+                .tag("result", "cancelled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enregistre la requête comme requête courante de la session et annule la précédente.
+     *
+     * @param session Identifiant de session envoyé par le client
+     * @param order Numéro de séquence envoyé par le client
+     * @param future Calcul de la requête
+     * @return false si une requête plus récente de la session est déjà arrivée ; la requête est alors annulée
+     */
+    public boolean register(String session, long order, CompletableFuture<?> future) {
+        Current next = new Current(order, future);
+        Current[] replaced = new Current[1];
+        Current winner = sessions.compute(session, (key, current) -> {
+            if (current != null && current.sequence() > order) {
+                return current;
+            }
+            replaced[0] = current;
+            return next;
+        });
+
+        if (winner != next) {
+            cancel(future);
+            logger.debug("Requête d'autocomplétion {} déjà dépassée pour la session {}", order, session);
+            return false;
+        }
+        if (replaced[0] != null && replaced[0].future() != future) {
+            cancel(replaced[0].future());
+        }
+        return true;
+    }
+
+    /**
+     * Libère la session à la fin de la requête, si elle en est encore la requête courante.
+     *
+     * @param session Identifiant de session
+     * @param future Calcul de la requête terminée
+     */
+    public void release(String session, CompletableFuture<?> future) {
+        sessions.computeIfPresent(session, (key, current) -> current.future() == future ? null : current);
+        if (future.isDone() && !future.isCompletedExceptionally()) {
+            completed.increment();
+        }
+    }
+
+    private void cancel(CompletableFuture<?> future) {
+        if (future.cancel(true)) {
+            cancelled.increment();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.searchengine.component.autocomplete;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trie de préfixes compact pour l'autocomplétion en mémoire.
+ * Les nœuds sont stockés dans des tableaux primitifs (représentation fils gauche / frère droit)
+ * et chaque nœud conserve les K meilleures complétions de son sous-arbre, triées par poids :
+ * une recherche coûte la longueur du préfixe, sans parcours du sous-arbre.
+ * Les poids ne font que croître, ce qui permet de maintenir les top-K de façon incrémentale :
+ * un nœud ne garde pas les complétions sorties de son top-K, si bien qu'un retrait ou une baisse
+ * de poids imposerait de reparcourir tout le sous-arbre. Le trie ne les gère donc pas ; son
+ * propriétaire le reconstruit périodiquement (voir {@link AutocompleteIndex#rebuild()}).
+ */
+public final class CompletionTrie {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int[] EMPTY = new int[0];
+
+    private final int topK;
+    private final int maxTerms;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Nœuds
+    private char[] labels;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[][] top;
+    private int nodeCount;
+
+    // Complétions
+    private String[] texts;
+    private long[] weights;
+    private int termCount;
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private long textChars;
+
+    /**
+     * Complétion renvoyée par le trie.
+     */
+    public record Completion(String text, long weight) {
+    }
+
+    public CompletionTrie(int topK, int maxTerms) {
+        this.topK = Math.max(1, topK);
+        this.maxTerms = maxTerms;
+        this.labels = new char[64];
+        this.firstChild = new int[64];
+        this.nextSibling = new int[64];
+        this.top = new int[64][];
+        this.texts = new String[16];
+        this.weights = new long[16];
+        newNode('\0');
+    }
+
+    /**
+     * Ajoute une clé menant à une complétion. Si la complétion existe déjà, son poids devient
+     * le maximum de l'ancien et du nouveau ; plusieurs clés peuvent mener à la même complétion.
+     *
+     * @param key Clé normalisée (minuscules, mots séparés par une espace)
+     * @param text Texte affiché
+     * @param weight Poids de la complétion
+     * @return false si le trie est plein et que la complétion est nouvelle
+     */
+    public boolean put(String key, String text, long weight) {
+        if (key == null || key.isEmpty() || text == null) {
+            return true;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = termIds.get(text);
+            int id;
+            if (existing != null) {
+                id = existing;
+                weights[id] = Math.max(weights[id], weight);
+            } else {
+                if (termCount >= maxTerms) {
+                    return false;
+                }
+                id = newTerm(text, weight);
+            }
+
+            int node = ROOT;
+            offer(node, id);
+            for (int i = 0; i < key.length(); i++) {
+                node = childOrCreate(node, key.charAt(i));
+                offer(node, id);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Renvoie les meilleures complétions d'un préfixe.
+     *
+     * @param prefix Préfixe normalisé
+     * @param limit Nombre maximal de complétions (au plus K)
+     * @return Complétions triées par poids décroissant
+     */
+    public List<Completion> complete(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            int node = ROOT;
+            for (int i = 0; i < prefix.length() && node != NONE; i++) {
+                node = child(node, prefix.charAt(i));
+            }
+            if (node == NONE || top[node] == null) {
+                return List.of();
+            }
+            int[] ids = top[node];
+            int count = Math.min(limit, ids.length);
+            List<Completion> completions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                completions.add(new Completion(texts[ids[i]], weights[ids[i]]));
+            }
+            return completions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return termCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estime l'empreinte mémoire du trie en octets (tableaux alloués, textes et table des complétions).
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) labels.length * Character.BYTES
+                    + (long) firstChild.length * Integer.BYTES
+                    + (long) nextSibling.length * Integer.BYTES
+                    + (long) top.length * 8
+                    + (long) texts.length * 8
+                    + (long) weights.length * Long.BYTES;
+            for (int i = 0; i < nodeCount; i++) {
+                if (top[i] != null) {
+                    bytes += 16 + (long) top[i].length * Integer.BYTES;
+                }
+            }
+            // En-têtes de chaînes et entrées de la table de hachage
+            bytes += textChars * Character.BYTES + termCount * 88L;
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int newTerm(String text, long weight) {
+        if (termCount == texts.length) {
+            int capacity = texts.length * 2;
+            texts = Arrays.copyOf(texts, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        int id = termCount++;
+        texts[id] = text;
+        weights[id] = weight;
+        termIds.put(text, id);
+        textChars += text.length();
+        return id;
+    }
+
+    private int newNode(char label) {
+        if (nodeCount == labels.length) {
+            int capacity = labels.length + (labels.length >> 1);
+            labels = Arrays.copyOf(labels, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            top = Arrays.copyOf(top, capacity);
+        }
+        int node = nodeCount++;
+        labels[node] = label;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        return node;
+    }
+
+    private int child(int node, char label) {
+        for (int c = firstChild[node]; c != NONE; c = nextSibling[c]) {
+            if (labels[c] == label) {
+                return c;
+            }
+        }
+        return NONE;
+    }
+
+    private int childOrCreate(int node, char label) {
+        int existing = child(node, label);
+        if (existing != NONE) {
+            return existing;
+        }
+        int created = newNode(label);
+        nextSibling[created] = firstChild[node];
+        firstChild[node] = created;
+        return created;
+    }
+
+    /**
+     * Insère (ou remonte) une complétion dans le top-K d'un nœud.
+     */
+    private void offer(int node, int id) {
+        int[] current = top[node] != null ? top[node] : EMPTY;
+        long weight = weights[id];
+
+        // Retirer l'ancienne position de la complétion si elle est déjà classée
+        int size = current.length;
+        int[] ids = current;
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                ids = new int[size - 1];
+                System.arraycopy(current, 0, ids, 0, i);
+                System.arraycopy(current, i + 1, ids, i, size - i - 1);
+                size--;
+                break;
+            }
+        }
+
+        int position = 0;
+        while (position < size && weights[ids[position]] >= weight) {
+            position++;
+        }
+        if (position >= topK) {
+            top[node] = ids.length == 0 ? null : ids;
+            return;
+        }
+
+        int newSize = Math.min(topK, size + 1);
+        int[] updated = new int[newSize];
+        System.arraycopy(ids, 0, updated, 0, position);
+        updated[position] = id;
+        System.arraycopy(ids, position, updated, position + 1, newSize - position - 1);
+        top[node] = updated;
+    }
+}
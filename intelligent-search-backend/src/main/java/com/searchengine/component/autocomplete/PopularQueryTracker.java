@@ -0,0 +1,284 @@
+package com.searchengine.component.autocomplete;
+
+import com.searchengine.component.indexing.SuggestionIndexer;
+import com.searchengine.model.entity.SearchQuery;
+import com.searchengine.model.enums.SearchType;
+import com.searchengine.repository.jpa.SearchQueryJpaRepository;
+import com.searchengine.utils.QueryNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Suit les requêtes les plus recherchées, par langue, pour les proposer en autocomplétion.
+ * <ul>
+ *   <li>Chaque recherche alimente un résumé Space-Saving de l'intervalle courant (mémoire bornée).</li>
+ *   <li>Périodiquement, l'intervalle est persisté dans Postgres (une ligne agrégée par requête),
+ *   puis le classement sur la fenêtre glissante est recalculé, publié dans Redis et chargé
+ *   dans un trie en mémoire.</li>
+ *   <li>Le chemin de frappe ne lit que ce trie : aucune requête base de données ni réseau.</li>
+ * </ul>
+ */
+@Component
+public class PopularQueryTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularQueryTracker.class);
+    private static final String REDIS_KEY_PREFIX = "autocomplete:popular:";
+    private static final String REDIS_LANGUAGES_KEY = REDIS_KEY_PREFIX + "languages";
+
+    private final SearchQueryJpaRepository searchQueryRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Executor executor;
+    private final int capacity;
+    private final int topK;
+
+    // Les comptages partagent le verrou en lecture ; la bascule d'intervalle le prend en écriture,
+    // si bien qu'aucun comptage ne peut viser un résumé déjà persisté
+    private final ReadWriteLock intervalLock = new ReentrantReadWriteLock();
+    private volatile Map<String, SpaceSaving> interval = new ConcurrentHashMap<>();
+    private volatile Map<String, CompletionTrie> popular = Map.of();
+
+    @Value("${app.autocomplete.popular.min-count:2}")
+    private long minCount;
+
+    @Value("${app.autocomplete.popular.window-days:30}")
+    private int windowDays;
+
+    @Value("${app.autocomplete.popular.max-entries:5000}")
+    private int maxEntries;
+
+    public PopularQueryTracker(SearchQueryJpaRepository searchQueryRepository,
+                               RedisTemplate<String, Object> redisTemplate,
+                               @Qualifier("searchExecutor") Executor executor,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.autocomplete.popular.capacity:2000}") int capacity,
+                               @Value("${app.autocomplete.trie.top-k:10}") int topK) {
+        this.searchQueryRepository = searchQueryRepository;
+        this.redisTemplate = redisTemplate;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.topK = topK;
+
+        Gauge.builder("searchengine.autocomplete.popular.tracked", this,
+                        t -> t.interval.values().stream().mapToInt(SpaceSaving::size).sum())
+                .description("Queries tracked by the heavy-hitter summaries of the current interval")
+                .register(meterRegistry);
+        Gauge.builder("searchengine.autocomplete.popular.memory", this,
+                        t -> t.popular.values().stream().mapToLong(CompletionTrie::estimatedBytes).sum())
+                .description("Estimated heap footprint of the popular-query tries")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Compte une recherche. Appelé sur le chemin de recherche : coût en O(log m), sans entrée/sortie.
+     *
+     * @param query Requête saisie
+     * @param language Langue demandée (optionnelle)
+     */
+    public void record(String query, String language) {
+        String normalized = QueryNormalizer.normalize(query);
+        if (!StringUtils.hasText(normalized)) {
+            return;
+        }
+        intervalLock.readLock().lock();
+        try {
+            interval.computeIfAbsent(languageKey(language), l -> new SpaceSaving(capacity)).offer(normalized);
+        } finally {
+            intervalLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Complète un préfixe avec les requêtes populaires de la langue (toutes langues si elle est absente).
+     *
+     * @param prefix Préfixe saisi
+     * @param language Langue (optionnelle)
+     * @param limit Nombre maximal de complétions
+     * @return Requêtes populaires, par fréquence décroissante
+     */
+    public List<String> complete(String prefix, String language, int limit) {
+        String key = QueryNormalizer.normalize(prefix);
+        Map<String, CompletionTrie> snapshot = popular;
+        if (!StringUtils.hasText(key) || snapshot.isEmpty()) {
+            return List.of();
+        }
+        List<CompletionTrie.Completion> completions = new ArrayList<>();
+        if (StringUtils.hasText(language)) {
+            CompletionTrie trie = snapshot.get(language.toLowerCase());
+            if (trie != null) {
+                completions.addAll(trie.complete(key, limit));
+            }
+        }
+        CompletionTrie any = snapshot.get(SuggestionIndexer.UNKNOWN_LANGUAGE);
+        if (any != null) {
+            completions.addAll(any.complete(key, limit));
+        }
+        if (!StringUtils.hasText(language)) {
+            snapshot.forEach((lang, trie) -> {
+                if (!SuggestionIndexer.UNKNOWN_LANGUAGE.equals(lang)) {
+                    completions.addAll(trie.complete(key, limit));
+                }
+            });
+        }
+        return completions.stream()
+                .sorted((a, b) -> Long.compare(b.weight(), a.weight()))
+                .map(CompletionTrie.Completion::text)
+                .distinct()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Au démarrage, charge le dernier classement publié dans Redis (sans attendre le premier instantané).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        executor.execute(() -> {
+            try {
+                Map<String, List<ZSetOperations.TypedTuple<Object>>> ranking = new HashMap<>();
+                Set<Object> languages = redisTemplate.opsForSet().members(REDIS_LANGUAGES_KEY);
+                if (languages != null) {
+                    for (Object language : languages) {
+                        Set<ZSetOperations.TypedTuple<Object>> entries = redisTemplate.opsForZSet()
+                                .reverseRangeWithScores(REDIS_KEY_PREFIX + language, 0, maxEntries - 1);
+                        if (entries != null) {
+                            ranking.put(language.toString(), new ArrayList<>(entries));
+                        }
+                    }
+                }
+                if (!ranking.isEmpty()) {
+                    popular = buildTries(ranking);
+                    logger.info("Requêtes populaires chargées depuis Redis pour {} langues", ranking.size());
+                } else {
+                    refreshRanking();
+                }
+            } catch (Exception e) {
+                logger.warn("Échec du chargement des requêtes populaires : {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Instantané périodique : persiste l'intervalle écoulé dans Postgres, recalcule le classement
+     * de la fenêtre (toutes instances confondues), le publie dans Redis et le charge en mémoire.
+     */
+    @Scheduled(fixedDelayString = "${app.autocomplete.popular.snapshot-interval-ms:60000}",
+            initialDelayString = "${app.autocomplete.popular.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        Map<String, SpaceSaving> elapsed;
+        intervalLock.writeLock().lock();
+        try {
+            elapsed = interval;
+            interval = new ConcurrentHashMap<>();
+        } finally {
+            intervalLock.writeLock().unlock();
+        }
+
+        List<SearchQuery> rows = new ArrayList<>();
+        elapsed.forEach((language, summary) -> {
+            for (SpaceSaving.HeavyHitter hitter : summary.top(capacity)) {
+                // Trié par compte estimé : un compte garanti trop faible n'exclut pas les suivants
+                if (hitter.guaranteedCount() < minCount) {
+                    continue;
+                }
+                SearchQuery row = new SearchQuery();
+                row.setQuery(hitter.item());
+                row.setLanguage(SuggestionIndexer.UNKNOWN_LANGUAGE.equals(language) ? null : language);
+                row.setHitCount(hitter.guaranteedCount());
+                row.setSearchType(SearchType.TEXT);
+                rows.add(row);
+            }
+        });
+
+        try {
+            if (!rows.isEmpty()) {
+                searchQueryRepository.saveAll(rows);
+                logger.debug("{} requêtes populaires persistées", rows.size());
+            }
+            refreshRanking();
+        } catch (Exception e) {
+            logger.error("Échec de l'instantané des requêtes populaires : {}", e.getMessage(), e);
+        }
+    }
+
+    private void refreshRanking() {
+        List<Object[]> top = searchQueryRepository.findTopQueriesSince(
+                LocalDateTime.now().minusDays(windowDays), PageRequest.of(0, maxEntries));
+
+        Map<String, List<ZSetOperations.TypedTuple<Object>>> ranking = new HashMap<>();
+        for (Object[] row : top) {
+            String language = row[0] != null ? languageKey((String) row[0]) : SuggestionIndexer.UNKNOWN_LANGUAGE;
+            String query = QueryNormalizer.normalize((String) row[1]);
+            if (!StringUtils.hasText(query)) {
+                continue;
+            }
+            ranking.computeIfAbsent(language, l -> new ArrayList<>())
+                    .add(new DefaultTypedTuple<>(query, ((Number) row[2]).doubleValue()));
+        }
+
+        popular = buildTries(ranking);
+        publish(ranking);
+    }
+
+    private void publish(Map<String, List<ZSetOperations.TypedTuple<Object>>> ranking) {
+        try {
+            Duration ttl = Duration.ofDays(Math.max(1, windowDays));
+            for (Map.Entry<String, List<ZSetOperations.TypedTuple<Object>>> entry : ranking.entrySet()) {
+                String key = REDIS_KEY_PREFIX + entry.getKey();
+                redisTemplate.delete(key);
+                redisTemplate.opsForZSet().add(key, new HashSet<>(entry.getValue()));
+                redisTemplate.expire(key, ttl);
+                redisTemplate.opsForSet().add(REDIS_LANGUAGES_KEY, entry.getKey());
+            }
+            redisTemplate.expire(REDIS_LANGUAGES_KEY, ttl);
+        } catch (Exception e) {
+            logger.warn("Échec de la publication des requêtes populaires dans Redis : {}", e.getMessage());
+        }
+    }
+
+    private Map<String, CompletionTrie> buildTries(Map<String, List<ZSetOperations.TypedTuple<Object>>> ranking) {
+        Map<String, CompletionTrie> tries = new HashMap<>();
+        ranking.forEach((language, entries) -> {
+            CompletionTrie trie = new CompletionTrie(topK, maxEntries);
+            for (ZSetOperations.TypedTuple<Object> entry : entries) {
+                if (entry.getValue() == null || entry.getScore() == null) {
+                    continue;
+                }
+                String query = entry.getValue().toString();
+                trie.put(query, query, entry.getScore().longValue());
+            }
+            tries.put(language, trie);
+        });
+        return Map.copyOf(tries);
+    }
+
+    private static String languageKey(String language) {
+        return StringUtils.hasText(language) ? language.toLowerCase() : SuggestionIndexer.UNKNOWN_LANGUAGE;
+    }
+}
@@ -0,0 +1,143 @@
+package com.searchengine.component.autocomplete;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.searchengine.component.indexing.SuggestionIndexer;
+import com.searchengine.utils.QueryNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cache par langue des suggestions Elasticsearch, capable de répondre à un préfixe plus long
+ * en filtrant le résultat d'un préfixe plus court (« java » puis « javas »).
+ * <p>
+ * Les suggestions sont chargées par lots plus grands que la page demandée. Un résultat parent
+ * est réutilisable s'il était complet (moins de suggestions que demandé), ou si le filtrage
+ * en conserve assez : les suggestions étant classées par poids, les premières correspondances
+ * du parent sont alors les meilleures du préfixe enfant.
+ */
+@Component
+public class PrefixResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrefixResultCache.class);
+
+    private final Cache<String, Entry> cache;
+    private final Counter exactHits;
+    private final Counter parentHits;
+    private final Counter misses;
+    private final int fetchSize;
+    private final int minPrefixLength;
+
+    /**
+     * Chargement des suggestions d'un préfixe (requête Elasticsearch).
+     */
+    @FunctionalInterface
+    public interface Loader {
+        CompletableFuture<List<String>> load(String prefix, int size);
+    }
+
+    private record Entry(List<String> suggestions, List<String> keys, boolean complete) {
+    }
+
+    public PrefixResultCache(MeterRegistry meterRegistry,
+                             @Value("${app.autocomplete.prefix-cache.max-entries:10000}") long maxEntries,
+                             @Value("${app.autocomplete.prefix-cache.ttl-seconds:30}") long ttlSeconds,
+                             @Value("${app.autocomplete.prefix-cache.fetch-size:50}") int fetchSize,
+                             @Value("${app.autocomplete.prefix-cache.min-prefix-length:2}") int minPrefixLength) {
+        this.fetchSize = fetchSize;
+        this.minPrefixLength = Math.max(1, minPrefixLength);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "autocomplete.prefix");
+        this.exactHits = counter(meterRegistry, "exact");
+        this.parentHits = counter(meterRegistry, "parent");
+        this.misses = counter(meterRegistry, "miss");
+    }
+
+    /**
+     * Renvoie les suggestions d'un préfixe : depuis le cache (préfixe exact ou parent), sinon via le loader.
+     *
+     * @param prefix Préfixe saisi
+     * @param language Langue (optionnelle)
+     * @param limit Nombre de suggestions demandées
+     * @param loader Chargement en cas d'absence
+     * @return Suggestions, au plus limit
+     */
+    public CompletableFuture<List<String>> get(String prefix, String language, int limit, Loader loader) {
+        String key = QueryNormalizer.normalize(prefix);
+        if (!StringUtils.hasText(key)) {
+            return loader.load(prefix, limit);
+        }
+        String languageKey = StringUtils.hasText(language) ? language.toLowerCase() : SuggestionIndexer.UNKNOWN_LANGUAGE;
+
+        Entry exact = cache.getIfPresent(languageKey + '|' + key);
+        if (exact != null && (exact.complete() || exact.suggestions().size() >= limit)) {
+            exactHits.increment();
+            return CompletableFuture.completedFuture(head(exact.suggestions(), limit));
+        }
+
+        // Préfixes parents, du plus long au plus court
+        for (int length = key.length() - 1; length >= minPrefixLength; length--) {
+            Entry parent = cache.getIfPresent(languageKey + '|' + key.substring(0, length));
+            if (parent == null) {
+                continue;
+            }
+            List<String> filtered = filter(parent, key);
+            if (parent.complete() || filtered.size() >= limit) {
+                parentHits.increment();
+                logger.debug("Suggestions de '{}' servies par le préfixe parent '{}'", key, key.substring(0, length));
+                return CompletableFuture.completedFuture(head(filtered, limit));
+            }
+        }
+
+        misses.increment();
+        int size = Math.max(limit, fetchSize);
+        return loader.load(prefix, size).thenApply(suggestions -> {
+            List<String> keys = suggestions.stream().map(QueryNormalizer::normalize).toList();
+            cache.put(languageKey + '|' + key, new Entry(List.copyOf(suggestions), keys, suggestions.size() < size));
+            return head(suggestions, limit);
+        });
+    }
+
+    /**
+     * Suggestions du parent qui correspondent au préfixe enfant, avec la même sémantique
+     * que les entrées du suggester : début du texte ou début d'un mot.
+     */
+    private static List<String> filter(Entry parent, String key) {
+        List<String> filtered = new ArrayList<>();
+        String wordKey = ' ' + key;
+        for (int i = 0; i < parent.suggestions().size(); i++) {
+            String normalized = parent.keys().get(i);
+            if (normalized.startsWith(key) || normalized.contains(wordKey)) {
+                filtered.add(parent.suggestions().get(i));
+            }
+        }
+        return filtered;
+    }
+
+    private static List<String> head(List<String> suggestions, int limit) {
+        return suggestions.size() <= limit ? suggestions : suggestions.subList(0, limit);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("searchengine.autocomplete.prefix.cache")
+                .description("Autocomplete suggester lookups by cache outcome (exact prefix, parent prefix or miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.searchengine.component.autocomplete;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Algorithme Space-Saving (Metwally et al.) : suit les éléments les plus fréquents d'un flux
+ * avec un nombre borné de compteurs. Quand tous les compteurs sont pris, l'élément le moins
+ * compté est remplacé et le nouvel élément hérite de son compte comme borne d'erreur.
+ * Les compteurs sont regroupés par valeur, ce qui rend l'éviction en O(log m).
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, long[]> counters = new HashMap<>();
+    private final TreeMap<Long, LinkedHashSet<String>> buckets = new TreeMap<>();
+
+    /**
+     * Élément fréquent : compte estimé (borne haute) et erreur maximale.
+     */
+    public record HeavyHitter(String item, long count, long error) {
+
+        /**
+         * Nombre d'occurrences garanti (borne basse).
+         */
+        public long guaranteedCount() {
+            return count - error;
+        }
+    }
+
+    public SpaceSaving(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Compte une occurrence d'un élément.
+     *
+     * @param item Élément observé
+     */
+    public synchronized void offer(String item) {
+        long[] counter = counters.get(item);
+        if (counter != null) {
+            detach(item, counter[0]);
+            counter[0]++;
+            attach(item, counter[0]);
+            return;
+        }
+
+        long error = 0;
+        if (counters.size() >= capacity) {
+            Map.Entry<Long, LinkedHashSet<String>> min = buckets.firstEntry();
+            Iterator<String> victims = min.getValue().iterator();
+            String victim = victims.next();
+            victims.remove();
+            if (min.getValue().isEmpty()) {
+                buckets.remove(min.getKey());
+            }
+            counters.remove(victim);
+            error = min.getKey();
+        }
+        counters.put(item, new long[]{error + 1, error});
+        attach(item, error + 1);
+    }
+
+    /**
+     * Renvoie les éléments les plus fréquents.
+     *
+     * @param limit Nombre maximal d'éléments
+     * @return Éléments par compte estimé décroissant
+     */
+    public synchronized List<HeavyHitter> top(int limit) {
+        List<HeavyHitter> hitters = new ArrayList<>(Math.min(limit, counters.size()));
+        for (Map.Entry<Long, LinkedHashSet<String>> bucket : buckets.descendingMap().entrySet()) {
+            for (String item : bucket.getValue()) {
+                if (hitters.size() == limit) {
+                    return hitters;
+                }
+                hitters.add(new HeavyHitter(item, bucket.getKey(), counters.get(item)[1]));
+            }
+        }
+        return hitters;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    private void attach(String item, long count) {
+        buckets.computeIfAbsent(count, c -> new LinkedHashSet<>()).add(item);
+    }
+
+    private void detach(String item, long count) {
+        LinkedHashSet<String> bucket = buckets.get(count);
+        bucket.remove(item);
+        if (bucket.isEmpty()) {
+            buckets.remove(count);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.searchengine.component.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.dto.response.SearchFacets;
+import com.searchengine.model.dto.response.SearchResponseDto;
+import com.searchengine.model.enums.DocumentType;
+import com.searchengine.service.CacheService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache à deux niveaux pour les résultats de recherche : un cache local borné (L1)
+ * devant le cache Redis partagé entre les nœuds (L2).
+ * Les facettes sont mises en cache séparément, avec leur propre durée de vie : elles ne dépendent
+ * ni de la page, ni de la taille, ni du contexte, et ne sont donc pas recalculées en paginant.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private final CacheService cacheService;
+    private final Cache<String, SearchResponseDto> localCache;
+    private final Cache<String, SearchFacets> facetCache;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final boolean enabled;
+    private final long remoteTtlSeconds;
+    private final long facetTtlSeconds;
+
+    public SearchResultCache(CacheService cacheService,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.search.cache.enabled:true}") boolean enabled,
+                             @Value("${app.search.cache.local.max-entries:1000}") long maxEntries,
+                             @Value("${app.search.cache.local.max-weight-kb:32768}") long maxWeightKb,
+                             @Value("${app.search.cache.local.ttl-seconds:60}") long localTtlSeconds,
+                             @Value("${app.search.cache.remote.ttl-seconds:300}") long remoteTtlSeconds,
+                             @Value("${app.search.facets.cache.max-entries:5000}") long facetMaxEntries,
+                             @Value("${app.search.facets.cache.ttl-seconds:600}") long facetTtlSeconds) {
+        this.cacheService = cacheService;
+        this.enabled = enabled;
+        this.remoteTtlSeconds = remoteTtlSeconds;
+        this.facetTtlSeconds = facetTtlSeconds;
+
+        // Caffeine ne permet pas de combiner maximumSize et maximumWeight : chaque entrée pèse
+        // au moins maxWeight / maxEntries, ce qui borne aussi le nombre d'entrées.
+        int minEntryWeightKb = (int) Math.max(1, maxWeightKb / Math.max(1, maxEntries));
+        this.localCache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightKb)
+                .weigher((String key, SearchResponseDto value) -> Math.max(minEntryWeightKb, estimateWeightKb(value)))
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+
+        this.facetCache = Caffeine.newBuilder()
+                .maximumSize(facetMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(facetTtlSeconds))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "search.results.local");
+        CaffeineCacheMetrics.monitor(meterRegistry, facetCache, "search.facets.local");
+        this.remoteHits = Counter.builder("searchengine.search.cache.remote")
+                .description("Search results served from the Redis cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.remoteMisses = Counter.builder("searchengine.search.cache.remote")
+                .description("Search results not found in the Redis cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Construit la clé de cache d'une recherche.
+     *
+     * @param normalizedQuery Requête déjà nettoyée
+     * @param documentType Filtre de type de document (optionnel)
+     * @param language Filtre de langue (optionnel)
+     * @param page Numéro de page
+     * @param size Taille de page
+     * @param fields Clé de la projection des champs renvoyés
+     * @param contextBucket Bucket grossier du contexte utilisateur
+     * @return Clé de cache
+     */
+    public String buildKey(String normalizedQuery, DocumentType documentType, String language,
+                           int page, int size, String fields, String contextBucket) {
+        return new StringBuilder(normalizedQuery.length() + 48)
+                .append(normalizedQuery)
+                .append('|').append(documentType != null ? documentType.getValue() : "*")
+                .append('|').append(language != null && !language.isBlank() ? language.toLowerCase() : "*")
+                .append('|').append(page)
+                .append('|').append(size)
+                .append('|').append(fields)
+                .append('|').append(contextBucket)
+                .toString();
+    }
+
+    /**
+     * Cherche un résultat dans le cache local puis dans Redis.
+     * Un résultat trouvé dans Redis est promu dans le cache local.
+     *
+     * @param key Clé de cache
+     * @return Résultat en cache ou null
+     */
+    public SearchResponseDto get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        SearchResponseDto local = localCache.getIfPresent(key);
+        if (local != null) {
+            logger.debug("Résultat servi par le cache local pour la clé : {}", key);
+            return local;
+        }
+
+        SearchResponseDto remote = cacheService.getCachedSearchResult(key, SearchResponseDto.class);
+        if (remote != null) {
+            remoteHits.increment();
+            localCache.put(key, remote);
+            logger.debug("Résultat servi par Redis pour la clé : {}", key);
+            return remote;
+        }
+        remoteMisses.increment();
+        return null;
+    }
+
+    /**
+     * Enregistre un résultat dans les deux niveaux de cache.
+     * Le contexte de la requête n'est jamais mis en cache : il est propre à chaque session.
+     *
+     * @param key Clé de cache
+     * @param response Réponse à mettre en cache (sans contexte)
+     */
+    public void put(String key, SearchResponseDto response) {
+        if (!enabled) {
+            return;
+        }
+        localCache.put(key, response);
+        cacheService.cacheSearchResult(key, response, remoteTtlSeconds);
+    }
+
+    /**
+     * Construit la clé de cache des facettes : seuls la requête et les filtres comptent.
+     *
+     * @param normalizedQuery Requête déjà nettoyée
+     * @param documentType Filtre de type de document (optionnel)
+     * @param language Filtre de langue (optionnel)
+     * @return Clé de cache des facettes
+     */
+    public String buildFacetKey(String normalizedQuery, DocumentType documentType, String language) {
+        return "facets|" + buildKey(normalizedQuery, documentType, language, 0, 0, "-", "-");
+    }
+
+    /**
+     * Cherche les facettes d'une requête dans le cache local puis dans Redis.
+     *
+     * @param key Clé de cache des facettes
+     * @return Facettes en cache ou null
+     */
+    public SearchFacets getFacets(String key) {
+        if (!enabled) {
+            return null;
+        }
+        SearchFacets local = facetCache.getIfPresent(key);
+        if (local != null) {
+            return local;
+        }
+        SearchFacets remote = cacheService.getCachedSearchResult(key, SearchFacets.class);
+        if (remote != null) {
+            facetCache.put(key, remote);
+            logger.debug("Facettes servies par Redis pour la clé : {}", key);
+        }
+        return remote;
+    }
+
+    /**
+     * Enregistre les facettes d'une requête dans les deux niveaux de cache.
+     *
+     * @param key Clé de cache des facettes
+     * @param facets Facettes calculées
+     */
+    public void putFacets(String key, SearchFacets facets) {
+        if (!enabled) {
+            return;
+        }
+        facetCache.put(key, facets);
+        cacheService.cacheSearchResult(key, facets, facetTtlSeconds);
+    }
+
+    /**
+     * Estime l'empreinte mémoire d'une réponse en kilo-octets.
+     */
+    private static int estimateWeightKb(SearchResponseDto response) {
+        long bytes = 64;
+        List<DocumentResponse> results = response.getResults();
+        if (results != null) {
+            for (DocumentResponse doc : results) {
+                bytes += 96
+                        + 2L * (length(doc.getUrl()) + length(doc.getTitle()) + length(doc.getDescription()))
+                        + weightOf(doc.getLinks())
+                        + weightOf(doc.getMediaUrls())
+                        + weightOf(doc.getMetadata());
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (bytes + 1023) / 1024);
+    }
+
+    private static long weightOf(List<String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long bytes = 16L * values.size();
+        for (String value : values) {
+            bytes += 2L * length(value);
+        }
+        return bytes;
+    }
+
+    private static long weightOf(Map<String, String> values) {
+        if (values == null) {
+            return 0;
+        }
+        long bytes = 32L * values.size();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            bytes += 2L * (length(entry.getKey()) + length(entry.getValue()));
+        }
+        return bytes;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
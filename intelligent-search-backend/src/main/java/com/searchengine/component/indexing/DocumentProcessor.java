@@ -1,5 +1,8 @@
 package com.searchengine.component.indexing;
 
+import com.searchengine.component.scoring.LocationScorer;
+import com.searchengine.component.scoring.PopularityScorer;
+import com.searchengine.model.entity.RankSignals;
 import com.searchengine.model.entity.SearchDocument;
 import com.searchengine.utils.ValidationUtils;
 import org.slf4j.Logger;
@@ -14,9 +17,14 @@ public class DocumentProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentProcessor.class);
     private final ContentAnalyzer contentAnalyzer;
+    private final PopularityScorer popularityScorer;
+    private final LocationScorer locationScorer;
 
-    public DocumentProcessor(ContentAnalyzer contentAnalyzer) {
+    public DocumentProcessor(ContentAnalyzer contentAnalyzer, PopularityScorer popularityScorer,
+                             LocationScorer locationScorer) {
         this.contentAnalyzer = contentAnalyzer;
+        this.popularityScorer = popularityScorer;
+        this.locationScorer = locationScorer;
     }
 
     /**
@@ -39,6 +47,7 @@ public class DocumentProcessor {
 
             if (searchDocument.getContent() == null || searchDocument.getContent().isBlank()) {
                 logger.warn("Document content is empty for URL: {}", searchDocument.getUrl());
+                searchDocument.setSignals(computeSignals(searchDocument));
                 return;
             }
 
@@ -57,6 +66,9 @@ public class DocumentProcessor {
                 logger.warn("No language found in metadata for document: {}", searchDocument.getUrl());
             }
 
+            // Precompute ranking signals so that query-time scoring reads typed fields
+            searchDocument.setSignals(computeSignals(searchDocument));
+
             logger.debug("Document processed successfully: {}", searchDocument.getUrl());
         } catch (Exception e) {
             logger.error("Failed to process document: {}", searchDocument.getUrl(), e);
@@ -64,6 +76,27 @@ public class DocumentProcessor {
         }
     }
 
+    /**
+     * Computes the ranking signals stored with the document (popularity, counters, domain authority, location).
+     * Also used to migrate documents indexed before these signals existed.
+     * Link-graph signals (page rank, domain rank, inbound links) are only computed by the PageRank job:
+     * they are kept from the document's current signals.
+     *
+     * @param searchDocument The document to index
+     * @return Ranking signals
+     */
+    public RankSignals computeSignals(SearchDocument searchDocument) {
+        RankSignals signals = popularityScorer.computeSignals(searchDocument);
+        signals.setLocation(locationScorer.extractLocation(searchDocument.getMetadata()));
+        RankSignals current = searchDocument.getSignals();
+        if (current != null) {
+            signals.setPageRank(current.getPageRank());
+            signals.setDomainRank(current.getDomainRank());
+            signals.setInboundLinks(current.getInboundLinks());
+        }
+        return signals;
+    }
+
     /**
      * Cleans content by removing HTML tags and normalizing text.
      *
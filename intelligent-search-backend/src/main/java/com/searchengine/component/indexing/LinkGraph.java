@@ -0,0 +1,288 @@
+package com.searchengine.component.indexing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Graphe des liens entre documents indexés, en représentation compacte (CSR, tableaux primitifs) :
+ * pour chaque nœud, la liste de ses prédécesseurs est une tranche de {@code inSources}, délimitée
+ * par {@code inOffsets}. Seuls les liens entre documents indexés sont conservés (sans boucles).
+ * <p>
+ * Le PageRank est calculé « en tirant » : chaque nœud somme les contributions de ses prédécesseurs,
+ * ce qui permet de répartir les nœuds entre les cœurs sans synchronisation.
+ */
+public final class LinkGraph {
+
+    private final String[] urls;
+    private final int[] inOffsets;
+    private final int[] inSources;
+    private final int[] outDegree;
+
+    /**
+     * Résultat du PageRank : scores (de somme 1), nombre d'itérations et écart L1 de la dernière itération.
+     */
+    public record Ranking(double[] ranks, int iterations, double delta) {
+    }
+
+    private LinkGraph(String[] urls, int[] inOffsets, int[] inSources, int[] outDegree) {
+        this.urls = urls;
+        this.inOffsets = inOffsets;
+        this.inSources = inSources;
+        this.outDegree = outDegree;
+    }
+
+    public int nodeCount() {
+        return urls.length;
+    }
+
+    public long edgeCount() {
+        return inSources.length;
+    }
+
+    public String url(int node) {
+        return urls[node];
+    }
+
+    public int inDegree(int node) {
+        return inOffsets[node + 1] - inOffsets[node];
+    }
+
+    /**
+     * @return Taille estimée des tableaux du graphe et des vecteurs du PageRank, en octets
+     */
+    public long estimatedBytes() {
+        long n = urls.length;
+        return 4L * (inOffsets.length + inSources.length + outDegree.length) // CSR
+                + 8L * n // références des URL (chaînes partagées avec les documents)
+                + 3L * 8L * n; // vecteurs du PageRank
+    }
+
+    /**
+     * PageRank itératif, les nœuds sans lien sortant redistribuant leur score uniformément.
+     *
+     * @param damping Facteur d'amortissement (0.85 usuellement)
+     * @param tolerance Arrêt quand l'écart L1 entre deux itérations passe sous ce seuil
+     * @param maxIterations Nombre maximal d'itérations
+     * @param pool Pool de calcul (un thread par cœur)
+     * @return Scores par nœud
+     */
+    public Ranking pageRank(double damping, double tolerance, int maxIterations, ForkJoinPool pool) {
+        int n = urls.length;
+        if (n == 0) {
+            return new Ranking(new double[0], 0, 0.0);
+        }
+        double[] rank = new double[n];
+        double[] next = new double[n];
+        double[] contribution = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        int chunks = Math.max(1, Math.min(n, pool.getParallelism() * 8));
+
+        int iteration = 0;
+        double delta = Double.MAX_VALUE;
+        while (iteration < maxIterations && delta >= tolerance) {
+            double[] current = rank;
+            double dangling = parallelSum(pool, chunks, n, (from, to) -> {
+                double lost = 0.0;
+                for (int u = from; u < to; u++) {
+                    if (outDegree[u] == 0) {
+                        lost += current[u];
+                        contribution[u] = 0.0;
+                    } else {
+                        contribution[u] = current[u] / outDegree[u];
+                    }
+                }
+                return lost;
+            });
+
+            double base = (1.0 - damping) / n + damping * dangling / n;
+            double[] target = next;
+            delta = parallelSum(pool, chunks, n, (from, to) -> {
+                double diff = 0.0;
+                for (int v = from; v < to; v++) {
+                    double sum = 0.0;
+                    for (int k = inOffsets[v]; k < inOffsets[v + 1]; k++) {
+                        sum += contribution[inSources[k]];
+                    }
+                    target[v] = base + damping * sum;
+                    diff += Math.abs(target[v] - current[v]);
+                }
+                return diff;
+            });
+
+            next = rank;
+            rank = target;
+            iteration++;
+        }
+        return new Ranking(rank, iteration, delta);
+    }
+
+    @FunctionalInterface
+    private interface RangeTask {
+        double run(int from, int to);
+    }
+
+    private static double parallelSum(ForkJoinPool pool, int chunks, int n, RangeTask task) {
+        try {
+            return pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .mapToDouble(c -> task.run((int) ((long) n * c / chunks), (int) ((long) n * (c + 1) / chunks)))
+                    .sum()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Calcul du PageRank interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec du calcul du PageRank", e.getCause());
+        }
+    }
+
+    /**
+     * Construction du graphe, alimentée en parallèle : chaque tranche de lecture écrit dans sa propre
+     * {@link Slice}, seule l'attribution des identifiants de nœuds est partagée.
+     */
+    public static final class Builder {
+
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final AtomicInteger nextId = new AtomicInteger();
+        private final List<Slice> slices = new ArrayList<>();
+
+        public synchronized Slice newSlice() {
+            Slice slice = new Slice();
+            slices.add(slice);
+            return slice;
+        }
+
+        private int nodeId(String url) {
+            return ids.computeIfAbsent(url, u -> nextId.getAndIncrement());
+        }
+
+        /**
+         * Construit le graphe : les nœuds sont renumérotés pour ne garder que les documents indexés,
+         * et les liens vers des pages non indexées ou vers soi-même sont écartés.
+         */
+        public synchronized LinkGraph build() {
+            int allNodes = nextId.get();
+            String[] allUrls = new String[allNodes];
+            ids.forEach((url, id) -> allUrls[id] = url);
+
+            // Renumérotation des seuls documents indexés
+            int[] remap = new int[allNodes];
+            Arrays.fill(remap, -1);
+            int n = 0;
+            for (Slice slice : slices) {
+                for (int i = 0; i < slice.documentCount; i++) {
+                    int id = slice.documents[i];
+                    if (remap[id] < 0) {
+                        remap[id] = n++;
+                    }
+                }
+            }
+            String[] urls = new String[n];
+            for (int id = 0; id < allNodes; id++) {
+                if (remap[id] >= 0) {
+                    urls[remap[id]] = allUrls[id];
+                }
+            }
+            ids.clear();
+
+            // Degrés, puis remplissage des listes de prédécesseurs
+            int[] inOffsets = new int[n + 1];
+            int[] outDegree = new int[n];
+            for (Slice slice : slices) {
+                for (int i = 0; i < slice.edgeCount; i++) {
+                    int source = remap[slice.sources[i]];
+                    int target = remap[slice.targets[i]];
+                    if (target >= 0 && target != source) {
+                        inOffsets[target + 1]++;
+                        outDegree[source]++;
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                inOffsets[v + 1] += inOffsets[v];
+            }
+            int[] inSources = new int[inOffsets[n]];
+            int[] cursor = Arrays.copyOf(inOffsets, n);
+            for (Slice slice : slices) {
+                for (int i = 0; i < slice.edgeCount; i++) {
+                    int source = remap[slice.sources[i]];
+                    int target = remap[slice.targets[i]];
+                    if (target >= 0 && target != source) {
+                        inSources[cursor[target]++] = source;
+                    }
+                }
+                slice.release();
+            }
+            slices.clear();
+            return new LinkGraph(urls, inOffsets, inSources, outDegree);
+        }
+
+        /**
+         * Tampon de liens d'une tranche de lecture (non partagé entre threads).
+         */
+        public final class Slice {
+            private int[] documents = new int[1024];
+            private int documentCount;
+            private int[] sources = new int[4096];
+            private int[] targets = new int[4096];
+            private int edgeCount;
+
+            /**
+             * Ajoute un document indexé et ses liens sortants.
+             *
+             * @param url URL du document (identifiant dans l'index)
+             * @param links Liens sortants
+             */
+            public void addDocument(String url, List<String> links) {
+                int source = nodeId(url);
+                if (documentCount == documents.length) {
+                    documents = Arrays.copyOf(documents, documentCount * 2);
+                }
+                documents[documentCount++] = source;
+                if (links == null) {
+                    return;
+                }
+                for (String link : links) {
+                    String target = normalizeLink(link);
+                    if (target == null) {
+                        continue;
+                    }
+                    if (edgeCount == sources.length) {
+                        sources = Arrays.copyOf(sources, edgeCount * 2);
+                        targets = Arrays.copyOf(targets, edgeCount * 2);
+                    }
+                    sources[edgeCount] = source;
+                    targets[edgeCount] = nodeId(target);
+                    edgeCount++;
+                }
+            }
+
+            public int edgeCount() {
+                return edgeCount;
+            }
+
+            private void release() {
+                documents = null;
+                sources = null;
+                targets = null;
+            }
+        }
+
+        /**
+         * Un lien désigne le même document que l'URL indexée, sans son ancre.
+         */
+        private static String normalizeLink(String link) {
+            if (link == null || link.isBlank()) {
+                return null;
+            }
+            int anchor = link.indexOf('#');
+            String target = anchor >= 0 ? link.substring(0, anchor) : link;
+            return target.isEmpty() ? null : target;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package com.searchengine.component.indexing;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.searchengine.component.scoring.PopularityScorer;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Calcul hors ligne de l'autorité des pages et des domaines à partir du graphe des liens.
+ * <ol>
+ *   <li>Les liens sortants sont lus sur un point-in-time de l'index des documents, en tranches
+ *   (slices) parallèles, et accumulés dans un {@link LinkGraph} compact.</li>
+ *   <li>Le PageRank est itéré par tranches de nœuds sur un pool de calcul dédié ; le rang d'un domaine est la somme des rangs de ses pages.</li>
+ *   <li>Rang de page, rang de domaine et nombre de liens entrants sont écrits dans les signaux des documents
+ *   (champs rank_feature) par mises à jour partielles groupées.</li>
+ *   <li>L'autorité des domaines (0 à 10, échelle logarithmique) remplace l'heuristique de {@link PopularityScorer} ;
+ *   elle est publiée dans Redis pour être rechargée au démarrage.</li>
+ * </ol>
+ */
+@Component
+public class PageRankJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PageRankJob.class);
+    private static final String INDEX = "documents";
+    private static final String REDIS_AUTHORITY_KEY = "ranking:domain-authority";
+
+    private final ElasticsearchClient elasticsearchClient;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final PopularityScorer popularityScorer;
+    private final RankSignalMigration rankSignalMigration;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Executor executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Report report = Report.idle();
+
+    @Value("${app.ranking.pagerank.slices:0}")
+    private int slices; // 0 : un par cœur
+
+    @Value("${app.ranking.pagerank.page-size:1000}")
+    private int pageSize;
+
+    @Value("${app.ranking.pagerank.keep-alive:5m}")
+    private String keepAlive;
+
+    @Value("${app.ranking.pagerank.damping:0.85}")
+    private double damping;
+
+    @Value("${app.ranking.pagerank.tolerance:1e-6}")
+    private double tolerance;
+
+    @Value("${app.ranking.pagerank.max-iterations:50}")
+    private int maxIterations;
+
+    @Value("${app.ranking.pagerank.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.ranking.pagerank.refresh-popularity:true}")
+    private boolean refreshPopularity;
+
+    /**
+     * Source réduite aux liens sortants.
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class LinkSource {
+        private List<String> links;
+    }
+
+    /**
+     * Rapport du dernier calcul (ou de celui en cours) : volumétrie, durée de chaque phase et mémoire.
+     */
+    public record Report(boolean running, String phase, long documents, long edges, int iterations, double delta,
+                         long streamMs, long buildMs, long rankMs, long writeMs,
+                         long graphBytes, long heapUsedBytes, long updated, long failed,
+                         Instant startedAt, Instant finishedAt) {
+
+        static Report idle() {
+            return new Report(false, "idle", 0, 0, 0, 0.0, 0, 0, 0, 0, 0, 0, 0, 0, null, null);
+        }
+
+        Report phase(String name) {
+            return new Report(true, name, documents, edges, iterations, delta, streamMs, buildMs, rankMs, writeMs,
+                    graphBytes, heapUsedBytes, updated, failed, startedAt, null);
+        }
+    }
+
+    public PageRankJob(ElasticsearchClient elasticsearchClient,
+                       ElasticsearchOperations elasticsearchOperations,
+                       PopularityScorer popularityScorer,
+                       RankSignalMigration rankSignalMigration,
+                       RedisTemplate<String, Object> redisTemplate,
+                       @Qualifier("searchExecutor") Executor executor) {
+        this.elasticsearchClient = elasticsearchClient;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.popularityScorer = popularityScorer;
+        this.rankSignalMigration = rankSignalMigration;
+        this.redisTemplate = redisTemplate;
+        this.executor = executor;
+    }
+
+    /**
+     * Recharge au démarrage les autorités de domaine du dernier calcul.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAuthorities() {
+        executor.execute(() -> {
+            try {
+                Map<Object, Object> entries = redisTemplate.opsForHash().entries(REDIS_AUTHORITY_KEY);
+                if (entries.isEmpty()) {
+                    return;
+                }
+                Map<String, Double> authorities = new HashMap<>(entries.size());
+                entries.forEach((domain, authority) -> {
+                    if (authority instanceof Number number) {
+                        authorities.put(domain.toString(), number.doubleValue());
+                    }
+                });
+                popularityScorer.updateDomainAuthorities(authorities);
+            } catch (Exception e) {
+                logger.warn("Échec du chargement des autorités de domaine depuis Redis : {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Calcul périodique (désactivé par défaut : app.ranking.pagerank.cron=-).
+     */
+    @Scheduled(cron = "${app.ranking.pagerank.cron:-}")
+    public void scheduledRun() {
+        if (!start()) {
+            logger.info("Calcul du PageRank déjà en cours, exécution planifiée ignorée");
+        }
+    }
+
+    /**
+     * Lance le calcul en arrière-plan.
+     *
+     * @return false si un calcul est déjà en cours
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        report = new Report(true, "streaming", 0, 0, 0, 0.0, 0, 0, 0, 0, 0, 0, 0, 0, Instant.now(), null);
+        executor.execute(() -> {
+            try {
+                run();
+            } catch (Exception e) {
+                logger.error("Échec du calcul du PageRank : {}", e.getMessage(), e);
+                Report failed = report;
+                report = new Report(false, "failed", failed.documents(), failed.edges(), failed.iterations(),
+                        failed.delta(), failed.streamMs(), failed.buildMs(), failed.rankMs(), failed.writeMs(),
+                        failed.graphBytes(), failed.heapUsedBytes(), failed.updated(), failed.failed(),
+                        failed.startedAt(), Instant.now());
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Report report() {
+        return report;
+    }
+
+    private void run() throws Exception {
+        Instant startedAt = report.startedAt();
+        int parallelism = slices > 0 ? slices : Runtime.getRuntime().availableProcessors();
+
+        // 1. Lecture du graphe en tranches parallèles
+        long start = System.currentTimeMillis();
+        LinkGraph.Builder builder = new LinkGraph.Builder();
+        long documents = streamLinks(builder, parallelism);
+        long streamMs = System.currentTimeMillis() - start;
+
+        // 2. Construction de la représentation compacte
+        report = report.phase("building");
+        start = System.currentTimeMillis();
+        LinkGraph graph = builder.build();
+        long buildMs = System.currentTimeMillis() - start;
+
+        // 3. PageRank, par tranches de nœuds
+        report = report.phase("ranking");
+        start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        LinkGraph.Ranking ranking;
+        try {
+            ranking = graph.pageRank(damping, tolerance, maxIterations, pool);
+        } finally {
+            pool.shutdown();
+        }
+        long rankMs = System.currentTimeMillis() - start;
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+        report = new Report(true, "writing", documents, graph.edgeCount(), ranking.iterations(), ranking.delta(),
+                streamMs, buildMs, rankMs, 0, graph.estimatedBytes(), heapUsed, 0, 0, startedAt, null);
+        logger.info("PageRank calculé : {} documents, {} liens, {} itérations (écart {}), lecture {} ms, "
+                        + "construction {} ms, calcul {} ms, graphe ~{} Mo, tas {} Mo",
+                graph.nodeCount(), graph.edgeCount(), ranking.iterations(), ranking.delta(),
+                streamMs, buildMs, rankMs, graph.estimatedBytes() >> 20, heapUsed >> 20);
+
+        // 4. Rang des domaines et écriture des signaux
+        start = System.currentTimeMillis();
+        int n = graph.nodeCount();
+        double[] pageRanks = new double[n];
+        String[] domains = new String[n];
+        Map<String, Double> domainRanks = new HashMap<>();
+        for (int node = 0; node < n; node++) {
+            // Échelle : la page moyenne vaut 1 (les rank_feature doivent rester strictement positifs)
+            pageRanks[node] = ranking.ranks()[node] * n;
+            domains[node] = PopularityScorer.extractDomain(graph.url(node));
+            if (domains[node] != null) {
+                domainRanks.merge(domains[node], pageRanks[node], Double::sum);
+            }
+        }
+        long[] outcome = writeSignals(graph, pageRanks, domains, domainRanks);
+        long writeMs = System.currentTimeMillis() - start;
+
+        Map<String, Double> authorities = domainAuthorities(domainRanks);
+        popularityScorer.updateDomainAuthorities(authorities);
+        publishAuthorities(authorities);
+
+        report = new Report(false, "done", documents, graph.edgeCount(), ranking.iterations(), ranking.delta(),
+                streamMs, buildMs, rankMs, writeMs, graph.estimatedBytes(), heapUsed, outcome[0], outcome[1],
+                startedAt, Instant.now());
+        logger.info("Signaux du graphe des liens écrits en {} ms : {} documents mis à jour, {} échecs",
+                writeMs, outcome[0], outcome[1]);
+
+        // La popularité précalculée intègre l'autorité du domaine et les liens entrants : on la recalcule
+        if (refreshPopularity && !rankSignalMigration.start(true)) {
+            logger.warn("Migration des signaux déjà en cours, popularité non recalculée après le PageRank");
+        }
+    }
+
+    private long streamLinks(LinkGraph.Builder builder, int sliceCount) throws Exception {
+        String pit = elasticsearchClient.openPointInTime(o -> o.index(INDEX).keepAlive(k -> k.time(keepAlive))).id();
+        ExecutorService readers = Executors.newFixedThreadPool(sliceCount);
+        try {
+            List<Future<Long>> futures = new ArrayList<>(sliceCount);
+            for (int slice = 0; slice < sliceCount; slice++) {
+                int sliceId = slice;
+                LinkGraph.Builder.Slice target = builder.newSlice();
+                futures.add(readers.submit(() -> streamSlice(pit, sliceId, sliceCount, target)));
+            }
+            long documents = 0;
+            for (Future<Long> future : futures) {
+                documents += future.get();
+            }
+            return documents;
+        } finally {
+            readers.shutdownNow();
+            try {
+                elasticsearchClient.closePointInTime(c -> c.id(pit));
+            } catch (Exception e) {
+                logger.debug("Fermeture du point-in-time impossible, il expirera de lui-même", e);
+            }
+        }
+    }
+
+    private long streamSlice(String pit, int sliceId, int sliceCount, LinkGraph.Builder.Slice target) throws IOException {
+        long documents = 0;
+        List<FieldValue> searchAfter = null;
+        while (true) {
+            List<FieldValue> after = searchAfter;
+            SearchResponse<LinkSource> response = elasticsearchClient.search(s -> {
+                s.pit(p -> p.id(pit).keepAlive(k -> k.time(keepAlive)))
+                        .size(pageSize)
+                        .source(src -> src.filter(f -> f.includes("links")))
+                        .sort(so -> so.field(f -> f.field("_shard_doc")))
+                        .trackTotalHits(t -> t.enabled(false));
+                if (sliceCount > 1) {
+                    s.slice(sl -> sl.id(String.valueOf(sliceId)).max(sliceCount));
+                }
+                if (after != null) {
+                    s.searchAfter(after);
+                }
+                return s;
+            }, LinkSource.class);
+
+            List<Hit<LinkSource>> hits = response.hits().hits();
+            for (Hit<LinkSource> hit : hits) {
+                target.addDocument(hit.id(), hit.source() != null ? hit.source().getLinks() : null);
+            }
+            documents += hits.size();
+            if (hits.size() < pageSize) {
+                return documents;
+            }
+            searchAfter = hits.get(hits.size() - 1).sort();
+        }
+    }
+
+    /**
+     * @return Nombre de documents mis à jour et nombre d'échecs
+     */
+    private long[] writeSignals(LinkGraph graph, double[] pageRanks, String[] domains, Map<String, Double> domainRanks) {
+        long updated = 0;
+        long failed = 0;
+        List<UpdateQuery> batch = new ArrayList<>(batchSize);
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            Map<String, Object> signals = new HashMap<>();
+            signals.put("pageRank", pageRanks[node]);
+            signals.put("inboundLinks", graph.inDegree(node));
+            if (domains[node] != null) {
+                signals.put("domainRank", domainRanks.get(domains[node]));
+            }
+            Document update = Document.create();
+            update.put("signals", signals);
+            batch.add(UpdateQuery.builder(graph.url(node)).withDocument(update).build());
+
+            if (batch.size() >= batchSize || node == graph.nodeCount() - 1) {
+                int batchFailures = flush(batch);
+                updated += batch.size() - batchFailures;
+                failed += batchFailures;
+                batch.clear();
+            }
+        }
+        return new long[]{updated, failed};
+    }
+
+    private int flush(List<UpdateQuery> batch) {
+        try {
+            elasticsearchOperations.bulkUpdate(batch, IndexCoordinates.of(INDEX));
+            return 0;
+        } catch (BulkFailureException e) {
+            logger.warn("{} mises à jour du PageRank en échec dans un lot de {}", e.getFailedDocuments().size(), batch.size());
+            return e.getFailedDocuments().size();
+        } catch (Exception e) {
+            logger.warn("Échec d'un lot de {} mises à jour du PageRank : {}", batch.size(), e.getMessage());
+            return batch.size();
+        }
+    }
+
+    /**
+     * Autorité de 0 à 10 : logarithme du rang du domaine, rapporté à celui du domaine le mieux classé.
+     */
+    private static Map<String, Double> domainAuthorities(Map<String, Double> domainRanks) {
+        double max = domainRanks.values().stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+        Map<String, Double> authorities = new HashMap<>(domainRanks.size());
+        if (max <= 0) {
+            return authorities;
+        }
+        double scale = Math.log1p(max);
+        domainRanks.forEach((domain, rank) -> authorities.put(domain, 10.0 * Math.log1p(rank) / scale));
+        return authorities;
+    }
+
+    private void publishAuthorities(Map<String, Double> authorities) {
+        try {
+            redisTemplate.delete(REDIS_AUTHORITY_KEY);
+            if (!authorities.isEmpty()) {
+                redisTemplate.opsForHash().putAll(REDIS_AUTHORITY_KEY, authorities);
+            }
+        } catch (Exception e) {
+            logger.warn("Échec de la publication des autorités de domaine dans Redis : {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.searchengine.component.indexing;
+
+import com.searchengine.model.entity.RankSignals;
+import com.searchengine.model.entity.SearchDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Migration des documents indexés avant l'ajout des signaux de classement : les documents sans
+ * {@code signals.popularity} sont relus, leurs signaux calculés par {@link DocumentProcessor}
+ * puis écrits par mises à jour partielles groupées. La migration peut être relancée sans risque :
+ * seuls les documents encore sans signaux sont traités, sauf si le recalcul de tous les documents
+ * est demandé (après un calcul du PageRank, par exemple).
+ */
+@Component
+public class RankSignalMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankSignalMigration.class);
+    private static final String INDEX = "documents";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final DocumentProcessor documentProcessor;
+    private final Executor executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Status status = new Status(false, 0, 0, 0, null, null);
+
+    @Value("${app.indexing.signals-migration.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * État de la dernière migration (ou de celle en cours).
+     */
+    public record Status(boolean running, long processed, long updated, long failed,
+                         Instant startedAt, Instant finishedAt) {
+    }
+
+    public RankSignalMigration(ElasticsearchOperations elasticsearchOperations,
+                               DocumentProcessor documentProcessor,
+                               @Qualifier("searchExecutor") Executor executor) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.documentProcessor = documentProcessor;
+        this.executor = executor;
+    }
+
+    /**
+     * Lance la migration en arrière-plan.
+     *
+     * @param all true pour recalculer les signaux de tous les documents, false pour les seuls documents sans signaux
+     * @return false si une migration est déjà en cours
+     */
+    public boolean start(boolean all) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Instant startedAt = Instant.now();
+        status = new Status(true, 0, 0, 0, startedAt, null);
+        executor.execute(() -> {
+            try {
+                migrate(startedAt, all);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    private void migrate(Instant startedAt, boolean all) {
+        logger.info("Migration des signaux de classement démarrée ({})", all ? "tous les documents" : "documents sans signaux");
+        NativeQuery query = all
+                ? NativeQuery.builder().withQuery(q -> q.matchAll(m -> m)).build()
+                : NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.mustNot(m -> m.exists(e -> e.field("signals.popularity")))))
+                .build();
+
+        long processed = 0;
+        long updated = 0;
+        long failed = 0;
+        List<UpdateQuery> batch = new ArrayList<>(batchSize);
+        try (SearchHitsIterator<SearchDocument> hits = elasticsearchOperations.searchForStream(
+                query, SearchDocument.class, IndexCoordinates.of(INDEX))) {
+            while (hits.hasNext()) {
+                batch.add(updateQuery(hits.next()));
+                processed++;
+                if (batch.size() >= batchSize) {
+                    int batchFailures = flush(batch);
+                    updated += batch.size() - batchFailures;
+                    failed += batchFailures;
+                    batch.clear();
+                    status = new Status(true, processed, updated, failed, startedAt, null);
+                }
+            }
+            if (!batch.isEmpty()) {
+                int batchFailures = flush(batch);
+                updated += batch.size() - batchFailures;
+                failed += batchFailures;
+            }
+        } catch (Exception e) {
+            logger.error("Échec de la migration des signaux de classement : {}", e.getMessage(), e);
+        }
+
+        status = new Status(false, processed, updated, failed, startedAt, Instant.now());
+        logger.info("Migration des signaux de classement terminée : {} documents lus, {} mis à jour, {} échecs",
+                processed, updated, failed);
+    }
+
+    private UpdateQuery updateQuery(SearchHit<SearchDocument> hit) {
+        RankSignals signals = documentProcessor.computeSignals(hit.getContent());
+        Document update = Document.create();
+        update.put("signals", elasticsearchOperations.getElasticsearchConverter().mapObject(signals));
+        return UpdateQuery.builder(hit.getId()).withDocument(update).build();
+    }
+
+    /**
+     * @return Nombre de documents du lot dont la mise à jour a échoué
+     */
+    private int flush(List<UpdateQuery> batch) {
+        try {
+            elasticsearchOperations.bulkUpdate(batch, IndexCoordinates.of(INDEX));
+            return 0;
+        } catch (BulkFailureException e) {
+            logger.warn("{} mises à jour de signaux en échec dans un lot de {}", e.getFailedDocuments().size(), batch.size());
+            return e.getFailedDocuments().size();
+        } catch (Exception e) {
+            logger.warn("Échec d'un lot de {} mises à jour de signaux : {}", batch.size(), e.getMessage());
+            return batch.size();
+        }
+    }
+}
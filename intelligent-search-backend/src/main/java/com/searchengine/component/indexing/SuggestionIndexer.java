@@ -0,0 +1,183 @@
+package com.searchengine.component.indexing;
+
+import com.searchengine.component.autocomplete.AutocompleteIndex;
+import com.searchengine.model.entity.AutocompleteSuggestion;
+import com.searchengine.model.entity.SearchDocument;
+import com.searchengine.utils.QueryNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Alimente l'index de suggestions « autocomplete » à partir des documents indexés.
+ * Chaque document produit une entrée pour son titre (avec ses suffixes, pour compléter
+ * à partir d'un mot du milieu) et une entrée par expression fréquente de son contenu.
+ * Le poids des entrées reflète la popularité du document. Les mêmes entrées alimentent
+ * le trie d'autocomplétion en mémoire.
+ */
+@Component
+public class SuggestionIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionIndexer.class);
+    public static final String INDEX = "autocomplete";
+    public static final String LANGUAGE_CONTEXT = "language";
+    public static final String UNKNOWN_LANGUAGE = "und";
+
+    private static final int MAX_TITLE_SUFFIXES = 8;
+    private static final int MIN_PHRASE_WORD_LENGTH = 3;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final AutocompleteIndex autocompleteIndex;
+
+    @Value("${app.autocomplete.suggester.phrases-per-document:5}")
+    private int phrasesPerDocument;
+
+    @Value("${app.autocomplete.suggester.min-phrase-occurrences:2}")
+    private int minPhraseOccurrences;
+
+    @Value("${app.scoring.popularity.default-score:50.0}")
+    private double defaultPopularity;
+
+    public SuggestionIndexer(ElasticsearchOperations elasticsearchOperations, AutocompleteIndex autocompleteIndex) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.autocompleteIndex = autocompleteIndex;
+    }
+
+    /**
+     * Indexe les suggestions d'un lot de documents. Un échec n'interrompt pas l'indexation
+     * des documents : l'autocomplétion dispose d'un repli sur les titres.
+     *
+     * @param documents Documents indexés avec succès
+     */
+    public void index(List<SearchDocument> documents) {
+        List<IndexQuery> queries = new ArrayList<>();
+        for (SearchDocument document : documents) {
+            List<AutocompleteSuggestion> suggestions = buildSuggestions(document);
+            autocompleteIndex.addSuggestions(suggestions);
+            for (AutocompleteSuggestion suggestion : suggestions) {
+                queries.add(new IndexQueryBuilder()
+                        .withId(suggestion.getId())
+                        .withObject(suggestion)
+                        .build());
+            }
+        }
+        if (queries.isEmpty()) {
+            return;
+        }
+
+        try {
+            elasticsearchOperations.bulkIndex(queries, IndexCoordinates.of(INDEX));
+            logger.debug("{} suggestions indexées pour {} documents", queries.size(), documents.size());
+        } catch (Exception e) {
+            logger.error("Échec de l'indexation des suggestions pour {} documents : {}", documents.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Construit les entrées de suggestion d'un document.
+     *
+     * @param document Document source
+     * @return Entrées à indexer (titre puis expressions fréquentes)
+     */
+    public List<AutocompleteSuggestion> buildSuggestions(SearchDocument document) {
+        List<AutocompleteSuggestion> suggestions = new ArrayList<>();
+        String language = StringUtils.hasText(document.getLanguage())
+                ? document.getLanguage().toLowerCase()
+                : UNKNOWN_LANGUAGE;
+        int weight = weightOf(document);
+
+        String title = document.getTitle() != null ? document.getTitle().trim() : "";
+        if (StringUtils.hasText(title)) {
+            String[] words = QueryNormalizer.normalize(title).split(" ");
+            Set<String> inputs = new LinkedHashSet<>();
+            inputs.add(title);
+            for (int i = 1; i < words.length && i <= MAX_TITLE_SUFFIXES; i++) {
+                inputs.add(String.join(" ", List.of(words).subList(i, words.length)));
+            }
+            suggestions.add(entry(AutocompleteSuggestion.KIND_TITLE + '|' + document.getUrl(), title,
+                    AutocompleteSuggestion.KIND_TITLE, document.getUrl(), language, inputs, weight));
+        }
+
+        for (Map.Entry<String, Integer> phrase : frequentPhrases(document.getContent())) {
+            // Une expression partagée par plusieurs documents garde le poids de la dernière indexation
+            suggestions.add(entry(AutocompleteSuggestion.KIND_PHRASE + '|' + language + '|' + phrase.getKey(), phrase.getKey(),
+                    AutocompleteSuggestion.KIND_PHRASE, document.getUrl(), language,
+                    Set.of(phrase.getKey()), weight + phrase.getValue()));
+        }
+        return suggestions;
+    }
+
+    private AutocompleteSuggestion entry(String id, String text, String kind, String url, String language,
+                                         Set<String> inputs, int weight) {
+        Completion completion = new Completion(inputs.toArray(String[]::new));
+        completion.setWeight(weight);
+        completion.setContexts(Map.of(LANGUAGE_CONTEXT, List.of(language)));
+
+        AutocompleteSuggestion suggestion = new AutocompleteSuggestion();
+        suggestion.setId(id);
+        suggestion.setText(text);
+        suggestion.setKind(kind);
+        suggestion.setUrl(url);
+        suggestion.setLanguage(language);
+        suggestion.setSuggestion(completion);
+        return suggestion;
+    }
+
+    /**
+     * Expressions de deux ou trois mots les plus fréquentes du contenu.
+     */
+    private List<Map.Entry<String, Integer>> frequentPhrases(String content) {
+        if (!StringUtils.hasText(content) || phrasesPerDocument <= 0) {
+            return List.of();
+        }
+        String[] words = QueryNormalizer.normalize(content).split(" ");
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i + 1 < words.length; i++) {
+            if (words[i].length() < MIN_PHRASE_WORD_LENGTH || words[i + 1].length() < MIN_PHRASE_WORD_LENGTH) {
+                continue;
+            }
+            String bigram = words[i] + ' ' + words[i + 1];
+            counts.merge(bigram, 1, Integer::sum);
+            if (i + 2 < words.length && words[i + 2].length() >= MIN_PHRASE_WORD_LENGTH) {
+                counts.merge(bigram + ' ' + words[i + 2], 1, Integer::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .filter(e -> e.getValue() >= minPhraseOccurrences)
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(phrasesPerDocument)
+                .toList();
+    }
+
+    /**
+     * Poids de complétion : popularité explicite du document, sinon popularité par défaut.
+     */
+    private int weightOf(SearchDocument document) {
+        double popularity = defaultPopularity;
+        String explicit = document.getMetadata() != null ? document.getMetadata().get("popularity") : null;
+        if (StringUtils.hasText(explicit)) {
+            try {
+                popularity = Double.parseDouble(explicit);
+            } catch (NumberFormatException e) {
+                logger.debug("Popularité invalide pour {} : {}", document.getUrl(), explicit);
+            }
+        }
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(popularity)));
+    }
+}
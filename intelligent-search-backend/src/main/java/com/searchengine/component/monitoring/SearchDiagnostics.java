@@ -0,0 +1,51 @@
+package com.searchengine.component.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Component deciding when raw Elasticsearch sources should be inspected for diagnostics.
+ * Inspection is opt-in: either one request out of N is sampled, or the client sends
+ * the diagnostic header explicitly.
+ */
+@Component
+public class SearchDiagnostics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchDiagnostics.class);
+    public static final String DEBUG_HEADER = "X-Search-Debug";
+
+    private final AtomicLong requestCounter = new AtomicLong();
+
+    @Value("${app.search.diagnostics.sample-rate:0}")
+    private int sampleRate;
+
+    /**
+     * Determines whether the current query should run in raw-source inspection mode.
+     *
+     * @return true if raw sources should be logged for this query
+     */
+    public boolean shouldInspectRawSource() {
+        if (isRequestedByHeader()) {
+            logger.debug("Raw source inspection requested by header {}", DEBUG_HEADER);
+            return true;
+        }
+        return sampleRate > 0 && requestCounter.incrementAndGet() % sampleRate == 0;
+    }
+
+    private boolean isRequestedByHeader() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        return "true".equalsIgnoreCase(request.getHeader(DEBUG_HEADER));
+    }
+}
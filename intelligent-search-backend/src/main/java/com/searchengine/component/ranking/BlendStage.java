@@ -0,0 +1,58 @@
+package com.searchengine.component.ranking;
+
+import com.searchengine.model.dto.response.DocumentResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Score final (phase RERANK) : mélange du score de classement et de la pertinence selon leurs poids,
+ * puis bonus de langue quand le document est dans la langue demandée. En mode serveur, le bonus est déjà
+ * compris dans le score d'Elasticsearch (voir RankingQueryBuilder) : le score final reste alors croissant
+ * avec celui-ci et cohérent avec l'ordre d'Elasticsearch.
+ */
+@Component
+@Order(0)
+public class BlendStage implements RankingStage {
+
+    // La pertinence est déjà portée par l'ordre Elasticsearch : elle compte ici pour une constante
+    private static final double RELEVANCE_SCORE = 1.0;
+
+    private final RankingWeights weights;
+
+    public BlendStage(RankingWeights weights) {
+        this.weights = weights;
+    }
+
+    @Override
+    public String name() {
+        return "blend";
+    }
+
+    @Override
+    public Phase phase() {
+        return Phase.RERANK;
+    }
+
+    @Override
+    public long defaultBudgetMillis() {
+        return 5;
+    }
+
+    @Override
+    public void apply(RankingCandidates candidates) {
+        double rankingWeight = weights.rankingWeight();
+        double relevanceWeight = weights.getRelevance();
+        String language = candidates.serverSideRanking() ? null : candidates.language();
+        for (int i = 0; i < candidates.size(); i++) {
+            double languageBoost = matchesLanguage(candidates.document(i), language) ? weights.getLanguageBoost() : 1.0;
+            candidates.setScore(i, (candidates.score(i) + RELEVANCE_SCORE * relevanceWeight)
+                    / (rankingWeight + relevanceWeight) * languageBoost);
+        }
+    }
+
+    private static boolean matchesLanguage(DocumentResponse document, String language) {
+        return StringUtils.hasText(language) && document.getMetadata() != null
+                && language.equalsIgnoreCase(document.getMetadata().getOrDefault("language", ""));
+    }
+}
@@ -0,0 +1,56 @@
+package com.searchengine.component.ranking;
+
+import com.searchengine.component.scoring.ScoreCalculator;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Score initial (phase RETRIEVE) : score de classement d'Elasticsearch en mode serveur, sinon somme
+ * pondérée popularité / fraîcheur / localisation calculée en lot par {@link ScoreCalculator}.
+ */
+@Component
+@Order(0)
+public class FeatureScoreStage implements RankingStage {
+
+    private final ScoreCalculator scoreCalculator;
+    private final RankingWeights weights;
+
+    public FeatureScoreStage(ScoreCalculator scoreCalculator, RankingWeights weights) {
+        this.scoreCalculator = scoreCalculator;
+        this.weights = weights;
+    }
+
+    @Override
+    public String name() {
+        return "features";
+    }
+
+    @Override
+    public Phase phase() {
+        return Phase.RETRIEVE;
+    }
+
+    @Override
+    public long defaultBudgetMillis() {
+        return 20;
+    }
+
+    @Override
+    public void apply(RankingCandidates candidates) {
+        int n = candidates.size();
+        if (candidates.serverSideRanking()) {
+            for (int i = 0; i < n; i++) {
+                double score = candidates.retrievalScore(i);
+                candidates.setScore(i, Double.isNaN(score) ? 0.0 : score);
+            }
+            return;
+        }
+
+        double[] scores = scoreCalculator.scoreBatch(candidates.features(), candidates.context(),
+                weights.getPopularity(), weights.getFreshness(), weights.getLocation());
+        double rankingWeight = weights.rankingWeight();
+        for (int i = 0; i < n; i++) {
+            candidates.setScore(i, scores[i] * rankingWeight);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.searchengine.component.ranking;
+
+import java.util.List;
+
+/**
+ * Modèle linéaire : biais plus somme pondérée des caractéristiques (une valeur inconnue compte pour 0).
+ */
+final class LinearRankingModel implements RankingModel {
+
+    private final List<RankingFeature> features;
+    private final double[] weights;
+    private final double bias;
+    private final double queryWeight;
+    private final double modelWeight;
+    private final String version;
+
+    LinearRankingModel(List<RankingFeature> features, double[] weights, double bias,
+                       double queryWeight, double modelWeight, String version) {
+        if (weights.length != features.size()) {
+            throw new IllegalArgumentException("Modèle linéaire : " + weights.length + " poids pour "
+                    + features.size() + " caractéristiques");
+        }
+        this.features = List.copyOf(features);
+        this.weights = weights.clone();
+        this.bias = bias;
+        this.queryWeight = queryWeight;
+        this.modelWeight = modelWeight;
+        this.version = version;
+    }
+
+    @Override
+    public List<RankingFeature> features() {
+        return features;
+    }
+
+    @Override
+    public double score(double[] values) {
+        double score = bias;
+        for (int i = 0; i < weights.length; i++) {
+            double value = values[i];
+            if (!Double.isNaN(value)) {
+                score += weights[i] * value;
+            }
+        }
+        return score;
+    }
+
+    @Override
+    public double queryWeight() {
+        return queryWeight;
+    }
+
+    @Override
+    public double modelWeight() {
+        return modelWeight;
+    }
+
+    @Override
+    public String description() {
+        return "linéaire " + version + ", " + features.size() + " caractéristiques";
+    }
+}
@@ -0,0 +1,117 @@
+package com.searchengine.component.ranking;
+
+import com.searchengine.component.scoring.FreshnessScorer;
+import com.searchengine.component.scoring.LocationScorer;
+import com.searchengine.component.scoring.ScoreBatch;
+import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.entity.RankSignals;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Re-scoring (phase RESCORE) des meilleurs candidats par le modèle de {@link RankingModelLoader},
+ * linéaire ou ensemble d'arbres, évalué sur les caractéristiques précalculées à l'indexation.
+ * L'étape est inactive tant qu'aucun modèle n'est chargé.
+ */
+@Component
+@Order(0)
+public class ModelRescoreStage implements RankingStage {
+
+    // Fréquence de vérification du budget, en candidats
+    private static final int BUDGET_CHECK_INTERVAL = 16;
+
+    private final RankingModelLoader modelLoader;
+    private final FreshnessScorer freshnessScorer;
+    private final LocationScorer locationScorer;
+
+    public ModelRescoreStage(RankingModelLoader modelLoader, FreshnessScorer freshnessScorer,
+                             LocationScorer locationScorer) {
+        this.modelLoader = modelLoader;
+        this.freshnessScorer = freshnessScorer;
+        this.locationScorer = locationScorer;
+    }
+
+    @Override
+    public String name() {
+        return "model-rescore";
+    }
+
+    @Override
+    public Phase phase() {
+        return Phase.RESCORE;
+    }
+
+    @Override
+    public long defaultBudgetMillis() {
+        return 30;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return modelLoader.current() != null;
+    }
+
+    @Override
+    public void apply(RankingCandidates candidates) {
+        RankingModel model = modelLoader.current();
+        if (model == null) {
+            return;
+        }
+        List<RankingFeature> features = model.features();
+        ScoreBatch batch = candidates.features();
+        double[] freshness = null;
+        double[] location = null;
+        if (features.contains(RankingFeature.FRESHNESS)) {
+            freshness = new double[batch.size()];
+            freshnessScorer.scoreFreshness(batch.crawlEpochMillis(), System.currentTimeMillis(), freshness, 0, batch.size());
+        }
+        if (features.contains(RankingFeature.LOCATION)) {
+            location = new double[batch.size()];
+            locationScorer.scoreLocations(batch, candidates.context(), location, 0, batch.size());
+        }
+
+        int[] window = candidates.window();
+        double[] vector = new double[features.size()];
+        for (int k = 0; k < window.length; k++) {
+            if (k % BUDGET_CHECK_INTERVAL == 0) {
+                candidates.checkBudget();
+            }
+            int position = window[k];
+            for (int f = 0; f < vector.length; f++) {
+                vector[f] = value(features.get(f), candidates, position, batch, freshness, location);
+            }
+            double firstPass = candidates.score(position);
+            candidates.setScore(position, model.queryWeight() * firstPass + model.modelWeight() * model.score(vector));
+        }
+    }
+
+    private static double value(RankingFeature feature, RankingCandidates candidates, int position,
+                                ScoreBatch batch, double[] freshness, double[] location) {
+        DocumentResponse document = candidates.document(position);
+        RankSignals signals = document.getSignals();
+        return switch (feature) {
+            case POPULARITY -> batch.popularity()[position];
+            case FRESHNESS -> freshness[position];
+            case LOCATION -> location[position];
+            case PAGE_RANK -> signals != null ? number(signals.getPageRank()) : Double.NaN;
+            case DOMAIN_RANK -> signals != null ? number(signals.getDomainRank()) : Double.NaN;
+            case DOMAIN_AUTHORITY -> signals != null ? number(signals.getDomainAuthority()) : Double.NaN;
+            case INBOUND_LINKS -> signals != null ? number(signals.getInboundLinks()) : Double.NaN;
+            case CONTENT_LENGTH -> signals != null ? number(signals.getContentLength()) : Double.NaN;
+            case LINK_COUNT -> signals != null ? number(signals.getLinkCount()) : Double.NaN;
+            case MEDIA_COUNT -> signals != null ? number(signals.getMediaCount()) : Double.NaN;
+            case LANGUAGE_MATCH -> StringUtils.hasText(candidates.language()) && document.getMetadata() != null
+                    && candidates.language().equalsIgnoreCase(document.getMetadata().getOrDefault("language", ""))
+                    ? 1.0 : 0.0;
+            case RETRIEVAL_SCORE -> candidates.retrievalScore(position);
+            case FIRST_PASS_SCORE -> candidates.score(position);
+        };
+    }
+
+    private static double number(Number value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
@@ -0,0 +1,135 @@
+package com.searchengine.component.ranking;
+
+import com.searchengine.component.scoring.ScoreBatch;
+import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.entity.SearchContext;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Candidats d'une page de résultats en cours de classement : documents, score Elasticsearch,
+ * score courant (mis à jour par les étapes successives) et caractéristiques de classement,
+ * rangées en colonnes au premier besoin. Les positions ne changent pas pendant le pipeline ;
+ * l'ordre final est calculé à la fin par {@link RankingPipeline}.
+ */
+public final class RankingCandidates {
+
+    private final List<DocumentResponse> documents;
+    private final double[] retrievalScores;
+    private final double[] scores;
+    private final SearchContext context;
+    private final String language;
+    private final boolean serverSideRanking;
+    private final Function<List<DocumentResponse>, ScoreBatch> featureLoader;
+    private ScoreBatch features;
+    private int[] window = new int[0];
+    private boolean budgeted;
+    private long deadlineNanos;
+
+    /**
+     * Levée par {@link #checkBudget()} quand l'étape en cours a dépassé son budget de latence.
+     */
+    public static final class BudgetExceededException extends RuntimeException {
+        BudgetExceededException() {
+            super("Budget de latence de l'étape dépassé", null, false, false);
+        }
+    }
+
+    /**
+     * @param documents Documents de la page, dans l'ordre d'Elasticsearch
+     * @param retrievalScores Score Elasticsearch de chaque document (NaN si absent)
+     * @param context Contexte de recherche
+     * @param language Langue demandée (optionnelle)
+     * @param serverSideRanking true si Elasticsearch a déjà calculé le score de classement
+     * @param featureLoader Construction des colonnes de caractéristiques
+     */
+    public RankingCandidates(List<DocumentResponse> documents, double[] retrievalScores, SearchContext context,
+                             String language, boolean serverSideRanking,
+                             Function<List<DocumentResponse>, ScoreBatch> featureLoader) {
+        this.documents = documents;
+        this.retrievalScores = retrievalScores;
+        this.scores = new double[documents.size()];
+        this.context = context;
+        this.language = language;
+        this.serverSideRanking = serverSideRanking;
+        this.featureLoader = featureLoader;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public DocumentResponse document(int position) {
+        return documents.get(position);
+    }
+
+    public double retrievalScore(int position) {
+        return retrievalScores[position];
+    }
+
+    public double score(int position) {
+        return scores[position];
+    }
+
+    public void setScore(int position, double score) {
+        scores[position] = score;
+    }
+
+    public SearchContext context() {
+        return context;
+    }
+
+    public String language() {
+        return language;
+    }
+
+    public boolean serverSideRanking() {
+        return serverSideRanking;
+    }
+
+    /**
+     * @return Caractéristiques de classement en colonnes (calculées une fois, partagées entre étapes)
+     */
+    public ScoreBatch features() {
+        if (features == null) {
+            features = featureLoader.apply(documents);
+        }
+        return features;
+    }
+
+    /**
+     * @return Positions des candidats de la fenêtre de re-scoring, par score décroissant (phase RESCORE)
+     */
+    public int[] window() {
+        return window;
+    }
+
+    /**
+     * Interrompt l'étape en cours si son budget de latence est épuisé.
+     *
+     * @throws BudgetExceededException si le budget est dépassé
+     */
+    public void checkBudget() {
+        if (budgeted && System.nanoTime() - deadlineNanos > 0) {
+            throw new BudgetExceededException();
+        }
+    }
+
+    double[] scores() {
+        return scores;
+    }
+
+    void window(int[] window) {
+        this.window = window;
+    }
+
+    void deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+        this.budgeted = true;
+    }
+
+    void clearDeadline() {
+        this.budgeted = false;
+    }
+}
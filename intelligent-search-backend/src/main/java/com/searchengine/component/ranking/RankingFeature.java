@@ -0,0 +1,55 @@
+package com.searchengine.component.ranking;
+
+import java.util.Arrays;
+
+/**
+ * Caractéristiques précalculées utilisables par un modèle de classement, désignées par leur nom
+ * dans le fichier du modèle. Une valeur inconnue vaut NaN.
+ */
+public enum RankingFeature {
+    /** Popularité normalisée (signals.popularity) */
+    POPULARITY("popularity"),
+    /** Score de fraîcheur, entre 0 et 1 */
+    FRESHNESS("freshness"),
+    /** Score de localisation par rapport à l'utilisateur, entre 0 et 1 */
+    LOCATION("location"),
+    /** PageRank de la page (signals.pageRank, 1 pour une page moyenne) */
+    PAGE_RANK("pageRank"),
+    /** Rang du domaine (signals.domainRank) */
+    DOMAIN_RANK("domainRank"),
+    /** Autorité du domaine, de 0 à 10 */
+    DOMAIN_AUTHORITY("domainAuthority"),
+    INBOUND_LINKS("inboundLinks"),
+    CONTENT_LENGTH("contentLength"),
+    LINK_COUNT("linkCount"),
+    MEDIA_COUNT("mediaCount"),
+    /** 1 si le document est dans la langue demandée, 0 sinon */
+    LANGUAGE_MATCH("languageMatch"),
+    /** Score Elasticsearch du document */
+    RETRIEVAL_SCORE("retrievalScore"),
+    /** Score à l'entrée de la phase de re-scoring */
+    FIRST_PASS_SCORE("firstPassScore");
+
+    private final String featureName;
+
+    RankingFeature(String featureName) {
+        this.featureName = featureName;
+    }
+
+    public String featureName() {
+        return featureName;
+    }
+
+    /**
+     * @throws IllegalArgumentException si le nom est inconnu
+     */
+    public static RankingFeature of(String featureName) {
+        for (RankingFeature feature : values()) {
+            if (feature.featureName.equals(featureName)) {
+                return feature;
+            }
+        }
+        throw new IllegalArgumentException("Caractéristique inconnue : " + featureName
+                + " (attendu : " + Arrays.stream(values()).map(RankingFeature::featureName).toList() + ")");
+    }
+}
@@ -0,0 +1,31 @@
+package com.searchengine.component.ranking;
+
+import java.util.List;
+
+/**
+ * Modèle de re-scoring chargé depuis un fichier par {@link RankingModelLoader}.
+ * Le score de re-scoring d'un candidat vaut {@code queryWeight * score + modelWeight * score(x)},
+ * comme le rescore d'Elasticsearch.
+ */
+public interface RankingModel {
+
+    /**
+     * @return Caractéristiques attendues, dans l'ordre du vecteur passé à {@link #score}
+     */
+    List<RankingFeature> features();
+
+    /**
+     * @param features Valeurs des caractéristiques (NaN si inconnue)
+     * @return Score du modèle
+     */
+    double score(double[] features);
+
+    double queryWeight();
+
+    double modelWeight();
+
+    /**
+     * @return Description pour les journaux (type, version, taille)
+     */
+    String description();
+}
@@ -0,0 +1,182 @@
+package com.searchengine.component.ranking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chargement du modèle de re-scoring depuis un fichier local (app.ranking.model.path), rechargé à chaud :
+ * le fichier est surveillé périodiquement et le nouveau modèle remplace l'ancien dès qu'il est valide.
+ * Un fichier invalide est ignoré (le modèle précédent reste en place) et relu à chaque vérification
+ * jusqu'à ce qu'il soit valide : un fichier lu en cours d'écriture est ainsi rechargé une fois complet,
+ * même si sa date de modification n'a pas changé entre-temps. Un fichier supprimé désactive le re-scoring.
+ * Pour ne jamais lire un fichier partiel, le publier par renommage atomique (écriture dans un fichier
+ * temporaire du même répertoire, puis mv).
+ * <p>
+ * Format JSON :
+ * <pre>
+ * {
+ *   "type": "linear",                      // ou "trees"
+ *   "version": "2026-10-01",
+ *   "features": ["popularity", "freshness", "pageRank"],
+ *   "queryWeight": 1.0, "modelWeight": 1.0,
+ *   "bias": 0.0, "weights": [0.5, 0.3, 0.2]   // modèle linéaire
+ *   "baseScore": 0.0, "learningRate": 1.0,    // ensemble d'arbres
+ *   "trees": [[{"feature": 0, "threshold": 0.5, "yes": 1, "no": 2, "missing": 1},
+ *              {"leaf": 0.2}, {"leaf": -0.1}]]
+ * }
+ * </pre>
+ * Dans les arbres, {@code feature} est l'indice dans la liste {@code features}.
+ */
+@Component
+public class RankingModelLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankingModelLoader.class);
+
+    private final ObjectMapper objectMapper;
+    private final Counter reloads;
+    private final Counter failures;
+    private volatile RankingModel model;
+    private FileTime loadedVersion;
+    private FileTime failedVersion;
+
+    @Value("${app.ranking.model.path:}")
+    private String modelPath;
+
+    public RankingModelLoader(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.reloads = reloadCounter(meterRegistry, "success");
+        this.failures = reloadCounter(meterRegistry, "failure");
+    }
+
+    /**
+     * @return Modèle courant, ou null si aucun n'est chargé
+     */
+    public RankingModel current() {
+        return model;
+    }
+
+    /**
+     * Recharge le modèle si le fichier a changé depuis le dernier chargement.
+     */
+    @Scheduled(fixedDelayString = "${app.ranking.model.reload-interval-ms:10000}")
+    public synchronized void reloadIfChanged() {
+        if (!StringUtils.hasText(modelPath)) {
+            return;
+        }
+        Path path = Path.of(modelPath);
+        if (!Files.isRegularFile(path)) {
+            if (model != null) {
+                logger.warn("Fichier du modèle de classement {} introuvable : re-scoring désactivé", path);
+                model = null;
+                loadedVersion = null;
+            }
+            failedVersion = null;
+            return;
+        }
+
+        FileTime version = null;
+        try {
+            version = Files.getLastModifiedTime(path);
+            if (version.equals(loadedVersion)) {
+                return;
+            }
+            RankingModel loaded = parse(objectMapper.readTree(path.toFile()));
+            // La version n'est retenue qu'après un chargement réussi
+            model = loaded;
+            loadedVersion = version;
+            failedVersion = null;
+            reloads.increment();
+            logger.info("Modèle de classement chargé depuis {} : {}", path, loaded.description());
+        } catch (IOException | IllegalArgumentException e) {
+            // Le même fichier invalide est relu à chaque vérification, mais l'échec n'est signalé qu'une fois
+            if (version == null || !version.equals(failedVersion)) {
+                failedVersion = version;
+                failures.increment();
+                logger.error("Modèle de classement {} invalide, le modèle précédent est conservé : {}", path, e.getMessage());
+            } else {
+                logger.debug("Modèle de classement {} toujours invalide : {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private RankingModel parse(JsonNode root) {
+        List<RankingFeature> features = new ArrayList<>();
+        for (JsonNode feature : required(root, "features")) {
+            features.add(RankingFeature.of(feature.asText()));
+        }
+        if (features.isEmpty()) {
+            throw new IllegalArgumentException("Aucune caractéristique déclarée");
+        }
+        String version = root.path("version").asText("sans version");
+        double queryWeight = root.path("queryWeight").asDouble(1.0);
+        double modelWeight = root.path("modelWeight").asDouble(1.0);
+
+        String type = required(root, "type").asText();
+        switch (type) {
+            case "linear" -> {
+                JsonNode weightsNode = required(root, "weights");
+                double[] weights = new double[weightsNode.size()];
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] = number(weightsNode.get(i), "weights[" + i + "]");
+                }
+                return new LinearRankingModel(features, weights, root.path("bias").asDouble(0.0),
+                        queryWeight, modelWeight, version);
+            }
+            case "trees" -> {
+                List<List<TreeEnsembleRankingModel.Node>> trees = new ArrayList<>();
+                for (JsonNode treeNode : required(root, "trees")) {
+                    List<TreeEnsembleRankingModel.Node> tree = new ArrayList<>(treeNode.size());
+                    for (JsonNode node : treeNode) {
+                        tree.add(node.has("leaf")
+                                ? new TreeEnsembleRankingModel.Node(-1, 0.0, 0, 0, 0, number(node.get("leaf"), "leaf"))
+                                : new TreeEnsembleRankingModel.Node(required(node, "feature").asInt(),
+                                number(required(node, "threshold"), "threshold"),
+                                required(node, "yes").asInt(), required(node, "no").asInt(),
+                                node.has("missing") ? node.get("missing").asInt() : node.get("yes").asInt(), 0.0));
+                    }
+                    trees.add(tree);
+                }
+                return new TreeEnsembleRankingModel(features, trees, root.path("baseScore").asDouble(0.0),
+                        root.path("learningRate").asDouble(1.0), queryWeight, modelWeight, version);
+            }
+            default -> throw new IllegalArgumentException("Type de modèle inconnu : " + type);
+        }
+    }
+
+    private static JsonNode required(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            throw new IllegalArgumentException("Champ obligatoire absent : " + field);
+        }
+        return value;
+    }
+
+    private static double number(JsonNode node, String field) {
+        if (node == null || !node.isNumber()) {
+            throw new IllegalArgumentException("Valeur numérique attendue : " + field);
+        }
+        return node.asDouble();
+    }
+
+    private static Counter reloadCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("searchengine.ranking.model.reloads")
+                .description("Ranking model file loads, by result (success or failure)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
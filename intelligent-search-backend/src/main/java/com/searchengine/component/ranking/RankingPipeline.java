@@ -0,0 +1,222 @@
+package com.searchengine.component.ranking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Pipeline de classement des candidats d'une recherche, en trois phases :
+ * <ol>
+ *   <li>RETRIEVE : score initial des candidats renvoyés par Elasticsearch ;</li>
+ *   <li>RESCORE : re-scoring des N meilleurs candidats (app.ranking.rescore.window-size),
+ *   qui restent ensuite en tête du classement ;</li>
+ *   <li>RERANK : score final, puis tri.</li>
+ * </ol>
+ * La fenêtre porte sur le début du classement, pas sur la page demandée : tant qu'une page la recoupe,
+ * l'appelant lit les {@link #candidateDepth(int, int)} premiers candidats et découpe la page après classement.
+ * Chaque étape est chronométrée et bornée par son budget de latence : une étape qui le dépasse
+ * (ou qui échoue) est annulée, les scores revenant à leur valeur d'avant l'étape.
+ */
+@Component
+public class RankingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankingPipeline.class);
+
+    private final List<StageEntry> stages;
+
+    @Value("${app.ranking.rescore.window-size:50}")
+    private int windowSize;
+
+    private record StageEntry(RankingStage stage, long budgetNanos, Timer timer,
+                              Counter budgetSkips, Counter errorSkips, Counter overruns) {
+    }
+
+    /**
+     * Classement final d'une page.
+     *
+     * @param order Positions des candidats dans l'ordre de la page
+     * @param scores Score final de chaque candidat, par position
+     */
+    public record Ranking(int[] order, double[] scores) {
+    }
+
+    public RankingPipeline(List<RankingStage> stages, Environment environment, MeterRegistry meterRegistry) {
+        // La liste injectée respecte déjà @Order : le tri stable par phase le conserve au sein d'une phase
+        List<RankingStage> ordered = new ArrayList<>(stages);
+        ordered.sort(Comparator.comparing(RankingStage::phase));
+
+        this.stages = new ArrayList<>(ordered.size());
+        for (RankingStage stage : ordered) {
+            long budgetMillis = environment.getProperty("app.ranking.stages." + stage.name() + ".budget-ms",
+                    Long.class, stage.defaultBudgetMillis());
+            this.stages.add(new StageEntry(stage, TimeUnit.MILLISECONDS.toNanos(budgetMillis),
+                    Timer.builder("searchengine.ranking.stage")
+                            .description("Time spent in each ranking pipeline stage")
+                            .tag("stage", stage.name())
+                            .register(meterRegistry),
+                    skipCounter(meterRegistry, stage, "budget"),
+                    skipCounter(meterRegistry, stage, "error"),
+                    Counter.builder("searchengine.ranking.stage.overruns")
+                            .description("Ranking stages that completed over their latency budget without checking it")
+                            .tag("stage", stage.name())
+                            .register(meterRegistry)));
+            logger.info("Étape de classement {} ({}), budget {} ms", stage.name(), stage.phase(), budgetMillis);
+        }
+    }
+
+    /**
+     * @return true si une étape de re-scoring est active (ses caractéristiques doivent alors être lues
+     * dans _source, y compris quand Elasticsearch calcule le score)
+     */
+    public boolean rescoring() {
+        return windowSize > 0 && stages.stream()
+                .anyMatch(entry -> entry.stage().phase() == RankingStage.Phase.RESCORE && entry.stage().isEnabled());
+    }
+
+    /**
+     * Nombre de candidats à lire depuis le début du classement pour servir la page [from, from + size) :
+     * la fenêtre entière (ou jusqu'à la fin de la page si elle la dépasse) tant que la page recoupe la fenêtre.
+     *
+     * @param from Position de la page dans le classement
+     * @param size Taille de la page
+     * @return Profondeur de lecture, ou 0 si la page est lue telle quelle (re-scoring inactif ou page au-delà
+     * de la fenêtre)
+     */
+    public int candidateDepth(int from, int size) {
+        if (size <= 0 || from >= windowSize || !rescoring()) {
+            return 0;
+        }
+        return Math.max(windowSize, from + size);
+    }
+
+    /**
+     * Exécute les étapes sur les candidats.
+     *
+     * @param candidates Candidats, dans l'ordre d'Elasticsearch
+     * @return Ordre et scores finaux
+     */
+    public Ranking rank(RankingCandidates candidates) {
+        boolean rescored = false;
+        for (StageEntry entry : stages) {
+            RankingStage stage = entry.stage();
+            if (!stage.isEnabled()) {
+                continue;
+            }
+            if (stage.phase() == RankingStage.Phase.RESCORE) {
+                if (windowSize <= 0) {
+                    continue;
+                }
+                candidates.window(topPositions(candidates, Math.min(windowSize, candidates.size())));
+            }
+            if (run(entry, candidates) && stage.phase() == RankingStage.Phase.RESCORE) {
+                rescored = true;
+            }
+        }
+        return new Ranking(finalOrder(candidates, rescored), candidates.scores().clone());
+    }
+
+    /**
+     * @return true si l'étape a abouti dans son budget
+     */
+    private boolean run(StageEntry entry, RankingCandidates candidates) {
+        double[] snapshot = candidates.scores().clone();
+        long start = System.nanoTime();
+        candidates.deadline(start + entry.budgetNanos());
+        boolean completed = false;
+        try {
+            entry.stage().apply(candidates);
+            completed = true;
+        } catch (RankingCandidates.BudgetExceededException e) {
+            restore(candidates, snapshot);
+            entry.budgetSkips().increment();
+            logger.debug("Étape de classement {} annulée : budget de {} ms dépassé",
+                    entry.stage().name(), TimeUnit.NANOSECONDS.toMillis(entry.budgetNanos()));
+        } catch (Exception e) {
+            restore(candidates, snapshot);
+            entry.errorSkips().increment();
+            logger.warn("Étape de classement {} annulée : {}", entry.stage().name(), e.getMessage());
+        } finally {
+            candidates.clearDeadline();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        entry.timer().record(elapsed, TimeUnit.NANOSECONDS);
+        if (completed && elapsed > entry.budgetNanos()) {
+            entry.overruns().increment();
+        }
+        return completed;
+    }
+
+    private static void restore(RankingCandidates candidates, double[] snapshot) {
+        System.arraycopy(snapshot, 0, candidates.scores(), 0, snapshot.length);
+    }
+
+    /**
+     * @return Les n meilleures positions par score décroissant (à égalité, la position la plus petite)
+     */
+    private static int[] topPositions(RankingCandidates candidates, int n) {
+        return IntStream.range(0, candidates.size())
+                .boxed()
+                .sorted(byScore(candidates))
+                .limit(n)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /**
+     * Ordre final. Sans re-scoring, l'ordre d'Elasticsearch est conservé quand il a calculé le classement
+     * (il est global à toutes les pages) ; sinon la page est triée par score. Après un re-scoring, la fenêtre
+     * passe en tête, triée par son nouveau score.
+     */
+    private static int[] finalOrder(RankingCandidates candidates, boolean rescored) {
+        int n = candidates.size();
+        if (!rescored && candidates.serverSideRanking()) {
+            return IntStream.range(0, n).toArray();
+        }
+        boolean[] inWindow = new boolean[n];
+        if (rescored) {
+            for (int position : candidates.window()) {
+                inWindow[position] = true;
+            }
+        }
+        Comparator<Integer> outsideWindow = candidates.serverSideRanking()
+                ? Comparator.naturalOrder()
+                : byScore(candidates);
+        return IntStream.range(0, n)
+                .boxed()
+                .sorted((a, b) -> {
+                    if (inWindow[a] != inWindow[b]) {
+                        return inWindow[a] ? -1 : 1;
+                    }
+                    return inWindow[a] ? byScore(candidates).compare(a, b) : outsideWindow.compare(a, b);
+                })
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static Comparator<Integer> byScore(RankingCandidates candidates) {
+        return (a, b) -> {
+            int comparison = Double.compare(candidates.score(b), candidates.score(a));
+            return comparison != 0 ? comparison : Integer.compare(a, b);
+        };
+    }
+
+    private static Counter skipCounter(MeterRegistry meterRegistry, RankingStage stage, String reason) {
+        return Counter.builder("searchengine.ranking.stage.skipped")
+                .description("Ranking stages rolled back, by reason (budget or error)")
+                .tag("stage", stage.name())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
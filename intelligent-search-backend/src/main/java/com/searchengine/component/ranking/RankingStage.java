@@ -0,0 +1,52 @@
+package com.searchengine.component.ranking;
+
+/**
+ * Étape du pipeline de classement ({@link RankingPipeline}). Les étapes sont des beans Spring,
+ * exécutées par phase puis selon leur {@code @Order} ; une étape supplémentaire s'ajoute en déclarant
+ * un bean qui implémente cette interface.
+ * <p>
+ * Chaque étape dispose d'un budget de latence (app.ranking.stages.&lt;nom&gt;.budget-ms, sinon
+ * {@link #defaultBudgetMillis()}). Une étape longue doit appeler régulièrement
+ * {@link RankingCandidates#checkBudget()} : si le budget est dépassé ou si l'étape échoue,
+ * ses modifications des scores sont annulées et le pipeline continue sans elle.
+ */
+public interface RankingStage {
+
+    /**
+     * Phases du pipeline, dans leur ordre d'exécution.
+     */
+    enum Phase {
+        /** Score initial des candidats renvoyés par Elasticsearch */
+        RETRIEVE,
+        /** Re-scoring des N meilleurs candidats uniquement ({@link RankingCandidates#window()}) */
+        RESCORE,
+        /** Score final et ordre de la page */
+        RERANK
+    }
+
+    /**
+     * @return Nom de l'étape (métriques et configuration du budget)
+     */
+    String name();
+
+    Phase phase();
+
+    /**
+     * @return Budget de latence par défaut, en millisecondes
+     */
+    long defaultBudgetMillis();
+
+    /**
+     * @return false pour ignorer l'étape (par exemple tant qu'aucun modèle n'est chargé)
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Met à jour les scores des candidats.
+     *
+     * @param candidates Candidats de la page en cours de classement
+     */
+    void apply(RankingCandidates candidates);
+}
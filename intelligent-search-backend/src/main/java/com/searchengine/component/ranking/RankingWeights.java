@@ -0,0 +1,36 @@
+package com.searchengine.component.ranking;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Poids de classement (app.scoring.weight.*), lus en un seul endroit pour la recherche,
+ * le scoring à la demande et la requête function_score.
+ */
+@Getter
+@Component
+public class RankingWeights {
+
+    @Value("${app.scoring.weight.popularity:0.4}")
+    private double popularity;
+
+    @Value("${app.scoring.weight.freshness:0.3}")
+    private double freshness;
+
+    @Value("${app.scoring.weight.relevance:0.3}")
+    private double relevance;
+
+    @Value("${app.scoring.weight.location:0.0}")
+    private double location;
+
+    @Value("${app.scoring.weight.languageBoost:1.2}")
+    private double languageBoost;
+
+    /**
+     * @return Somme des poids des signaux de classement (popularité, fraîcheur, localisation)
+     */
+    public double rankingWeight() {
+        return popularity + freshness + location;
+    }
+}
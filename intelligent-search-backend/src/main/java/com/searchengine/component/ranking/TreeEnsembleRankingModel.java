@@ -0,0 +1,121 @@
+package com.searchengine.component.ranking;
+
+import java.util.List;
+
+/**
+ * Ensemble d'arbres de régression (gradient boosting, format des exports XGBoost / LightGBM ramené
+ * à des nœuds numérotés) : le score est la somme des feuilles atteintes, plus un score de base.
+ * <p>
+ * Tous les arbres sont aplatis dans des tableaux primitifs ; un nœud interne envoie vers {@code yes}
+ * si la valeur est strictement inférieure au seuil, vers {@code no} sinon, et vers {@code missing}
+ * si elle est inconnue. Les enfants d'un nœud ont un numéro supérieur au sien, ce qui garantit
+ * que l'évaluation termine.
+ */
+final class TreeEnsembleRankingModel implements RankingModel {
+
+    /**
+     * Nœud d'un arbre, tel que lu dans le fichier : une feuille a {@code feature < 0}.
+     */
+    record Node(int feature, double threshold, int yes, int no, int missing, double leaf) {
+    }
+
+    private final List<RankingFeature> features;
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] threshold;
+    private final int[] yes;
+    private final int[] no;
+    private final int[] missing;
+    private final double[] leaf;
+    private final double baseScore;
+    private final double queryWeight;
+    private final double modelWeight;
+    private final String version;
+
+    TreeEnsembleRankingModel(List<RankingFeature> features, List<List<Node>> trees, double baseScore,
+                             double learningRate, double queryWeight, double modelWeight, String version) {
+        if (trees.isEmpty()) {
+            throw new IllegalArgumentException("Ensemble d'arbres vide");
+        }
+        int nodes = trees.stream().mapToInt(List::size).sum();
+        this.features = List.copyOf(features);
+        this.roots = new int[trees.size()];
+        this.feature = new int[nodes];
+        this.threshold = new double[nodes];
+        this.yes = new int[nodes];
+        this.no = new int[nodes];
+        this.missing = new int[nodes];
+        this.leaf = new double[nodes];
+
+        int offset = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            List<Node> tree = trees.get(t);
+            if (tree.isEmpty()) {
+                throw new IllegalArgumentException("Arbre " + t + " vide");
+            }
+            roots[t] = offset;
+            for (int i = 0; i < tree.size(); i++) {
+                Node node = tree.get(i);
+                int position = offset + i;
+                feature[position] = node.feature();
+                if (node.feature() < 0) {
+                    leaf[position] = node.leaf() * learningRate;
+                    continue;
+                }
+                if (node.feature() >= features.size()) {
+                    throw new IllegalArgumentException("Arbre " + t + ", nœud " + i + " : caractéristique "
+                            + node.feature() + " hors des " + features.size() + " déclarées");
+                }
+                for (int child : new int[]{node.yes(), node.no(), node.missing()}) {
+                    if (child <= i || child >= tree.size()) {
+                        throw new IllegalArgumentException("Arbre " + t + ", nœud " + i + " : enfant invalide " + child);
+                    }
+                }
+                threshold[position] = node.threshold();
+                yes[position] = offset + node.yes();
+                no[position] = offset + node.no();
+                missing[position] = offset + node.missing();
+            }
+            offset += tree.size();
+        }
+        this.baseScore = baseScore;
+        this.queryWeight = queryWeight;
+        this.modelWeight = modelWeight;
+        this.version = version;
+    }
+
+    @Override
+    public List<RankingFeature> features() {
+        return features;
+    }
+
+    @Override
+    public double score(double[] values) {
+        double score = baseScore;
+        for (int root : roots) {
+            int node = root;
+            while (feature[node] >= 0) {
+                double value = values[feature[node]];
+                node = Double.isNaN(value) ? missing[node] : value < threshold[node] ? yes[node] : no[node];
+            }
+            score += leaf[node];
+        }
+        return score;
+    }
+
+    @Override
+    public double queryWeight() {
+        return queryWeight;
+    }
+
+    @Override
+    public double modelWeight() {
+        return modelWeight;
+    }
+
+    @Override
+    public String description() {
+        return "arbres " + version + ", " + roots.length + " arbres, " + feature.length + " nœuds, "
+                + features.size() + " caractéristiques";
+    }
+}
@@ -17,6 +17,7 @@ import java.time.temporal.ChronoUnit;
 public class FreshnessScorer {
 
     private static final Logger logger = LoggerFactory.getLogger(FreshnessScorer.class);
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
 
     @Value("${app.scoring.freshness.max-age-days:30}")
     private int maxAgeDays;
@@ -91,6 +92,23 @@ public class FreshnessScorer {
         }
     }
 
+    /**
+     * Score de fraîcheur d'un lot, colonne par colonne : mêmes résultats que
+     * {@link #calculateFreshnessScore(DocumentResponse)}, avec une seule lecture de l'horloge.
+     *
+     * @param crawlEpochMillis Dates de crawl (Long.MIN_VALUE si inconnue)
+     * @param nowEpochMillis Instant de référence
+     * @param scores Scores calculés, aux positions from à to (exclu)
+     */
+    public void scoreFreshness(long[] crawlEpochMillis, long nowEpochMillis, double[] scores, int from, int to) {
+        for (int i = from; i < to; i++) {
+            long crawl = crawlEpochMillis[i];
+            scores[i] = crawl == Long.MIN_VALUE || crawl > nowEpochMillis
+                    ? 0.0
+                    : calculateAdvancedFreshnessScore((nowEpochMillis - crawl) / MILLIS_PER_HOUR);
+        }
+    }
+
     /**
      * Calcule le score avec algorithme de décroissance exponentielle avancé.
      */
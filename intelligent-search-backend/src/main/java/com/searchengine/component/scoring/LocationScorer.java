@@ -1,6 +1,7 @@
 package com.searchengine.component.scoring;
 
 import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.entity.RankSignals;
 import com.searchengine.model.entity.SearchContext;
 import com.searchengine.utils.GeoUtils;
 import org.slf4j.Logger;
@@ -8,6 +9,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.Map;
+
 /**
  * Composant pour calculer les scores basés sur la localisation des documents.
  */
@@ -19,6 +23,10 @@ public class LocationScorer {
     @Value("${app.scoring.location.max-distance-km:1000}")
     private double maxDistanceKm;
 
+    // En deçà, la distance est calculée par l'approximation équirectangulaire (voir GeoUtils.distanceKm)
+    @Value("${app.scoring.location.approximation-max-km:100}")
+    private double approximationMaxKm;
+
     /**
      * Calcule le score de localisation pour un document basé sur la géolocalisation de l'utilisateur.
      *
@@ -27,32 +35,109 @@ public class LocationScorer {
      * @return Score de localisation normalisé entre 0 et 1
      */
     public double calculateLocationScore(DocumentResponse document, SearchContext searchContext) {
-        logger.debug("Calcul du score de localisation pour le document : {}", document.getUrl());
         try {
-            if (searchContext == null || searchContext.getGeoLocation() == null || document.getMetadata() == null) {
-                logger.debug("Géolocalisation ou métadonnées manquantes pour le document : {}", document.getUrl());
+            if (searchContext == null || searchContext.getGeoLocation() == null) {
+                logger.debug("Géolocalisation manquante pour le document : {}", document.getUrl());
                 return 0.0;
             }
 
-            // Extraire la localisation du document à partir des métadonnées (suppose que latitude/longitude sont stockées)
-            String latStr = document.getMetadata().get("latitude");
-            String lonStr = document.getMetadata().get("longitude");
-            if (latStr == null || lonStr == null) {
-                logger.debug("Aucune donnée de localisation dans les métadonnées du document : {}", document.getUrl());
+            RankSignals.Location location = locationOf(document);
+            if (location == null) {
+                logger.debug("Aucune donnée de localisation pour le document : {}", document.getUrl());
                 return 0.0;
             }
 
-            SearchContext.GeoLocation docLocation = new SearchContext.GeoLocation();
-            docLocation.setLatitude(Double.parseDouble(latStr));
-            docLocation.setLongitude(Double.parseDouble(lonStr));
-
-            double distance = GeoUtils.calculateDistance(searchContext.getGeoLocation(), docLocation);
-            double locationScore = Math.max(0.0, 1.0 - (distance / maxDistanceKm));
-            logger.debug("Score de localisation pour {} : {} (distance : {} km)", document.getUrl(), locationScore, distance);
-            return locationScore;
+            Origin origin = origin(searchContext.getGeoLocation());
+            double latitude = Math.toRadians(location.getLat());
+            return origin.score(latitude, Math.cos(latitude), Math.toRadians(location.getLon()));
         } catch (Exception e) {
             logger.error("Échec du calcul du score de localisation pour le document : {}", document.getUrl(), e);
             return 0.0;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Score de localisation d'un lot, colonne par colonne : mêmes résultats que
+     * {@link #calculateLocationScore}, les termes de l'utilisateur n'étant calculés qu'une fois.
+     *
+     * @param batch Lot de candidats (coordonnées en radians)
+     * @param searchContext Contexte de recherche
+     * @param scores Scores calculés, aux positions from à to (exclu)
+     */
+    public void scoreLocations(ScoreBatch batch, SearchContext searchContext, double[] scores, int from, int to) {
+        SearchContext.GeoLocation user = searchContext != null ? searchContext.getGeoLocation() : null;
+        if (user == null) {
+            Arrays.fill(scores, from, to, 0.0);
+            return;
+        }
+        Origin origin = origin(user);
+        double[] latitudes = batch.latitude();
+        double[] longitudes = batch.longitude();
+        double[] cosLatitudes = batch.cosLatitude();
+        for (int i = from; i < to; i++) {
+            double latitude = latitudes[i];
+            scores[i] = Double.isNaN(latitude) ? 0.0 : origin.score(latitude, cosLatitudes[i], longitudes[i]);
+        }
+    }
+
+    private Origin origin(SearchContext.GeoLocation user) {
+        // Comme GeoUtils.calculateDistance : une localisation utilisateur incomplète ou une latitude nulle
+        // donne une distance nulle
+        boolean valid = user.getLatitude() != null && user.getLongitude() != null && user.getLatitude() != 0.0;
+        double latitude = valid ? Math.toRadians(user.getLatitude()) : 0.0;
+        return new Origin(valid, latitude, Math.cos(latitude), valid ? Math.toRadians(user.getLongitude()) : 0.0,
+                maxDistanceKm, Math.min(approximationMaxKm, maxDistanceKm));
+    }
+
+    /**
+     * Position de l'utilisateur en radians, calculée une fois par requête ou par lot.
+     */
+    private record Origin(boolean valid, double latitude, double cosLatitude, double longitude,
+                          double maxDistanceKm, double approximationMaxKm) {
+
+        double score(double docLatitude, double docCosLatitude, double docLongitude) {
+            double distance = 0.0;
+            // Latitude nulle : coordonnées absentes côté document (même convention que GeoUtils)
+            if (valid && docLatitude != 0.0) {
+                distance = GeoUtils.distanceKm(latitude, cosLatitude, longitude,
+                        docLatitude, docCosLatitude, docLongitude, approximationMaxKm);
+            }
+            return Math.max(0.0, 1.0 - (distance / maxDistanceKm));
+        }
+    }
+
+    /**
+     * Localisation précalculée à l'indexation, sinon extraite des métadonnées (documents non migrés).
+     *
+     * @param document Document
+     * @return Localisation, ou null si elle est inconnue
+     */
+    public RankSignals.Location locationOf(DocumentResponse document) {
+        return document.getSignals() != null
+                ? document.getSignals().getLocation()
+                : extractLocation(document.getMetadata());
+    }
+
+    /**
+     * Extrait la localisation d'un document de ses métadonnées (latitude / longitude).
+     *
+     * @param metadata Métadonnées du document
+     * @return Localisation, ou null si elle est absente ou invalide
+     */
+    public RankSignals.Location extractLocation(Map<String, String> metadata) {
+        if (metadata == null || metadata.get("latitude") == null || metadata.get("longitude") == null) {
+            return null;
+        }
+        try {
+            double latitude = Double.parseDouble(metadata.get("latitude"));
+            double longitude = Double.parseDouble(metadata.get("longitude"));
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                return null;
+            }
+            return new RankSignals.Location(latitude, longitude);
+        } catch (NumberFormatException e) {
+            logger.debug("Localisation invalide dans les métadonnées : {}, {}", metadata.get("latitude"), metadata.get("longitude"));
+            return null;
+        }
+    }
+}
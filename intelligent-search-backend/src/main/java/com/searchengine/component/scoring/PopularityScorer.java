@@ -1,6 +1,7 @@
 package com.searchengine.component.scoring;
 
 import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.entity.RankSignals;
 import com.searchengine.model.entity.SearchDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,17 +37,27 @@ public class PopularityScorer {
     // Cache pour les scores de domaine
     private final Map<String, Double> domainAuthorityCache = new ConcurrentHashMap<>();
 
+    // Autorité calculée sur le graphe des liens (PageRank), prioritaire sur l'heuristique
+    private volatile Map<String, Double> linkGraphAuthority = Map.of();
+
     /**
      * Calcule le score de popularité avec algorithmes sophistiqués.
+     * Le score précalculé à l'indexation est utilisé s'il est présent ; sinon (document indexé avant
+     * l'ajout des signaux), il est recalculé à partir des métadonnées.
      */
     public double calculatePopularityScore(DocumentResponse document) {
+        RankSignals signals = document.getSignals();
+        if (signals != null && signals.getPopularity() != null) {
+            return signals.getPopularity();
+        }
+
         logger.debug("Calcul du score de popularité pour le document: {}", document.getUrl());
         try {
             // Calcul multi-factoriel de la popularité
             PopularityFactors factors = extractPopularityFactors(document);
 
             // Score composite basé sur plusieurs métriques
-            double compositeScore = calculateCompositePopularityScore(factors, document);
+            double compositeScore = calculateCompositePopularityScore(factors, domainAuthorityOf(document.getUrl()));
 
             // Normalisation avec fonction de saturation
             double normalizedScore = applySaturationFunction(compositeScore);
@@ -68,7 +79,7 @@ public class PopularityScorer {
         logger.debug("Calcul du score de popularité pour le document: {}", searchDocument.getUrl());
         try {
             PopularityFactors factors = extractPopularityFactors(searchDocument);
-            double compositeScore = calculateCompositePopularityScore(factors, searchDocument);
+            double compositeScore = calculateCompositePopularityScore(factors, domainAuthorityOf(searchDocument.getUrl()));
             double normalizedScore = applySaturationFunction(compositeScore);
 
             logger.debug("Score de popularité pour {} : {} (facteurs: {})",
@@ -81,6 +92,26 @@ public class PopularityScorer {
         }
     }
 
+    /**
+     * Calcule les signaux de classement d'un document à l'indexation : popularité normalisée,
+     * compteurs et autorité du domaine (la localisation est ajoutée par {@link LocationScorer}).
+     *
+     * @param searchDocument Document à indexer
+     * @return Signaux à stocker avec le document
+     */
+    public RankSignals computeSignals(SearchDocument searchDocument) {
+        PopularityFactors factors = extractPopularityFactors(searchDocument);
+        double domainAuthority = domainAuthorityOf(searchDocument.getUrl());
+
+        RankSignals signals = new RankSignals();
+        signals.setPopularity(applySaturationFunction(calculateCompositePopularityScore(factors, domainAuthority)));
+        signals.setContentLength(factors.contentLength);
+        signals.setLinkCount(factors.linkCount);
+        signals.setMediaCount(factors.mediaCount);
+        signals.setDomainAuthority(domainAuthority);
+        return signals;
+    }
+
     /**
      * Extrait les facteurs de popularité d'un DocumentResponse.
      */
@@ -125,28 +156,44 @@ public class PopularityScorer {
     }
 
     /**
-     * Extrait les facteurs de popularité d'un Document entity.
+     * Extrait les facteurs de popularité d'un Document entity : mêmes métadonnées que pour un
+     * DocumentResponse, complétées par les champs du document quand une métadonnée est absente.
      */
     private PopularityFactors extractPopularityFactors(SearchDocument searchDocument) {
         PopularityFactors factors = new PopularityFactors();
-
-        // Compteurs directs
-        factors.linkCount = searchDocument.getLinks() != null ? searchDocument.getLinks().size() : 0;
-        factors.mediaCount = searchDocument.getMediaUrls() != null ? searchDocument.getMediaUrls().size() : 0;
-
-        // Extraction depuis les métadonnées (si disponibles)
-        if (searchDocument.getMetadata() != null) {
-            factors.inboundLinks = parseIntMetadata(searchDocument.getMetadata(), "inbound_links", 0);
-            factors.shareCount = parseIntMetadata(searchDocument.getMetadata(), "share_count", 0);
-            factors.commentCount = parseIntMetadata(searchDocument.getMetadata(), "comment_count", 0);
+        Map<String, String> metadata = searchDocument.getMetadata() != null ? searchDocument.getMetadata() : Map.of();
+
+        // Score de popularité explicite (si disponible)
+        String popularityStr = metadata.get("popularity");
+        if (popularityStr != null) {
+            try {
+                factors.explicitPopularity = Double.parseDouble(popularityStr);
+            } catch (NumberFormatException e) {
+                logger.warn("Métadonnée de popularité invalide: {}", popularityStr);
+            }
         }
 
+        // Compteurs : métadonnées du crawler, sinon comptage direct
+        int links = searchDocument.getLinks() != null ? searchDocument.getLinks().size() : 0;
+        int media = searchDocument.getMediaUrls() != null ? searchDocument.getMediaUrls().size() : 0;
+        factors.linkCount = parseIntMetadata(metadata, "link_count", links);
+        factors.mediaCount = parseIntMetadata(metadata, "media_count", media);
+        // Liens entrants : métadonnée, sinon décompte du graphe des liens (déjà stocké avec le document)
+        RankSignals signals = searchDocument.getSignals();
+        int inbound = signals != null && signals.getInboundLinks() != null ? signals.getInboundLinks() : 0;
+        factors.inboundLinks = parseIntMetadata(metadata, "inbound_links", inbound);
+        factors.shareCount = parseIntMetadata(metadata, "share_count", 0);
+        factors.commentCount = parseIntMetadata(metadata, "comment_count", 0);
+        factors.imageCount = parseIntMetadata(metadata, "image_count", 0);
+
         // Métriques de contenu
+        int contentLength = searchDocument.getContent() != null ? searchDocument.getContent().length() : 0;
+        factors.contentLength = parseIntMetadata(metadata, "content_length", contentLength);
         if (searchDocument.getTitle() != null) {
             factors.titleLength = searchDocument.getTitle().length();
         }
-        if (searchDocument.getContent() != null) {
-            factors.contentLength = searchDocument.getContent().length();
+        if (searchDocument.getDescription() != null) {
+            factors.descriptionLength = searchDocument.getDescription().length();
         }
 
         return factors;
@@ -155,7 +202,7 @@ public class PopularityScorer {
     /**
      * Calcule le score composite basé sur tous les facteurs.
      */
-    private double calculateCompositePopularityScore(PopularityFactors factors, Object document) {
+    private double calculateCompositePopularityScore(PopularityFactors factors, double domainAuthority) {
         double score = defaultPopularityScore;
 
         // Score explicite (priorité haute si disponible)
@@ -174,10 +221,7 @@ public class PopularityScorer {
         score += calculateContentQualityBonus(factors);
 
         // Bonus d'autorité du domaine
-        String domain = extractDomain(getDocumentUrl(document));
-        if (domain != null) {
-            score += getDomainAuthorityScore(domain) * domainAuthorityWeight;
-        }
+        score += domainAuthority * domainAuthorityWeight;
 
         return score;
     }
@@ -222,13 +266,36 @@ public class PopularityScorer {
     }
 
     /**
-     * Calcule ou récupère le score d'autorité du domaine.
+     * Autorité du domaine d'une URL, 0 si le domaine ne peut être extrait.
+     */
+    private double domainAuthorityOf(String url) {
+        String domain = extractDomain(url);
+        return domain != null ? getDomainAuthorityScore(domain) : 0.0;
+    }
+
+    /**
+     * Calcule ou récupère le score d'autorité du domaine : celui du graphe des liens s'il est connu,
+     * sinon l'heuristique.
      */
     private double getDomainAuthorityScore(String domain) {
+        Double linkAuthority = linkGraphAuthority.get(domain);
+        if (linkAuthority != null) {
+            return linkAuthority;
+        }
         // Utilisation du cache pour éviter les recalculs
         return domainAuthorityCache.computeIfAbsent(domain, this::calculateDomainAuthority);
     }
 
+    /**
+     * Remplace les autorités de domaine issues du graphe des liens.
+     *
+     * @param authorities Autorité (0 à 10) par domaine, tel que renvoyé par {@link #extractDomain(String)}
+     */
+    public void updateDomainAuthorities(Map<String, Double> authorities) {
+        linkGraphAuthority = Map.copyOf(authorities);
+        logger.info("Autorités de domaine du graphe des liens mises à jour : {} domaines", authorities.size());
+    }
+
     /**
      * Calcule l'autorité d'un domaine (algorithme simplifié).
      */
@@ -311,7 +378,10 @@ public class PopularityScorer {
         }
     }
 
-    private String extractDomain(String url) {
+    /**
+     * Domaine d'une URL, sans schéma ni « www. », en minuscules.
+     */
+    public static String extractDomain(String url) {
         try {
             if (url == null) return null;
             return url.replaceAll("https?://", "")
@@ -323,15 +393,6 @@ public class PopularityScorer {
         }
     }
 
-    private String getDocumentUrl(Object document) {
-        if (document instanceof DocumentResponse) {
-            return ((DocumentResponse) document).getUrl();
-        } else if (document instanceof SearchDocument) {
-            return ((SearchDocument) document).getUrl();
-        }
-        return null;
-    }
-
     /**
      * Classe interne pour organiser les facteurs de popularité.
      */
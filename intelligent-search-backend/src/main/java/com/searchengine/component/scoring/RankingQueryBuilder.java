@@ -0,0 +1,268 @@
+package com.searchengine.component.scoring;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScore;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.JsonData;
+import com.searchengine.model.entity.SearchContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Construit la requête function_score qui calcule le classement (popularité, fraîcheur, localisation)
+ * directement dans les shards Elasticsearch, avec la même sémantique que {@link ScoreCalculator}.
+ * Le score renvoyé par Elasticsearch est la somme pondérée des trois composantes, multipliée par le bonus
+ * de langue pour les documents dans la langue demandée.
+ */
+@Component
+public class RankingQueryBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankingQueryBuilder.class);
+
+    /**
+     * Même algorithme que FreshnessScorer.calculateAdvancedFreshnessScore (le bonus de récence est plafonné à 1).
+     */
+    private static final String FRESHNESS_SCRIPT = """
+            if (doc['crawlTimestamp'].size() == 0) { return 0.0; }
+            long now = params.now;
+            long crawl = doc['crawlTimestamp'].value.toInstant().toEpochMilli();
+            if (crawl > now) { return 0.0; }
+            long ageHours = (now - crawl) / 3600000L;
+            if (ageHours <= params.boostThresholdHours) { return 1.0; }
+            double maxAgeDays = params.maxAgeDays;
+            double ageDays = ageHours / 24.0;
+            if (ageDays > maxAgeDays) { return Math.max(0.01, Math.exp(-ageDays / maxAgeDays * 3)); }
+            double normalizedAge = ageDays / maxAgeDays;
+            double exponentialDecay = Math.exp(-params.decayFactor * normalizedAge * 10);
+            double linearDecay = Math.max(0.0, 1.0 - normalizedAge);
+            return Math.max(0.01, Math.min(1.0, 0.3 * linearDecay + 0.7 * exponentialDecay));
+            """;
+
+    /**
+     * Même algorithme que PopularityScorer pour un DocumentResponse : le score précalculé à l'indexation
+     * (signals.popularity) s'il existe, sinon le calcul sur les métadonnées, à l'exception du bonus de
+     * longueur du titre (champ text sans doc values).
+     */
+    private static final String POPULARITY_SCRIPT = """
+            double meta(def doc, String field) {
+              if (!doc.containsKey(field) || doc[field].size() == 0) { return 0.0; }
+              try { return Double.parseDouble(doc[field].value); } catch (NumberFormatException e) { return 0.0; }
+            }
+            double domainAuthority(def doc, def wellKnown) {
+              if (doc['url'].size() == 0) { return 0.0; }
+              String domain = doc['url'].value.replace('https://', '').replace('http://', '').replace('www.', '');
+              int slash = domain.indexOf('/');
+              if (slash >= 0) { domain = domain.substring(0, slash); }
+              domain = domain.toLowerCase();
+              double authority = 1.0;
+              for (def known : wellKnown) { if (domain.contains(known)) { authority += 8.0; break; } }
+              boolean suspicious = domain.contains('spam') || domain.contains('fake') || domain.splitOnToken('.').length > 4;
+              int digits = 0;
+              for (int i = 0; i < domain.length() && !suspicious; i++) {
+                digits = Character.isDigit(domain.charAt(i)) ? digits + 1 : 0;
+                if (digits >= 4) { suspicious = true; }
+              }
+              if (suspicious) { authority -= 3.0; }
+              if (domain.endsWith('.edu') || domain.endsWith('.gov')) { authority += 3.0; }
+              else if (domain.endsWith('.org')) { authority += 1.0; }
+              if (domain.length() > 50) { authority -= 1.0; }
+              return Math.max(0.0, Math.min(10.0, authority));
+            }
+            if (doc.containsKey('signals.popularity') && doc['signals.popularity'].size() > 0) {
+              return doc['signals.popularity'].value;
+            }
+            double score = params.defaultScore;
+            double explicit = meta(doc, 'metadata.popularity');
+            if (explicit > 0) { score = explicit; }
+            score += meta(doc, 'metadata.link_count.keyword') * params.linkWeight;
+            score += meta(doc, 'metadata.media_count.keyword') * params.mediaWeight;
+            score += meta(doc, 'metadata.inbound_links.keyword') * 1.5;
+            score += meta(doc, 'metadata.share_count.keyword') * 2.0;
+            score += meta(doc, 'metadata.comment_count.keyword') * 1.0;
+            double contentLength = meta(doc, 'metadata.content_length.keyword');
+            if (contentLength > 1000) { score += 5.0; } else if (contentLength > 500) { score += 2.0; }
+            double imageCount = meta(doc, 'metadata.image_count.keyword');
+            if (imageCount > 0) { score += Math.min(3.0, imageCount * 0.5); }
+            score += domainAuthority(doc, params.wellKnownDomains) * params.domainAuthorityWeight;
+            double normalized = score / params.maxScore;
+            double saturated = 2.0 / (1.0 + Math.exp(-2.0 * normalized)) - 1.0;
+            return Math.max(0.0, Math.min(1.0, saturated));
+            """;
+
+    /**
+     * Même algorithme que LocationScorer / GeoUtils.calculateDistance (une latitude à 0 signifie « inconnue »
+     * et donne une distance nulle). Utilisé pour les documents indexés avant l'ajout des signaux (localisation
+     * lue dans les métadonnées) et quand la latitude de l'utilisateur est nulle ; sinon les documents dont le
+     * geo_point signals.location est renseigné sont scorés par la décroissance native (voir locationDecay).
+     */
+    private static final String LOCATION_SCRIPT = """
+            double lat;
+            double lon;
+            if (doc.containsKey('signals.location') && doc['signals.location'].size() > 0) {
+              lat = doc['signals.location'].lat;
+              lon = doc['signals.location'].lon;
+            } else if (doc.containsKey('signals.popularity') && doc['signals.popularity'].size() > 0) {
+              return 0.0;
+            } else {
+              if (doc['metadata.latitude'].size() == 0 || doc['metadata.longitude'].size() == 0) { return 0.0; }
+              try {
+                lat = Double.parseDouble(doc['metadata.latitude'].value);
+                lon = Double.parseDouble(doc['metadata.longitude'].value);
+              } catch (NumberFormatException e) { return 0.0; }
+            }
+            double userLat = params.lat;
+            double userLon = params.lon;
+            if (userLat == 0.0 || lat == 0.0) { return 1.0; }
+            double lat1 = Math.toRadians(userLat);
+            double lat2 = Math.toRadians(lat);
+            double dlat = lat2 - lat1;
+            double dlon = Math.toRadians(lon) - Math.toRadians(userLon);
+            double a = Math.sin(dlat / 2) * Math.sin(dlat / 2) + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dlon / 2) * Math.sin(dlon / 2);
+            double distance = 2 * Math.asin(Math.sqrt(a)) * 6371;
+            return Math.max(0.0, 1.0 - distance / params.maxDistanceKm);
+            """;
+
+    private static final List<String> WELL_KNOWN_DOMAINS = List.of(
+            "wikipedia.org", "github.com", "stackoverflow.com",
+            "medium.com", "linkedin.com", "google.com");
+
+    @Value("${app.scoring.freshness.max-age-days:30}")
+    private int maxAgeDays;
+
+    @Value("${app.scoring.freshness.decay-factor:0.1}")
+    private double decayFactor;
+
+    @Value("${app.scoring.freshness.boost-threshold-hours:24}")
+    private int boostThresholdHours;
+
+    @Value("${app.scoring.popularity.max-score:100.0}")
+    private double maxPopularityScore;
+
+    @Value("${app.scoring.popularity.default-score:50.0}")
+    private double defaultPopularityScore;
+
+    @Value("${app.scoring.popularity.link-weight:2.0}")
+    private double linkWeight;
+
+    @Value("${app.scoring.popularity.media-weight:3.0}")
+    private double mediaWeight;
+
+    @Value("${app.scoring.popularity.domain-authority-weight:5.0}")
+    private double domainAuthorityWeight;
+
+    @Value("${app.scoring.location.max-distance-km:1000}")
+    private double maxDistanceKm;
+
+    /**
+     * Enveloppe la requête textuelle dans une function_score dont le score remplace la pertinence textuelle.
+     *
+     * @param baseQuery Requête de sélection (match + filtres)
+     * @param context Contexte de recherche (géolocalisation de l'utilisateur)
+     * @param popularityWeight Poids de la popularité
+     * @param freshnessWeight Poids de la fraîcheur
+     * @param locationWeight Poids de la localisation
+     * @param language Langue demandée (optionnelle)
+     * @param languageBoost Bonus multiplicatif des documents dans la langue demandée
+     * @return Requête classée côté serveur
+     */
+    public Query buildRankedQuery(Query baseQuery, SearchContext context,
+                                  double popularityWeight, double freshnessWeight, double locationWeight,
+                                  String language, double languageBoost) {
+        List<FunctionScore> functions = new ArrayList<>(3);
+
+        if (freshnessWeight > 0) {
+            Map<String, JsonData> params = new HashMap<>();
+            params.put("now", JsonData.of(System.currentTimeMillis()));
+            params.put("maxAgeDays", JsonData.of(maxAgeDays));
+            params.put("decayFactor", JsonData.of(decayFactor));
+            params.put("boostThresholdHours", JsonData.of(boostThresholdHours));
+            functions.add(scriptFunction(FRESHNESS_SCRIPT, params, freshnessWeight));
+        }
+
+        if (popularityWeight > 0) {
+            Map<String, JsonData> params = new HashMap<>();
+            params.put("defaultScore", JsonData.of(defaultPopularityScore));
+            params.put("maxScore", JsonData.of(maxPopularityScore));
+            params.put("linkWeight", JsonData.of(linkWeight));
+            params.put("mediaWeight", JsonData.of(mediaWeight));
+            params.put("domainAuthorityWeight", JsonData.of(domainAuthorityWeight));
+            params.put("wellKnownDomains", JsonData.of(WELL_KNOWN_DOMAINS));
+            functions.add(scriptFunction(POPULARITY_SCRIPT, params, popularityWeight));
+        }
+
+        SearchContext.GeoLocation geo = context != null ? context.getGeoLocation() : null;
+        if (locationWeight > 0 && geo != null && geo.getLatitude() != null && geo.getLongitude() != null) {
+            Map<String, JsonData> params = new HashMap<>();
+            params.put("lat", JsonData.of(geo.getLatitude()));
+            params.put("lon", JsonData.of(geo.getLongitude()));
+            params.put("maxDistanceKm", JsonData.of(maxDistanceKm));
+            if (geo.getLatitude() != 0.0) {
+                functions.add(locationDecay(geo, locationWeight));
+                // Script réservé aux documents non migrés (sans signaux précalculés)
+                Query unmigrated = Query.of(q -> q.bool(b -> b.mustNot(m -> m.exists(e -> e.field("signals.popularity")))));
+                functions.add(scriptFunction(LOCATION_SCRIPT, params, locationWeight, unmigrated));
+            } else {
+                functions.add(scriptFunction(LOCATION_SCRIPT, params, locationWeight));
+            }
+        }
+
+        logger.debug("Classement côté serveur avec {} fonctions de score", functions.size());
+        Query ranked = Query.of(q -> q.functionScore(fs -> fs
+                .query(baseQuery)
+                .functions(functions)
+                .scoreMode(FunctionScoreMode.Sum)
+                .boostMode(FunctionBoostMode.Replace)));
+        if (!StringUtils.hasText(language) || languageBoost == 1.0) {
+            return ranked;
+        }
+
+        // Bonus de langue appliqué dans les shards : l'ordre d'Elasticsearch, global à toutes les pages, en tient compte
+        return Query.of(q -> q.functionScore(fs -> fs
+                .query(ranked)
+                .functions(FunctionScore.of(f -> f
+                        .filter(lf -> lf.term(t -> t.field("metadata.language").value(language).caseInsensitive(true)))
+                        .weight(languageBoost)))
+                .boostMode(FunctionBoostMode.Multiply)));
+    }
+
+    /**
+     * Décroissance linéaire native sur le geo_point signals.location, sans script : avec une échelle de
+     * maxDistanceKm / 2 et un facteur de 0,5, le score vaut max(0, 1 - distance / maxDistanceKm), comme
+     * LocationScorer.
+     */
+    private FunctionScore locationDecay(SearchContext.GeoLocation geo, double weight) {
+        return FunctionScore.of(f -> f
+                .filter(q -> q.exists(e -> e.field("signals.location")))
+                .linear(d -> d
+                        .field("signals.location")
+                        .placement(p -> p
+                                .origin(JsonData.of(Map.of("lat", geo.getLatitude(), "lon", geo.getLongitude())))
+                                .scale(JsonData.of(maxDistanceKm / 2 + "km"))
+                                .offset(JsonData.of("0km"))
+                                .decay(0.5)))
+                .weight(weight));
+    }
+
+    private FunctionScore scriptFunction(String source, Map<String, JsonData> params, double weight) {
+        return scriptFunction(source, params, weight, null);
+    }
+
+    private FunctionScore scriptFunction(String source, Map<String, JsonData> params, double weight, Query filter) {
+        return FunctionScore.of(f -> f
+                .filter(filter)
+                .scriptScore(ss -> ss.script(s -> s.inline(i -> i
+                        .lang("painless")
+                        .source(source)
+                        .params(params))))
+                .weight(weight));
+    }
+}
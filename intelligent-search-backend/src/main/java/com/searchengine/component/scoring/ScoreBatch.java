@@ -0,0 +1,29 @@
+package com.searchengine.component.scoring;
+
+/**
+ * Caractéristiques de classement d'un lot de candidats, rangées par colonnes de types primitifs :
+ * les boucles de scoring les parcourent séquentiellement, sans appel virtuel ni déréférencement par document.
+ * La position i de chaque colonne correspond au i-ème candidat. Les coordonnées sont converties en radians
+ * (avec le cosinus de la latitude) à la construction du lot, une fois par document.
+ *
+ * @param crawlEpochMillis Dates de crawl en millisecondes (Long.MIN_VALUE si inconnue)
+ * @param popularity Popularité normalisée, entre 0 et 1
+ * @param latitude Latitude du document en radians (NaN si inconnue)
+ * @param longitude Longitude du document en radians (NaN si inconnue)
+ * @param cosLatitude Cosinus de la latitude
+ */
+public record ScoreBatch(long[] crawlEpochMillis, double[] popularity, double[] latitude, double[] longitude,
+                         double[] cosLatitude) {
+
+    public ScoreBatch {
+        int size = crawlEpochMillis.length;
+        if (popularity.length != size || latitude.length != size || longitude.length != size
+                || cosLatitude.length != size) {
+            throw new IllegalArgumentException("Colonnes de tailles différentes");
+        }
+    }
+
+    public int size() {
+        return crawlEpochMillis.length;
+    }
+}
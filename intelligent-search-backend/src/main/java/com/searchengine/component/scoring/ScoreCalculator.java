@@ -1,32 +1,39 @@
 package com.searchengine.component.scoring;
 
 import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.entity.RankSignals;
 import com.searchengine.model.entity.SearchContext;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
- * Composant optimisé pour calculer les scores des documents avec mise en cache et algorithmes performants.
+ * Composant optimisé pour calculer les scores des documents, par lots sur colonnes primitives.
  * Note : Pertinence calculée uniquement via Elasticsearch, donc absente ici.
  */
 @Component
 public class ScoreCalculator {
 
-    private static final Logger logger = LoggerFactory.getLogger(ScoreCalculator.class);
+    private static final int BATCH_CHUNK_SIZE = 1024;
 
-    private final ConcurrentHashMap<String, CachedScore> scoreCache = new ConcurrentHashMap<>();
-
-    @Value("${app.scoring.cache.ttl:300000}") // 5 minutes
-    private long cacheTtl;
+    @Value("${app.scoring.batch.parallel-threshold:4096}")
+    private int parallelThreshold;
 
     private final LocationScorer locationScorer;
     private final FreshnessScorer freshnessScorer;
     private final PopularityScorer popularityScorer;
 
+    /**
+     * Meilleurs candidats d'un lot, par score décroissant.
+     *
+     * @param indices Positions des candidats dans le lot
+     * @param scores Scores correspondants
+     */
+    public record RankedBatch(int[] indices, double[] scores) {
+    }
+
     public ScoreCalculator(LocationScorer locationScorer,
                            FreshnessScorer freshnessScorer,
                            PopularityScorer popularityScorer) {
@@ -36,77 +43,127 @@ public class ScoreCalculator {
     }
 
     /**
-     * Calcule le score global sans pertinence locale.
+     * Range les caractéristiques de classement de documents en colonnes, pour {@link #scoreBatch}.
+     * La popularité précalculée est lue directement ; elle n'est recalculée que pour les documents non migrés.
      */
-    public double calculateScore(DocumentResponse document, SearchContext context,
-                                 double popularityWeight, double freshnessWeight, double locationWeight) {
-
-        String cacheKey = generateCacheKey(document, context, popularityWeight, freshnessWeight, locationWeight);
-
-        CachedScore cached = scoreCache.get(cacheKey);
-        if (cached != null && !cached.isExpired()) {
-            logger.debug("Score récupéré du cache pour: {}", document.getUrl());
-            return cached.score;
-        }
-
-        logger.debug("Calcul du score pour le document : {}", document.getUrl());
-
-        try {
-            double totalWeight = popularityWeight + freshnessWeight + locationWeight;
-            if (totalWeight == 0) totalWeight = 1.0;
-
-            double popularityScore = popularityScorer.calculatePopularityScore(document);
-            double freshnessScore = freshnessScorer.calculateFreshnessScore(document);
-            double locationScore = locationScorer.calculateLocationScore(document, context);
-
-            double finalScore = (popularityScore * popularityWeight +
-                    freshnessScore * freshnessWeight +
-                    locationScore * locationWeight) / totalWeight;
-
-            scoreCache.put(cacheKey, new CachedScore(finalScore, System.currentTimeMillis()));
-
-            logger.debug("Score calculé pour {} : popularité={}, fraîcheur={}, localisation={}, total={}",
-                    document.getUrl(), popularityScore, freshnessScore, locationScore, finalScore);
-
-            return finalScore;
-
-        } catch (Exception e) {
-            logger.error("Échec du calcul du score pour le document : {}", document.getUrl(), e);
-            return 0.0;
+    public ScoreBatch toBatch(List<DocumentResponse> documents) {
+        int n = documents.size();
+        long[] crawlEpochMillis = new long[n];
+        double[] popularity = new double[n];
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        double[] cosLatitude = new double[n];
+        for (int i = 0; i < n; i++) {
+            DocumentResponse document = documents.get(i);
+            crawlEpochMillis[i] = document.getCrawlTimestamp() != null
+                    ? document.getCrawlTimestamp().toEpochMilli()
+                    : Long.MIN_VALUE;
+            popularity[i] = popularityScorer.calculatePopularityScore(document);
+            RankSignals.Location location = locationScorer.locationOf(document);
+            latitude[i] = location != null ? Math.toRadians(location.getLat()) : Double.NaN;
+            longitude[i] = location != null ? Math.toRadians(location.getLon()) : Double.NaN;
+            cosLatitude[i] = Math.cos(latitude[i]);
         }
+        return new ScoreBatch(crawlEpochMillis, popularity, latitude, longitude, cosLatitude);
     }
 
-    private String generateCacheKey(DocumentResponse document, SearchContext context,
-                                    double popularityWeight, double freshnessWeight, double locationWeight) {
-        StringBuilder keyBuilder = new StringBuilder();
-        keyBuilder.append(document.getUrl())
-                .append("|").append(context != null ? context.hashCode() : 0)
-                .append("|").append(popularityWeight)
-                .append("|").append(freshnessWeight)
-                .append("|").append(locationWeight);
+    /**
+     * Calcule le score global de tout un lot, hors pertinence : moyenne pondérée de la popularité,
+     * de la fraîcheur et de la localisation, évaluées colonne par colonne dans des boucles serrées,
+     * par tranches traitées en parallèle au-delà de app.scoring.batch.parallel-threshold candidats.
+     * Aucun cache : ce calcul coûte moins qu'une recherche dans un cache.
+     *
+     * @return Score de chaque candidat, à la même position que dans le lot
+     */
+    public double[] scoreBatch(ScoreBatch batch, SearchContext context,
+                               double popularityWeight, double freshnessWeight, double locationWeight) {
+        BatchScoring scoring = new BatchScoring(batch, context, popularityWeight, freshnessWeight, locationWeight);
+        chunks(batch.size()).forEach(chunk -> scoring.score(chunkStart(chunk), chunkEnd(chunk, batch.size())));
+        return scoring.scores;
+    }
 
-        return String.valueOf(keyBuilder.toString().hashCode());
+    /**
+     * Comme {@link #scoreBatch(ScoreBatch, SearchContext, double, double, double)}, mais ne garde que
+     * les k meilleurs candidats : chaque tranche alimente son propre tas borné, puis les tas sont fusionnés,
+     * sans jamais trier tout le lot.
+     *
+     * @return Les k meilleurs candidats (moins si le lot est plus petit), par score décroissant
+     */
+    public RankedBatch scoreBatch(ScoreBatch batch, SearchContext context,
+                                  double popularityWeight, double freshnessWeight, double locationWeight, int k) {
+        int n = batch.size();
+        int limit = Math.max(0, Math.min(k, n));
+        BatchScoring scoring = new BatchScoring(batch, context, popularityWeight, freshnessWeight, locationWeight);
+        TopKSelector selector = chunks(n)
+                .mapToObj(chunk -> {
+                    int from = chunkStart(chunk);
+                    int to = chunkEnd(chunk, n);
+                    scoring.score(from, to);
+                    TopKSelector chunkSelector = new TopKSelector(limit);
+                    for (int i = from; i < to; i++) {
+                        chunkSelector.offer(i, scoring.scores[i]);
+                    }
+                    return chunkSelector;
+                })
+                .reduce((left, right) -> {
+                    left.merge(right);
+                    return left;
+                })
+                .orElseGet(() -> new TopKSelector(0));
+        return selector.drain();
     }
 
-    public void cleanExpiredCache() {
-        long currentTime = System.currentTimeMillis();
-        scoreCache.entrySet().removeIf(entry ->
-                currentTime - entry.getValue().timestamp > cacheTtl);
+    private IntStream chunks(int n) {
+        IntStream chunks = IntStream.range(0, (n + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE);
+        return n >= parallelThreshold ? chunks.parallel() : chunks;
+    }
 
-        logger.debug("Cache nettoyé, {} entrées restantes", scoreCache.size());
+    private static int chunkStart(int chunk) {
+        return chunk * BATCH_CHUNK_SIZE;
     }
 
-    private static class CachedScore {
-        final double score;
-        final long timestamp;
+    private static int chunkEnd(int chunk, int n) {
+        return Math.min(n, (chunk + 1) * BATCH_CHUNK_SIZE);
+    }
 
-        CachedScore(double score, long timestamp) {
-            this.score = score;
-            this.timestamp = timestamp;
+    /**
+     * Calcul d'un lot : colonnes de scores partagées, chaque tranche écrivant dans ses propres positions.
+     */
+    private final class BatchScoring {
+        private final ScoreBatch batch;
+        private final SearchContext context;
+        private final double popularityWeight;
+        private final double freshnessWeight;
+        private final double locationWeight;
+        private final double totalWeight;
+        private final long now = System.currentTimeMillis();
+        private final double[] freshness;
+        private final double[] location;
+        private final double[] scores;
+
+        BatchScoring(ScoreBatch batch, SearchContext context,
+                     double popularityWeight, double freshnessWeight, double locationWeight) {
+            this.batch = batch;
+            this.context = context;
+            this.popularityWeight = popularityWeight;
+            this.freshnessWeight = freshnessWeight;
+            this.locationWeight = locationWeight;
+            double total = popularityWeight + freshnessWeight + locationWeight;
+            this.totalWeight = total == 0 ? 1.0 : total;
+            this.freshness = new double[batch.size()];
+            this.location = new double[batch.size()];
+            this.scores = new double[batch.size()];
         }
 
-        boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > 300000; // 5 minutes
+        void score(int from, int to) {
+            freshnessScorer.scoreFreshness(batch.crawlEpochMillis(), now, freshness, from, to);
+            locationScorer.scoreLocations(batch, context, location, from, to);
+            double[] popularity = batch.popularity();
+            for (int i = from; i < to; i++) {
+                scores[i] = (popularity[i] * popularityWeight +
+                        freshness[i] * freshnessWeight +
+                        location[i] * locationWeight) / totalWeight;
+            }
         }
     }
 }
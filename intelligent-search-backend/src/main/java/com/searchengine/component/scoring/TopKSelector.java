@@ -0,0 +1,101 @@
+package com.searchengine.component.scoring;
+
+/**
+ * Sélection des k meilleurs scores par un tas binaire borné (le pire candidat retenu à la racine) :
+ * O(n log k) au lieu du tri complet. À score égal, le candidat de plus petite position l'emporte,
+ * ce qui donne le même ordre qu'un tri stable décroissant.
+ */
+final class TopKSelector {
+
+    private final int[] indices;
+    private final double[] scores;
+    private int size;
+
+    TopKSelector(int k) {
+        this.indices = new int[k];
+        this.scores = new double[k];
+    }
+
+    void offer(int index, double score) {
+        if (indices.length == 0) {
+            return;
+        }
+        if (size < indices.length) {
+            indices[size] = index;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (worse(indices[0], scores[0], index, score)) {
+            indices[0] = index;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    void merge(TopKSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.indices[i], other.scores[i]);
+        }
+    }
+
+    /**
+     * Vide le tas dans l'ordre décroissant des scores.
+     */
+    ScoreCalculator.RankedBatch drain() {
+        int count = size;
+        int[] rankedIndices = new int[count];
+        double[] rankedScores = new double[count];
+        for (int i = count - 1; i >= 0; i--) {
+            rankedIndices[i] = indices[0];
+            rankedScores[i] = scores[0];
+            size--;
+            indices[0] = indices[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+        return new ScoreCalculator.RankedBatch(rankedIndices, rankedScores);
+    }
+
+    /**
+     * @return true si le candidat a est moins bien classé que b
+     */
+    private static boolean worse(int indexA, double scoreA, int indexB, double scoreB) {
+        int comparison = Double.compare(scoreA, scoreB);
+        return comparison < 0 || (comparison == 0 && indexA > indexB);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!worse(indices[position], scores[position], indices[parent], scores[parent])) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int child = right < size && worse(indices[right], scores[right], indices[left], scores[left]) ? right : left;
+            if (!worse(indices[child], scores[child], indices[position], scores[position])) {
+                return;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
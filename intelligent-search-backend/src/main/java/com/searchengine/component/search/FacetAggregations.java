@@ -0,0 +1,119 @@
+package com.searchengine.component.search;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.FilterAggregate;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.searchengine.model.dto.response.SearchFacets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Construit et lit les agrégations des facettes de recherche (type de document, langue, date de crawl).
+ * Les filtres de la requête sont appliqués en post_filter : chaque agrégation est enveloppée dans un
+ * filtre contenant les autres filtres, pour que la facette d'un champ ignore son propre filtre.
+ */
+@Component
+public class FacetAggregations {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacetAggregations.class);
+
+    public static final String DOCUMENT_TYPE = "documentType";
+    public static final String LANGUAGE = "metadata.language";
+    private static final String CRAWL_DATE = "crawlTimestamp";
+    private static final String VALUES = "values";
+
+    @Value("${app.search.facets.max-buckets:20}")
+    private int maxBuckets;
+
+    /**
+     * Construit les agrégations des facettes.
+     *
+     * @param filters Filtres de la requête par champ (documentType, metadata.language)
+     * @return Agrégations nommées à ajouter à la requête
+     */
+    public Map<String, Aggregation> build(Map<String, Query> filters) {
+        Map<String, Aggregation> aggregations = new HashMap<>();
+        aggregations.put(DOCUMENT_TYPE, Aggregation.of(a -> a
+                .filter(otherFilters(filters, DOCUMENT_TYPE))
+                .aggregations(VALUES, v -> v.terms(t -> t.field(DOCUMENT_TYPE).size(maxBuckets)))));
+        aggregations.put(LANGUAGE, Aggregation.of(a -> a
+                .filter(otherFilters(filters, LANGUAGE))
+                .aggregations(VALUES, v -> v.terms(t -> t.field(LANGUAGE).size(maxBuckets)))));
+        aggregations.put(CRAWL_DATE, Aggregation.of(a -> a
+                .filter(otherFilters(filters, null))
+                .aggregations(VALUES, v -> v.dateRange(d -> d
+                        .field(CRAWL_DATE)
+                        .ranges(r -> r.key("last_day").from(f -> f.expr("now-1d")))
+                        .ranges(r -> r.key("last_week").from(f -> f.expr("now-7d")))
+                        .ranges(r -> r.key("last_month").from(f -> f.expr("now-30d")))
+                        .ranges(r -> r.key("last_year").from(f -> f.expr("now-365d")))
+                        .ranges(r -> r.key("older").to(f -> f.expr("now-365d")))))));
+        return aggregations;
+    }
+
+    /**
+     * Lit les facettes dans la réponse Elasticsearch.
+     *
+     * @param aggregations Agrégations de la réponse
+     * @return Facettes (listes vides si une agrégation est absente)
+     */
+    public SearchFacets parse(Map<String, Aggregate> aggregations) {
+        SearchFacets facets = new SearchFacets();
+        if (aggregations == null || aggregations.isEmpty()) {
+            logger.debug("Aucune agrégation dans la réponse Elasticsearch");
+            return facets;
+        }
+        facets.setDocumentTypes(termBuckets(aggregations.get(DOCUMENT_TYPE)));
+        facets.setLanguages(termBuckets(aggregations.get(LANGUAGE)));
+
+        Aggregate crawlDates = values(aggregations.get(CRAWL_DATE));
+        if (crawlDates != null && crawlDates.isDateRange()) {
+            List<SearchFacets.Bucket> buckets = new ArrayList<>();
+            crawlDates.dateRange().buckets().array()
+                    .forEach(b -> buckets.add(new SearchFacets.Bucket(b.key(), b.docCount())));
+            facets.setCrawlDates(buckets);
+        }
+        return facets;
+    }
+
+    private List<SearchFacets.Bucket> termBuckets(Aggregate aggregate) {
+        List<SearchFacets.Bucket> buckets = new ArrayList<>();
+        Aggregate values = values(aggregate);
+        if (values != null && values.isSterms()) {
+            values.sterms().buckets().array()
+                    .forEach(b -> buckets.add(new SearchFacets.Bucket(b.key().stringValue(), b.docCount())));
+        }
+        return buckets;
+    }
+
+    private Aggregate values(Aggregate aggregate) {
+        if (aggregate == null || !aggregate.isFilter()) {
+            return null;
+        }
+        FilterAggregate filter = aggregate.filter();
+        return filter.aggregations().get(VALUES);
+    }
+
+    /**
+     * Combine les filtres de la requête, sauf celui du champ de la facette.
+     */
+    private Query otherFilters(Map<String, Query> filters, String excludedField) {
+        List<Query> others = new ArrayList<>();
+        filters.forEach((field, query) -> {
+            if (!field.equals(excludedField)) {
+                others.add(query);
+            }
+        });
+        return others.isEmpty()
+                ? Query.of(q -> q.matchAll(m -> m))
+                : Query.of(q -> q.bool(b -> b.filter(others)));
+    }
+}
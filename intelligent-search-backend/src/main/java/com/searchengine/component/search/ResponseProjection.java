@@ -0,0 +1,128 @@
+package com.searchengine.component.search;
+
+import com.searchengine.exception.SearchException;
+import com.searchengine.model.dto.response.DocumentResponse;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sélection des champs renvoyés pour chaque résultat (paramètre fields de la recherche).
+ * Elle détermine le filtrage _source envoyé à Elasticsearch et la projection appliquée à chaque résultat.
+ * Le score est toujours renvoyé.
+ */
+public final class ResponseProjection {
+
+    public static final List<String> FIELDS = List.of(
+            "url", "title", "description", "documentType", "crawlTimestamp", "links", "mediaUrls", "metadata", "score");
+
+    // Champs lus par le scoring Java (ScoreCalculator) ; côté serveur seul le boost de langue lit la source.
+    // Les métadonnées restent lues pour le boost de langue et les documents sans signaux précalculés.
+    private static final List<String> CLIENT_SCORING_FIELDS = List.of(
+            "url", "title", "description", "crawlTimestamp", "metadata", "signals");
+    private static final List<String> SERVER_SCORING_FIELDS = List.of("metadata.language");
+
+    private static final ResponseProjection ALL = new ResponseProjection(new LinkedHashSet<>(FIELDS));
+
+    private final Set<String> fields;
+
+    private ResponseProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Construit la projection à partir des champs demandés. Chaque entrée peut contenir
+     * plusieurs champs séparés par des virgules (fields=title,url,score).
+     *
+     * @param requested Champs demandés (null ou vide : tous les champs)
+     * @return Projection validée
+     */
+    public static ResponseProjection of(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return ALL;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String entry : requested) {
+            if (entry == null) {
+                continue;
+            }
+            for (String field : entry.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!FIELDS.contains(name)) {
+                    throw new SearchException("Champ inconnu dans fields : " + name);
+                }
+                fields.add(name);
+            }
+        }
+        return fields.isEmpty() ? ALL : new ResponseProjection(fields);
+    }
+
+    /**
+     * @return Identifiant stable de la projection, utilisé dans les clés de cache
+     */
+    public String key() {
+        return this == ALL ? "*" : String.join(",", fields);
+    }
+
+    /**
+     * Champs à demander à Elasticsearch : les champs demandés plus ceux dont le scoring a besoin.
+     *
+     * @param clientScoring true si le scoring est calculé en Java
+     * @return Liste des includes du filtrage _source
+     */
+    public List<String> sourceIncludes(boolean clientScoring) {
+        Set<String> includes = new LinkedHashSet<>(fields);
+        includes.remove("score");
+        includes.addAll(clientScoring ? CLIENT_SCORING_FIELDS : SERVER_SCORING_FIELDS);
+        return new ArrayList<>(includes);
+    }
+
+    /**
+     * Construit le résultat renvoyé à l'appelant avec les seuls champs demandés. Sans sélection de champs,
+     * la source est renvoyée telle quelle (seul son score est renseigné) quand l'appelant en est propriétaire ;
+     * une source partagée entre appelants n'est jamais modifiée et donne lieu à une copie.
+     *
+     * @param source Document désérialisé depuis Elasticsearch
+     * @param score Score final
+     * @param ownsSource true si la source n'est visible que de cet appelant
+     * @return Résultat projeté
+     */
+    public DocumentResponse project(DocumentResponse source, double score, boolean ownsSource) {
+        if (this == ALL && ownsSource) {
+            source.setScore(score);
+            return source;
+        }
+        DocumentResponse result = new DocumentResponse();
+        if (fields.contains("url")) {
+            result.setUrl(source.getUrl());
+        }
+        if (fields.contains("title")) {
+            result.setTitle(source.getTitle());
+        }
+        if (fields.contains("description")) {
+            result.setDescription(source.getDescription());
+        }
+        if (fields.contains("documentType")) {
+            result.setDocumentType(source.getDocumentType());
+        }
+        if (fields.contains("crawlTimestamp")) {
+            result.setCrawlTimestamp(source.getCrawlTimestamp());
+        }
+        if (fields.contains("links")) {
+            result.setLinks(source.getLinks());
+        }
+        if (fields.contains("mediaUrls")) {
+            result.setMediaUrls(source.getMediaUrls());
+        }
+        if (fields.contains("metadata")) {
+            result.setMetadata(source.getMetadata());
+        }
+        result.setScore(score);
+        return result;
+    }
+}
@@ -0,0 +1,146 @@
+package com.searchengine.component.search;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.searchengine.exception.SearchException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Encode et décode le jeton de continuation opaque de la pagination par curseur.
+ * Le jeton contient l'identifiant du point-in-time Elasticsearch, les valeurs de tri
+ * du dernier résultat renvoyé (search_after) et l'empreinte de la requête d'origine.
+ * Tant que la pagination reste dans la fenêtre de re-scoring, l'ordre n'est plus celui
+ * d'Elasticsearch : le jeton porte alors la position de la page suivante dans le classement.
+ */
+@Component
+public class SearchCursorCodec {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchCursorCodec.class);
+    private static final int FINGERPRINT_BYTES = 16;
+
+    private final ObjectMapper objectMapper;
+
+    public SearchCursorCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * État transporté par le curseur.
+     *
+     * @param pit Identifiant du point-in-time (null si la première page a été lue sans point-in-time)
+     * @param after Valeurs de tri du dernier résultat de la page (vide quand la reprise se fait par position)
+     * @param fingerprint Empreinte de la requête (texte normalisé et filtres)
+     * @param offset Position de la page suivante dans le classement re-scoré, ou null
+     */
+    public record Cursor(String pit, List<Object> after, String fingerprint, Integer offset) {
+
+        /**
+         * Convertit les valeurs de tri au format attendu par search_after.
+         */
+        public List<FieldValue> searchAfter() {
+            List<FieldValue> values = new ArrayList<>(after.size());
+            for (Object value : after) {
+                if (value instanceof Integer || value instanceof Long) {
+                    values.add(FieldValue.of(((Number) value).longValue()));
+                } else if (value instanceof Number number) {
+                    values.add(FieldValue.of(number.doubleValue()));
+                } else if (value instanceof Boolean bool) {
+                    values.add(FieldValue.of(bool));
+                } else {
+                    values.add(FieldValue.of(String.valueOf(value)));
+                }
+            }
+            return values;
+        }
+    }
+
+    /**
+     * Construit le jeton de la page suivante.
+     *
+     * @param pit Identifiant du point-in-time (peut être null)
+     * @param sortValues Valeurs de tri du dernier résultat
+     * @param fingerprint Empreinte de la requête
+     * @return Jeton opaque encodé en base64url
+     */
+    public String encode(String pit, List<FieldValue> sortValues, String fingerprint) {
+        List<Object> after = new ArrayList<>(sortValues.size());
+        for (FieldValue value : sortValues) {
+            after.add(value._get());
+        }
+        return encode(new Cursor(pit, after, fingerprint, null));
+    }
+
+    /**
+     * Construit le jeton d'une page suivante encore située dans la fenêtre de re-scoring.
+     *
+     * @param pit Identifiant du point-in-time (peut être null)
+     * @param offset Position de la page suivante dans le classement
+     * @param fingerprint Empreinte de la requête
+     * @return Jeton opaque encodé en base64url
+     */
+    public String encodeOffset(String pit, int offset, String fingerprint) {
+        return encode(new Cursor(pit, List.of(), fingerprint, offset));
+    }
+
+    private String encode(Cursor cursor) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(cursor);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (IOException e) {
+            throw new SearchException("Impossible d'encoder le curseur de pagination", e);
+        }
+    }
+
+    /**
+     * Décode un jeton reçu du client et vérifie qu'il correspond à la requête courante.
+     *
+     * @param token Jeton opaque
+     * @param expectedFingerprint Empreinte de la requête courante
+     * @return Curseur décodé
+     */
+    public Cursor decode(String token, String expectedFingerprint) {
+        Cursor cursor;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(token);
+            cursor = objectMapper.readValue(new String(json, StandardCharsets.UTF_8), Cursor.class);
+        } catch (IllegalArgumentException | IOException e) {
+            logger.debug("Curseur de pagination illisible : {}", token);
+            throw new SearchException("Curseur de pagination invalide", e);
+        }
+        boolean byOffset = cursor.offset() != null;
+        if (byOffset ? cursor.offset() < 0 : cursor.after() == null || cursor.after().isEmpty()) {
+            throw new SearchException("Curseur de pagination invalide");
+        }
+        if (!expectedFingerprint.equals(cursor.fingerprint())) {
+            throw new SearchException("Le curseur de pagination ne correspond pas à cette requête");
+        }
+        return cursor;
+    }
+
+    /**
+     * Calcule l'empreinte d'une requête : un curseur n'est valable que pour la requête qui l'a produit.
+     * L'empreinte est un SHA-256 tronqué à 128 bits, pour qu'aucune autre requête ne puisse la partager.
+     */
+    public String fingerprint(String normalizedQuery, String documentType, String language) {
+        String raw = normalizedQuery + '|' + (documentType != null ? documentType : "*")
+                + '|' + (language != null ? language.toLowerCase() : "*");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, FINGERPRINT_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 fait partie des algorithmes que toute JVM doit fournir
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
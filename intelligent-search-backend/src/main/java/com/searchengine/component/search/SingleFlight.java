@@ -0,0 +1,124 @@
+package com.searchengine.component.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Regroupement des appels identiques concurrents (« single-flight ») : tant qu'un appel est en cours
+ * pour une clé, les appelants suivants partagent son résultat au lieu de relancer la même requête.
+ * Chaque appelant reçoit sa propre copie du future, si bien qu'un délai ou une annulation côté
+ * appelant n'affecte pas les autres. Quand tous les appelants d'une clé ont annulé, l'appel
+ * sous-jacent est lui-même annulé (requête Elasticsearch interrompue).
+ *
+ * @param <K> Type de la clé (requête normalisée)
+ * @param <V> Type du résultat partagé, qui doit être traité en lecture seule par les appelants
+ */
+public class SingleFlight<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter cancelled;
+
+    /**
+     * Appel en cours : résultat partagé, appel sous-jacent et nombre d'appelants en attente.
+     */
+    private static final class Flight<V> {
+        private final CompletableFuture<V> shared = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger(1);
+        private volatile CompletableFuture<V> source;
+    }
+
+    /**
+     * @param name Nom du flux, utilisé comme tag des métriques
+     * @param meterRegistry Registre Micrometer
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = counter(name, "executed", meterRegistry);
+        this.coalesced = counter(name, "coalesced", meterRegistry);
+        this.cancelled = counter(name, "cancelled", meterRegistry);
+    }
+
+    /**
+     * Exécute l'appel pour la clé, ou rejoint l'appel déjà en cours pour cette clé.
+     *
+     * @param key Clé de la requête normalisée
+     * @param call Appel à exécuter si aucun n'est en cours (peut être synchrone ou asynchrone)
+     * @return Future propre à l'appelant ; l'annuler le retire des appelants en attente
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        Flight<V> flight = new Flight<>();
+        while (true) {
+            Flight<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                break;
+            }
+            // Rejoindre l'appel en cours, sauf s'il vient d'être abandonné par tous ses appelants
+            if (existing.waiters.getAndUpdate(w -> w == 0 ? 0 : w + 1) > 0) {
+                coalesced.increment();
+                logger.debug("Appel regroupé avec la requête en cours pour la clé : {}", key);
+                return waiterOf(key, existing);
+            }
+            inFlight.remove(key, existing);
+        }
+
+        executed.increment();
+        CompletableFuture<V> source;
+        try {
+            source = call.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        flight.source = source;
+        source.whenComplete((value, error) -> {
+            // Retirer la clé avant de compléter : un appel arrivé après le résultat relance une requête fraîche
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.shared.completeExceptionally(error);
+            } else {
+                flight.shared.complete(value);
+            }
+        });
+        return waiterOf(key, flight);
+    }
+
+    /**
+     * @return Nombre d'appels actuellement en cours
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private CompletableFuture<V> waiterOf(K key, Flight<V> flight) {
+        CompletableFuture<V> waiter = flight.shared.copy();
+        waiter.whenComplete((value, error) -> {
+            if (waiter.isCancelled() && flight.waiters.decrementAndGet() == 0) {
+                inFlight.remove(key, flight);
+                CompletableFuture<V> source = flight.source;
+                if (source != null && source.cancel(true)) {
+                    cancelled.increment();
+                    logger.debug("Appel annulé, plus aucun appelant pour la clé : {}", key);
+                }
+            }
+        });
+        return waiter;
+    }
+
+    private static Counter counter(String name, String result, MeterRegistry meterRegistry) {
+        return Counter.builder("searchengine.singleflight.requests")
+                .description("Requests executed, coalesced or cancelled by the single-flight layer")
+                .tag("flight", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
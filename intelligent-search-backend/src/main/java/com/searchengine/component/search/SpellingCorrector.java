@@ -0,0 +1,209 @@
+package com.searchengine.component.search;
+
+import com.searchengine.model.entity.SearchDocument;
+import com.searchengine.utils.QueryNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Correction orthographique des requêtes (« vouliez-vous dire »), à partir d'un dictionnaire
+ * {@link SymSpellDictionary} des termes indexés, gardé en mémoire.
+ * Le dictionnaire est chargé au démarrage depuis l'index des documents puis enrichi à chaque indexation.
+ * <p>
+ * Une requête dont tous les termes sont connus ou corrigeables est dite résolue : elle peut être
+ * exécutée sans fuzziness, la correction étant recherchée en plus des termes saisis (qui ne sont
+ * jamais remplacés). Sinon, la recherche garde la correspondance floue d'Elasticsearch.
+ */
+@Component
+public class SpellingCorrector {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpellingCorrector.class);
+    private static final String DOCUMENTS_INDEX = "documents";
+    private static final int MIN_WORD_LENGTH = 3;
+    private static final int MAX_WORD_LENGTH = 40;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final Executor executor;
+    private final SymSpellDictionary dictionary;
+    private final Counter exact;
+    private final Counter corrected;
+    private final Counter unresolved;
+
+    @Value("${app.search.spelling.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Résultat de la correction d'une requête normalisée.
+     *
+     * @param suggestion Requête corrigée, à proposer à l'utilisateur et à rechercher en plus
+     *                   de la requête d'origine, ou null si rien n'a été corrigé
+     * @param resolved true si tous les termes sont connus ou corrigés
+     */
+    public record Correction(String suggestion, boolean resolved) {
+    }
+
+    public SpellingCorrector(ElasticsearchOperations elasticsearchOperations,
+                             @Qualifier("searchExecutor") Executor executor,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.search.spelling.max-edit-distance:2}") int maxEditDistance,
+                             @Value("${app.search.spelling.min-count:2}") long minCount,
+                             @Value("${app.search.spelling.max-words:300000}") int maxWords) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.executor = executor;
+        this.dictionary = new SymSpellDictionary(maxEditDistance, minCount, maxWords);
+
+        Gauge.builder("searchengine.search.spelling.terms", dictionary, SymSpellDictionary::size)
+                .description("Terms held by the spelling-correction dictionary")
+                .register(meterRegistry);
+        this.exact = counter(meterRegistry, "exact");
+        this.corrected = counter(meterRegistry, "corrected");
+        this.unresolved = counter(meterRegistry, "unresolved");
+    }
+
+    /**
+     * Charge le dictionnaire en arrière-plan une fois l'application démarrée, à partir de tout l'index
+     * des documents : les recherches restent floues tant que le chargement n'est pas terminé.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!enabled) {
+            return;
+        }
+        executor.execute(() -> {
+            long start = System.currentTimeMillis();
+            int documents = loadDocuments();
+            logger.info("Dictionnaire orthographique chargé en {} ms : {} documents, {} termes, {} variantes",
+                    System.currentTimeMillis() - start, documents, dictionary.size(), dictionary.deleteCount());
+        });
+    }
+
+    /**
+     * Ajoute au dictionnaire les termes de documents fraîchement indexés.
+     *
+     * @param documents Documents indexés
+     */
+    public void learn(List<SearchDocument> documents) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (SearchDocument document : documents) {
+            countWords(document.getTitle(), counts);
+            countWords(document.getContent(), counts);
+        }
+        counts.forEach(dictionary::add);
+    }
+
+    /**
+     * Corrige une requête normalisée terme à terme. Les termes courts ou contenant des chiffres
+     * sont conservés tels quels (la fuzziness AUTO ne les corrigerait pas non plus).
+     *
+     * @param normalizedQuery Requête normalisée
+     * @return Correction, non résolue si le dictionnaire est vide ou désactivé
+     */
+    public Correction correct(String normalizedQuery) {
+        if (!enabled || dictionary.size() == 0) {
+            return new Correction(null, false);
+        }
+
+        String[] terms = normalizedQuery.split(" ");
+        boolean changed = false;
+        boolean resolved = true;
+        for (int i = 0; i < terms.length; i++) {
+            String term = terms[i];
+            if (!isCorrectable(term) || dictionary.contains(term)) {
+                continue;
+            }
+            SymSpellDictionary.Suggestion suggestion = dictionary.lookup(term, maxDistance(term.length()));
+            if (suggestion == null) {
+                resolved = false;
+            } else {
+                terms[i] = suggestion.term();
+                changed = true;
+            }
+        }
+
+        String correctedQuery = changed ? String.join(" ", terms) : normalizedQuery;
+        if (!resolved) {
+            unresolved.increment();
+        } else if (changed) {
+            corrected.increment();
+            logger.debug("Requête '{}' corrigée en '{}'", normalizedQuery, correctedQuery);
+        } else {
+            exact.increment();
+        }
+        return new Correction(changed ? correctedQuery : null, resolved);
+    }
+
+    private int loadDocuments() {
+        Query query = Query.findAll();
+        query.addSourceFilter(new FetchSourceFilterBuilder().withIncludes("title", "content").build());
+        int loaded = 0;
+        try (SearchHitsIterator<SearchDocument> hits = elasticsearchOperations.searchForStream(
+                query, SearchDocument.class, IndexCoordinates.of(DOCUMENTS_INDEX))) {
+            while (hits.hasNext()) {
+                learn(List.of(hits.next().getContent()));
+                loaded++;
+            }
+        } catch (Exception e) {
+            logger.warn("Échec du chargement du dictionnaire orthographique : {}", e.getMessage());
+        }
+        return loaded;
+    }
+
+    private static void countWords(String text, Map<String, Long> counts) {
+        if (!StringUtils.hasText(text)) {
+            return;
+        }
+        for (String word : QueryNormalizer.normalize(text).split(" ")) {
+            if (isCorrectable(word) && word.length() <= MAX_WORD_LENGTH) {
+                counts.merge(word, 1L, Long::sum);
+            }
+        }
+    }
+
+    private static boolean isCorrectable(String term) {
+        if (term.length() < MIN_WORD_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.isDigit(term.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Même barème que la fuzziness AUTO d'Elasticsearch : 1 modification de 3 à 5 caractères, 2 au-delà.
+     */
+    private static int maxDistance(int length) {
+        return length <= 5 ? 1 : 2;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("searchengine.search.spelling")
+                .description("Search queries by spelling-correction outcome (exact, corrected or unresolved)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
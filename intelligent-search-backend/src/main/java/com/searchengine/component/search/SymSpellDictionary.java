@@ -0,0 +1,250 @@
+package com.searchengine.component.search;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dictionnaire de correction orthographique par suppression symétrique (SymSpell).
+ * <p>
+ * À l'ajout, chaque terme est indexé sous toutes les variantes obtenues en supprimant jusqu'à
+ * {@code maxEditDistance} caractères de son préfixe ; à la recherche, les mêmes suppressions sont
+ * appliquées au mot saisi. Deux mots proches partagent alors une variante, et seuls les candidats
+ * ainsi trouvés sont vérifiés par une distance d'édition (Damerau-Levenshtein restreinte) :
+ * aucun parcours du vocabulaire n'est nécessaire.
+ * Un mot n'est proposé qu'une fois vu au moins {@code minCount} fois, ce qui écarte les fautes
+ * présentes dans le corpus lui-même.
+ */
+public final class SymSpellDictionary {
+
+    // Seuls les premiers caractères sont indexés : borne la mémoire sans nuire aux corrections usuelles
+    private static final int PREFIX_LENGTH = 7;
+    private static final String[] EMPTY = new String[0];
+
+    private final int maxEditDistance;
+    private final long minCount;
+    private final int maxWords;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Long> counts = new HashMap<>();
+    private final Map<String, String[]> deletes = new HashMap<>();
+    private int termCount;
+
+    /**
+     * Correction proposée pour un mot.
+     */
+    public record Suggestion(String term, int distance, long count) {
+    }
+
+    public SymSpellDictionary(int maxEditDistance, long minCount, int maxWords) {
+        this.maxEditDistance = Math.max(0, maxEditDistance);
+        this.minCount = Math.max(1, minCount);
+        this.maxWords = maxWords;
+    }
+
+    /**
+     * Ajoute des occurrences d'un mot. Les mots nouveaux sont ignorés une fois le dictionnaire plein.
+     *
+     * @param word Mot normalisé
+     * @param count Nombre d'occurrences
+     */
+    public void add(String word, long count) {
+        if (word == null || word.isEmpty() || count <= 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Long previous = counts.get(word);
+            if (previous == null && counts.size() >= maxWords) {
+                return;
+            }
+            long updated = previous == null ? count : previous + count;
+            counts.put(word, updated);
+            if ((previous == null || previous < minCount) && updated >= minCount) {
+                index(word);
+                termCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param word Mot normalisé
+     * @return true si le mot fait partie du vocabulaire
+     */
+    public boolean contains(String word) {
+        lock.readLock().lock();
+        try {
+            Long count = counts.get(word);
+            return count != null && count >= minCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cherche le terme le plus proche d'un mot : plus petite distance d'édition, puis plus grand nombre d'occurrences.
+     *
+     * @param word Mot normalisé
+     * @param maxDistance Distance d'édition maximale (bornée par celle du dictionnaire)
+     * @return Meilleure correction (le mot lui-même s'il est connu), ou null
+     */
+    public Suggestion lookup(String word, int maxDistance) {
+        int distanceLimit = Math.min(maxDistance, maxEditDistance);
+        lock.readLock().lock();
+        try {
+            Long own = counts.get(word);
+            if (own != null && own >= minCount) {
+                return new Suggestion(word, 0, own);
+            }
+            if (distanceLimit <= 0 || termCount == 0) {
+                return null;
+            }
+
+            String inputPrefix = word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+            Deque<String> candidates = new ArrayDeque<>();
+            Set<String> seenCandidates = new HashSet<>();
+            Set<String> seenTerms = new HashSet<>();
+            candidates.add(inputPrefix);
+            seenCandidates.add(inputPrefix);
+
+            Suggestion best = null;
+            while (!candidates.isEmpty()) {
+                String candidate = candidates.poll();
+                int deleted = inputPrefix.length() - candidate.length();
+                // Parcours en largeur : les candidats suivants ne peuvent plus faire mieux
+                if (best != null && deleted > best.distance()) {
+                    break;
+                }
+
+                for (String term : deletes.getOrDefault(candidate, EMPTY)) {
+                    if (!seenTerms.add(term) || Math.abs(term.length() - word.length()) > distanceLimit) {
+                        continue;
+                    }
+                    int distance = editDistance(word, term, distanceLimit);
+                    if (distance < 0) {
+                        continue;
+                    }
+                    long count = counts.get(term);
+                    if (best == null || distance < best.distance()
+                            || (distance == best.distance() && count > best.count())) {
+                        best = new Suggestion(term, distance, count);
+                    }
+                }
+
+                if (deleted < distanceLimit && candidate.length() > 1) {
+                    for (int i = 0; i < candidate.length(); i++) {
+                        String delete = candidate.substring(0, i) + candidate.substring(i + 1);
+                        if (seenCandidates.add(delete)) {
+                            candidates.add(delete);
+                        }
+                    }
+                }
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Nombre de termes proposables
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return termCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Nombre de variantes indexées
+     */
+    public int deleteCount() {
+        lock.readLock().lock();
+        try {
+            return deletes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(String word) {
+        String prefix = word.length() > PREFIX_LENGTH ? word.substring(0, PREFIX_LENGTH) : word;
+        Set<String> variants = new HashSet<>();
+        variants.add(prefix);
+        collectDeletes(prefix, 0, variants);
+        for (String variant : variants) {
+            String[] terms = deletes.get(variant);
+            if (terms == null) {
+                deletes.put(variant, new String[]{word});
+            } else {
+                String[] extended = Arrays.copyOf(terms, terms.length + 1);
+                extended[terms.length] = word;
+                deletes.put(variant, extended);
+            }
+        }
+    }
+
+    private void collectDeletes(String value, int depth, Set<String> variants) {
+        if (depth == maxEditDistance || value.length() <= 1) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            String delete = value.substring(0, i) + value.substring(i + 1);
+            // Toutes les variantes d'une même profondeur ont la même longueur : un doublon a déjà été développé
+            if (variants.add(delete)) {
+                collectDeletes(delete, depth + 1, variants);
+            }
+        }
+    }
+
+    /**
+     * Distance de Damerau-Levenshtein restreinte (transpositions adjacentes), abandonnée dès qu'elle dépasse max.
+     *
+     * @return Distance, ou -1 si elle dépasse max
+     */
+    private static int editDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return -1;
+        }
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return -1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m] <= max ? previous[m] : -1;
+    }
+}
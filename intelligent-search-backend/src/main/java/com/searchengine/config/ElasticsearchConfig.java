@@ -1,5 +1,6 @@
 package com.searchengine.config;
 
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
@@ -43,7 +44,7 @@ public class ElasticsearchConfig {
     private String password;
 
     @Bean
-    public ElasticsearchClient elasticsearchClient() {
+    public ElasticsearchTransport elasticsearchTransport() {
         logger.debug("Configuration du client Elasticsearch pour l'URI : {}", elasticsearchUri);
         HttpHost host = HttpHost.create(elasticsearchUri);
         CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
@@ -59,10 +60,22 @@ public class ElasticsearchConfig {
         objectMapper.registerModule(new JavaTimeModule());
         JacksonJsonpMapper jsonpMapper = new JacksonJsonpMapper(objectMapper);
 
-        ElasticsearchTransport transport = new RestClientTransport(restClient, jsonpMapper);
+        return new RestClientTransport(restClient, jsonpMapper);
+    }
+
+    @Bean
+    public ElasticsearchClient elasticsearchClient(ElasticsearchTransport transport) {
         return new ElasticsearchClient(transport);
     }
 
+    /**
+     * Client asynchrone partageant le même transport (pool de connexions et mapper JSON) que le client synchrone.
+     */
+    @Bean
+    public ElasticsearchAsyncClient elasticsearchAsyncClient(ElasticsearchTransport transport) {
+        return new ElasticsearchAsyncClient(transport);
+    }
+
     @EventListener(ContextRefreshedEvent.class)
     public void initIndices() {
         // Méthode pour initialiser les index si nécessaire
@@ -35,6 +35,7 @@ public class ElasticsearchInitializer {
             initializeIndex("documents", "elasticsearch/mappings/document-mapping.json");
             initializeIndex("analytics", "elasticsearch/mappings/analytics-mapping.json");
             initializeIndex("search_queries", "elasticsearch/mappings/search_queries-mapping.json");
+            initializeIndex("autocomplete", "elasticsearch/mappings/autocomplete-mapping.json");
             logger.info("Index Elasticsearch initialisés avec succès");
         } catch (Exception e) {
             logger.error("Échec de l'initialisation des index Elasticsearch", e);
@@ -56,10 +57,23 @@ public class ElasticsearchInitializer {
                 logger.info("Index Elasticsearch créé : {}", indexName);
             } else {
                 logger.debug("L'index Elasticsearch '{}' existe déjà", indexName);
+                updateMapping(indexName, mapping);
             }
         } catch (IOException e) {
             logger.error("Échec de la lecture du fichier de mapping : {}", mappingFile, e);
             throw new IllegalStateException("Échec de la lecture du fichier de mapping : " + mappingFile, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Déclare sur un index existant les champs ajoutés au mapping depuis sa création.
+     * Un mapping incompatible (type de champ modifié) n'empêche pas le démarrage.
+     */
+    private void updateMapping(String indexName, String mapping) {
+        try {
+            ElasticsearchUtils.putMapping(elasticsearchClient, indexName, mapping);
+        } catch (Exception e) {
+            logger.warn("Mise à jour du mapping de l'index '{}' impossible : {}", indexName, e.getMessage());
+        }
+    }
+}
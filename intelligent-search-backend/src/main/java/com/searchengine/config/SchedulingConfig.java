@@ -0,0 +1,12 @@
+package com.searchengine.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (instantanés des requêtes populaires, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
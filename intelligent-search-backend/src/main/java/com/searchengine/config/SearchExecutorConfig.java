@@ -0,0 +1,41 @@
+package com.searchengine.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration de l'exécuteur dédié aux étapes parallèles d'une recherche
+ * (résolution de session et de contexte pendant la requête Elasticsearch).
+ */
+@Configuration
+public class SearchExecutorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchExecutorConfig.class);
+
+    @Value("${app.search.executor.pool-size:16}")
+    private int poolSize;
+
+    @Value("${app.search.executor.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Bean(name = "searchExecutor")
+    public ThreadPoolTaskExecutor searchExecutor() {
+        logger.debug("Configuration de l'exécuteur de recherche : {} threads, file de {}", poolSize, queueCapacity);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("search-");
+        // File pleine : l'étape s'exécute sur le thread appelant plutôt que d'échouer
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -47,6 +47,7 @@ public class SecurityConfig {
                 .addFilterBefore(ipWhitelistFilter, ChannelProcessingFilter.class)
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/ws/**").permitAll()
                         .requestMatchers("/api/**").permitAll()
                         .anyRequest().authenticated()
                 )
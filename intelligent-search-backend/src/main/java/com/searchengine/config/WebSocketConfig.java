@@ -0,0 +1,89 @@
+package com.searchengine.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.searchengine.service.AuthService;
+import com.searchengine.service.AutocompleteService;
+import com.searchengine.websocket.ApiKeyHandshakeInterceptor;
+import com.searchengine.websocket.AutocompleteWebSocketHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Optional WebSocket endpoint for autocomplete ({@code /ws/autocomplete}).
+ * The client authenticates once at handshake time, then streams prefixes on the same connection
+ * instead of paying the HTTP filter chain on every keystroke.
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnProperty(name = "app.autocomplete.websocket.enabled", havingValue = "true")
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
+
+    private final AutocompleteService autocompleteService;
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    // Not exposed as a bean, so that @Scheduled tasks keep the default scheduler
+    private final ThreadPoolTaskScheduler debounceScheduler = new ThreadPoolTaskScheduler();
+
+    @Value("${app.autocomplete.websocket.debounce-ms:40}")
+    private long debounceMs;
+
+    @Value("${app.autocomplete.websocket.rate.capacity:20}")
+    private double rateCapacity;
+
+    @Value("${app.autocomplete.websocket.rate.refill-per-second:10}")
+    private double refillPerSecond;
+
+    @Value("${app.autocomplete.websocket.require-api-key:true}")
+    private boolean requireApiKey;
+
+    @Value("${app.autocomplete.websocket.allow-query-api-key:false}")
+    private boolean allowQueryApiKey;
+
+    @Value("${app.autocomplete.websocket.max-connections-per-client:4}")
+    private int maxConnectionsPerClient;
+
+    @Value("${app.autocomplete.websocket.allowed-origins:http://localhost:5173}")
+    private String[] allowedOrigins;
+
+    @Value("${app.autocomplete.websocket.scheduler-threads:2}")
+    private int schedulerThreads;
+
+    public WebSocketConfig(AutocompleteService autocompleteService, AuthService authService,
+                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.autocompleteService = autocompleteService;
+        this.authService = authService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        debounceScheduler.setPoolSize(schedulerThreads);
+        debounceScheduler.setThreadNamePrefix("autocomplete-ws-");
+        debounceScheduler.initialize();
+
+        logger.info("Registering autocomplete WebSocket endpoint /ws/autocomplete (debounce {} ms)", debounceMs);
+        registry.addHandler(new AutocompleteWebSocketHandler(autocompleteService, objectMapper, debounceScheduler,
+                        meterRegistry, debounceMs, rateCapacity, refillPerSecond, maxConnectionsPerClient),
+                        "/ws/autocomplete")
+                .addInterceptors(new ApiKeyHandshakeInterceptor(authService, requireApiKey, allowQueryApiKey))
+                .setAllowedOrigins(allowedOrigins);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        debounceScheduler.shutdown();
+    }
+}
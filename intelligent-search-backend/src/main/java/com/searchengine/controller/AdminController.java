@@ -1,5 +1,7 @@
 package com.searchengine.controller;
 
+import com.searchengine.component.indexing.PageRankJob;
+import com.searchengine.component.indexing.RankSignalMigration;
 import com.searchengine.exception.SearchEngineException;
 import com.searchengine.model.entity.Source;
 import com.searchengine.repository.jpa.SourceJpaRepository;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,10 +28,15 @@ public class AdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
     private final SourceJpaRepository sourceJpaRepository;
+    private final RankSignalMigration rankSignalMigration;
+    private final PageRankJob pageRankJob;
 
     @Autowired
-    public AdminController(SourceJpaRepository sourceJpaRepository) {
+    public AdminController(SourceJpaRepository sourceJpaRepository, RankSignalMigration rankSignalMigration,
+                           PageRankJob pageRankJob) {
         this.sourceJpaRepository = sourceJpaRepository;
+        this.rankSignalMigration = rankSignalMigration;
+        this.pageRankJob = pageRankJob;
     }
 
     /**
@@ -78,4 +86,68 @@ public class AdminController {
             throw new SearchEngineException("Failed to add source: " + source.getUrl(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Starts the background migration that computes ranking signals for documents indexed without them.
+     *
+     * @param all Recompute the signals of every document, not only those without signals
+     * @return ResponseEntity with the migration status
+     */
+    @Operation(summary = "Migrate ranking signals",
+            description = "Computes and stores the precomputed ranking signals of documents indexed before they existed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Migration started"),
+            @ApiResponse(responseCode = "409", description = "A migration is already running")
+    })
+    @PostMapping("/index/signals/migration")
+    public ResponseEntity<RankSignalMigration.Status> startSignalMigration(
+            @RequestParam(defaultValue = "false") boolean all) {
+        logger.info("Starting ranking signals migration (all documents: {})", all);
+        boolean started = rankSignalMigration.start(all);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(rankSignalMigration.status());
+    }
+
+    /**
+     * Returns the status of the last ranking signals migration.
+     *
+     * @return ResponseEntity with the migration status
+     */
+    @Operation(summary = "Get ranking signals migration status", description = "Progress of the last or current migration")
+    @ApiResponse(responseCode = "200", description = "Status retrieved successfully")
+    @GetMapping("/index/signals/migration")
+    public ResponseEntity<RankSignalMigration.Status> getSignalMigrationStatus() {
+        return ResponseEntity.ok(rankSignalMigration.status());
+    }
+
+    /**
+     * Starts the offline link-graph PageRank computation.
+     *
+     * @return ResponseEntity with the computation report
+     */
+    @Operation(summary = "Compute PageRank",
+            description = "Builds the link graph of indexed documents and stores page and domain authority signals")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Computation started"),
+            @ApiResponse(responseCode = "409", description = "A computation is already running")
+    })
+    @PostMapping("/index/pagerank")
+    public ResponseEntity<PageRankJob.Report> startPageRank() {
+        logger.info("Starting link-graph PageRank computation");
+        boolean started = pageRankJob.start();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(pageRankJob.report());
+    }
+
+    /**
+     * Returns the report of the last PageRank computation.
+     *
+     * @return ResponseEntity with the computation report
+     */
+    @Operation(summary = "Get PageRank report", description = "Phase, timings and memory of the last or current computation")
+    @ApiResponse(responseCode = "200", description = "Report retrieved successfully")
+    @GetMapping("/index/pagerank")
+    public ResponseEntity<PageRankJob.Report> getPageRankReport() {
+        return ResponseEntity.ok(pageRankJob.report());
+    }
+}
@@ -1,5 +1,6 @@
 package com.searchengine.controller;
 
+import com.searchengine.component.autocomplete.AutocompleteRequestTracker;
 import com.searchengine.exception.SearchException;
 import com.searchengine.model.dto.request.AutocompleteRequest;
 import com.searchengine.model.dto.response.AutocompleteResponse;
@@ -13,8 +14,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/autocomplete")
 @Tag(name = "Autocomplete", description = "API for autocomplete suggestions")
@@ -22,14 +28,19 @@ public class AutocompleteController {
 
     private static final Logger logger = LoggerFactory.getLogger(AutocompleteController.class);
     private final AutocompleteService autocompleteService;
+    private final AutocompleteRequestTracker requestTracker;
 
     @Autowired
-    public AutocompleteController(AutocompleteService autocompleteService) {
+    public AutocompleteController(AutocompleteService autocompleteService, AutocompleteRequestTracker requestTracker) {
         this.autocompleteService = autocompleteService;
+        this.requestTracker = requestTracker;
     }
 
     /**
      * Provides autocomplete suggestions for a query prefix.
+     * When the client sends both a sessionId and a sequence number, a newer request from the same
+     * session cancels this one, which then answers 204 No Content. Without them the request is
+     * never cancelled.
      *
      * @param request The autocomplete request
      * @return ResponseEntity with list of suggestions
@@ -37,23 +48,43 @@ public class AutocompleteController {
     @Operation(summary = "Get autocomplete suggestions", description = "Fetches suggestions based on query prefix using hybrid strategy (Elasticsearch + smart logic)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+            @ApiResponse(responseCode = "204", description = "Request superseded by a newer keystroke of the same session"),
             @ApiResponse(responseCode = "400", description = "Invalid request"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping
     public ResponseEntity<AutocompleteResponse> getSuggestions(@Valid @RequestBody AutocompleteRequest request) {
         logger.info("Processing autocomplete request for prefix: {}", request.getPrefix());
+        String session = request.getSessionId();
+        boolean tracked = StringUtils.hasText(session) && request.getSequence() != null;
+        CompletableFuture<AutocompleteResponse> future = autocompleteService.getAutocompleteSuggestionsAsync(
+                request.getPrefix(), request.getLanguage(), request.getMaxSuggestions());
         try {
-            AutocompleteResponse response = autocompleteService.getAutocompleteSuggestions(
-                    request.getPrefix(), request.getLanguage(), request.getMaxSuggestions());
+            if (tracked && !requestTracker.register(session, request.getSequence(), future)) {
+                return ResponseEntity.noContent().build();
+            }
+            AutocompleteResponse response = future.join();
 
             logger.debug("Suggestions: {}, Completion: {}",
                     response.getSuggestions().size(), response.getCompletion());
 
             return ResponseEntity.ok(response);
+        } catch (CancellationException e) {
+            logger.debug("Autocomplete request for prefix '{}' superseded by a newer keystroke", request.getPrefix());
+            return ResponseEntity.noContent().build();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SearchException searchException) {
+                throw searchException;
+            }
+            logger.error("Failed to retrieve autocomplete suggestions for prefix: {}", request.getPrefix(), e);
+            throw new SearchException("Failed to retrieve autocomplete suggestions", e.getCause());
         } catch (Exception e) {
             logger.error("Failed to retrieve autocomplete suggestions for prefix: {}", request.getPrefix(), e);
             throw new SearchException("Failed to retrieve autocomplete suggestions", e);
+        } finally {
+            if (tracked) {
+                requestTracker.release(session, future);
+            }
         }
     }
 }
@@ -1,7 +1,10 @@
 package com.searchengine.controller;
 
+import com.searchengine.model.dto.request.BatchSearchRequest;
 import com.searchengine.model.dto.request.SearchRequestDto;
+import com.searchengine.model.dto.response.BatchSearchResponse;
 import com.searchengine.model.dto.response.SearchResponseDto;
+import com.searchengine.model.enums.SearchStreamFormat;
 import com.searchengine.service.ScoringService;
 import com.searchengine.service.SearchService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,11 +15,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST controller pour gérer les requêtes de recherche.
@@ -63,4 +70,55 @@ public class SearchController {
             throw e; // Géré par GlobalExceptionHandler
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Exécute une requête de recherche et diffuse les résultats au fil de l'eau (NDJSON ou Server-Sent Events).
+     * Mode choisi par l'en-tête Accept, destiné aux exports et aux grandes valeurs de size.
+     *
+     * @param searchRequestDto La requête de recherche
+     * @param accept L'en-tête Accept (application/x-ndjson ou text/event-stream)
+     * @param httpRequest La requête HTTP pour extraire l'IP et l'User-Agent
+     * @return ResponseEntity avec le flux de résultats
+     */
+    @Operation(summary = "Rechercher des documents en flux", description = "Diffuse les résultats en NDJSON ou en Server-Sent Events selon l'en-tête Accept")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flux de résultats"),
+            @ApiResponse(responseCode = "400", description = "Requête de recherche invalide"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    @PostMapping(produces = {SearchStreamFormat.NDJSON_VALUE, SearchStreamFormat.SSE_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamSearch(@Valid @RequestBody SearchRequestDto searchRequestDto,
+                                                              @RequestHeader(HttpHeaders.ACCEPT) String accept,
+                                                              HttpServletRequest httpRequest) {
+        logger.info("Requête de recherche en flux reçue avec la requête : {}", searchRequestDto.getQuery());
+        SearchStreamFormat format = SearchStreamFormat.fromAccept(accept);
+        StreamingResponseBody body = searchService.streamSearch(searchRequestDto,
+                httpRequest.getRemoteAddr(), httpRequest.getHeader("User-Agent"), format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(body);
+    }
+
+    /**
+     * Exécute plusieurs recherches en un seul appel et retourne les résultats dans l'ordre du lot.
+     *
+     * @param batchRequest Le lot de recherches
+     * @param httpRequest La requête HTTP pour extraire l'IP et l'User-Agent
+     * @return ResponseEntity avec un résultat ou une erreur par recherche
+     */
+    @Operation(summary = "Rechercher en lot", description = "Exécute plusieurs recherches en un seul aller-retour Elasticsearch (_msearch)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lot exécuté, résultats et erreurs retournés dans l'ordre"),
+            @ApiResponse(responseCode = "400", description = "Lot de recherches invalide"),
+            @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchSearchResponse> searchBatch(@Valid @RequestBody BatchSearchRequest batchRequest, HttpServletRequest httpRequest) {
+        logger.info("Lot de recherches reçu avec {} requêtes", batchRequest.getSearches().size());
+        String ipAddress = httpRequest.getRemoteAddr();
+        String userAgent = httpRequest.getHeader("User-Agent");
+        BatchSearchResponse response = searchService.searchBatch(batchRequest, ipAddress, userAgent);
+        logger.debug("Lot de recherches terminé avec {} résultats", response.getResults().size());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -12,8 +12,17 @@ public class AutocompleteRequest {
     @NotBlank(message = "Query prefix cannot be blank")
     private String prefix;
 
+    /**
+     * Client-generated session identifier; superseded requests are only cancelled when it is set
+     * together with {@link #sequence}.
+     */
     private String sessionId;
 
+    /**
+     * Keystroke sequence number within the session; a request with a higher number supersedes older ones.
+     */
+    private Long sequence;
+
     private String language;
 
     private Integer maxSuggestions = 10;
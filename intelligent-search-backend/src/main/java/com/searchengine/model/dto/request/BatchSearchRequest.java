@@ -0,0 +1,19 @@
+package com.searchengine.model.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for a batch of searches executed in a single Elasticsearch round trip.
+ */
+@Data
+public class BatchSearchRequest {
+
+    @NotNull(message = "Searches cannot be null")
+    @Size(min = 1, max = 20, message = "Searches size must be between 1 and 20")
+    private List<@Valid SearchRequestDto> searches;
+}
@@ -1,5 +1,6 @@
 package com.searchengine.model.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.searchengine.model.enums.DocumentType;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -7,6 +8,8 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * DTO for search request payload.
  */
@@ -28,4 +31,14 @@ public class SearchRequestDto {
     // Nouveau champ pour la langue (optionnel, format ISO 639-1, ex: "fr", "en")
     @Pattern(regexp = "^$|^[a-zA-Z]{2}$", message = "Language must be a valid ISO 639-1 code (e.g., 'fr', 'en')")
     private String language;
+
+    // Jeton de continuation renvoyé par la page précédente (nextCursor) ; prioritaire sur page
+    private String cursor;
+
+    // Champs à renvoyer pour chaque résultat (ex: ["title", "url", "score"] ou "title,url,score") ; tous par défaut
+    @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+    private List<String> fields;
+
+    // Renvoie les facettes (nombre de documents par type, langue et date de crawl) avec les résultats
+    private boolean includeFacets;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.searchengine.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Message pushed on the autocomplete WebSocket: the suggestions for a keystroke, tagged with its
+ * sequence number, or an error code (e.g. RATE_LIMITED).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AutocompletePush {
+
+    private Long sequence;
+
+    @JsonUnwrapped
+    private AutocompleteResponse response;
+
+    private String error;
+
+    public static AutocompletePush of(Long sequence, AutocompleteResponse response) {
+        return new AutocompletePush(sequence, response, null);
+    }
+
+    public static AutocompletePush error(Long sequence, String error) {
+        return new AutocompletePush(sequence, null, error);
+    }
+}
@@ -0,0 +1,36 @@
+package com.searchengine.model.dto.response;
+
+import com.searchengine.model.entity.SearchContext;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO pour la réponse d'un lot de recherches : un élément par recherche, dans l'ordre du lot.
+ */
+@Data
+public class BatchSearchResponse {
+    private List<Item> results;
+    private SearchContext context;
+
+    /**
+     * Résultat d'une recherche du lot : soit une réponse, soit un message d'erreur.
+     */
+    @Data
+    public static class Item {
+        private SearchResponseDto response;
+        private String error;
+
+        public static Item success(SearchResponseDto response) {
+            Item item = new Item();
+            item.setResponse(response);
+            return item;
+        }
+
+        public static Item failure(String error) {
+            Item item = new Item();
+            item.setError(error);
+            return item;
+        }
+    }
+}
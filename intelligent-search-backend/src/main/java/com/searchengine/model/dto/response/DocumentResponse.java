@@ -1,5 +1,9 @@
 package com.searchengine.model.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.searchengine.model.entity.RankSignals;
 import com.searchengine.model.enums.DocumentType;
 import lombok.Data;
 
@@ -9,8 +13,12 @@ import java.util.Map;
 
 /**
  * DTO for document response data.
+ * Search hits are deserialized directly into this type from the filtered _source;
+ * fields that were not requested stay null and are omitted from the payload.
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class DocumentResponse {
 
     private String url;
@@ -21,5 +29,8 @@ public class DocumentResponse {
     private List<String> links;
     private List<String> mediaUrls;
     private Map<String, String> metadata;
+    // Read for scoring only: deserialized from _source but never written into responses
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private RankSignals signals;
     private double score;
 }
\ No newline at end of file
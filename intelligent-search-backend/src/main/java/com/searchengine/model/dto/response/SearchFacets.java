@@ -0,0 +1,27 @@
+package com.searchengine.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO pour les facettes d'une recherche : nombre de documents par type, par langue et par ancienneté de crawl.
+ * Chaque facette est calculée avec les autres filtres de la requête, mais sans son propre filtre.
+ */
+@Data
+public class SearchFacets {
+    private List<Bucket> documentTypes = new ArrayList<>();
+    private List<Bucket> languages = new ArrayList<>();
+    private List<Bucket> crawlDates = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private String key;
+        private long count;
+    }
+}
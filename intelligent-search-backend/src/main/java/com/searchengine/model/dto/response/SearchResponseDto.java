@@ -9,5 +9,8 @@ import java.util.List;
 public class SearchResponseDto {
     private List<DocumentResponse> results;
     private long totalResults;
+    private String nextCursor;
+    private SearchFacets facets;
+    private String didYouMean;
     private SearchContext context;
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.searchengine.model.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.CompletionContext;
+import org.springframework.data.elasticsearch.annotations.CompletionField;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.core.suggest.Completion;
+
+/**
+ * Entrée de l'index de suggestions « autocomplete » : un titre de document ou une expression fréquente
+ * de son contenu, pondérée par la popularité et rattachée à la langue du document.
+ */
+@Document(indexName = "autocomplete", createIndex = false)
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AutocompleteSuggestion {
+
+    public static final String KIND_TITLE = "title";
+    public static final String KIND_PHRASE = "phrase";
+
+    @Id
+    private String id;
+
+    /**
+     * Texte affiché comme suggestion.
+     */
+    private String text;
+
+    private String url;
+    private String language;
+    private String kind;
+
+    @CompletionField(contexts = {
+            @CompletionContext(name = "language", type = CompletionContext.ContextMappingType.CATEGORY)
+    })
+    private Completion suggestion;
+}
@@ -0,0 +1,45 @@
+package com.searchengine.model.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ranking signals computed once at indexing time and stored as typed fields
+ * ({@code signals.*} in the documents mapping), so that scoring reads primitives
+ * instead of parsing metadata strings for every hit.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RankSignals {
+
+    /** Normalized popularity score, in [0, 1] */
+    private Double popularity;
+    private Integer contentLength;
+    private Integer linkCount;
+    private Integer mediaCount;
+    /** Domain authority, in [0, 10] */
+    private Double domainAuthority;
+    /** Link-graph PageRank of the page, scaled so that the average page scores 1 (rank_feature) */
+    private Double pageRank;
+    /** Sum of the page ranks of the domain, same scale (rank_feature) */
+    private Double domainRank;
+    /** Links from other indexed pages */
+    private Integer inboundLinks;
+    /** Document location (geo_point), absent when unknown */
+    private Location location;
+
+    /**
+     * Geo point in the {@code {"lat": .., "lon": ..}} form accepted by Elasticsearch.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Location {
+        private double lat;
+        private double lon;
+    }
+}
@@ -46,6 +46,7 @@ public class SearchDocument {
     private int httpStatus;
     private Map<String, String> metadata = new HashMap<>();
     private String contentHash;
+    private RankSignals signals;
 
     @JsonIgnore
     public String getLanguage() {
@@ -32,6 +32,12 @@ public class SearchQuery {
     @Enumerated(EnumType.STRING)
     private SearchType searchType;
 
+    // Langue de la requête et nombre d'occurrences agrégées par l'instantané des requêtes populaires
+    @Column(length = 16)
+    private String language;
+
+    private Long hitCount;
+
     @PrePersist
     protected void onCreate() {
         timestamp = LocalDateTime.now();
@@ -0,0 +1,26 @@
+package com.searchengine.model.enums;
+
+public enum SearchStreamFormat {
+    NDJSON(SearchStreamFormat.NDJSON_VALUE),
+    SSE(SearchStreamFormat.SSE_VALUE);
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String SSE_VALUE = "text/event-stream";
+
+    private final String mediaType;
+
+    SearchStreamFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Choisit le format de flux d'après l'en-tête Accept (NDJSON par défaut).
+     */
+    public static SearchStreamFormat fromAccept(String accept) {
+        return accept != null && accept.contains(SSE_VALUE) ? SSE : NDJSON;
+    }
+}
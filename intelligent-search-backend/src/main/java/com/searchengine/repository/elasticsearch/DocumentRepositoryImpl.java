@@ -7,8 +7,10 @@ import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.searchengine.component.monitoring.SearchDiagnostics;
 import com.searchengine.model.entity.SearchDocument;
 import com.searchengine.model.enums.DocumentType;
+import com.searchengine.utils.QueryNormalizer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,6 +22,7 @@ import org.springframework.util.StringUtils;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Repository
@@ -29,6 +32,7 @@ public class DocumentRepositoryImpl implements DocumentRepositoryCustom {
 
     private final ElasticsearchClient elasticsearchClient;
     private final ObjectMapper objectMapper;
+    private final SearchDiagnostics searchDiagnostics;
 
     private static final String INDEX_NAME = "documents";
 
@@ -157,12 +161,7 @@ public class DocumentRepositoryImpl implements DocumentRepositoryCustom {
             return "";
         }
 
-        String cleaned = term.trim()
-                .replaceAll("[*+\\-!(){}\\[\\]^~?:\\\\/]", " ")
-                .replaceAll("[\"“”]", " ")
-                .replaceAll("[‘’']", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
+        String cleaned = QueryNormalizer.normalize(term);
 
         log.debug("Terme nettoyé: '{}' -> '{}'", term, cleaned);
         return cleaned;
@@ -268,31 +267,26 @@ public class DocumentRepositoryImpl implements DocumentRepositoryCustom {
                     )))
             );
 
-            // Débogage : Inspecter la réponse brute
-            SearchResponse<Map> rawResponse = elasticsearchClient.search(searchRequest, Map.class);
-            log.debug("Réponse brute Elasticsearch : {}", rawResponse.hits().hits());
-
-            // Inspecter chaque document pour identifier les champs problématiques
-            rawResponse.hits().hits().forEach(hit -> {
-                Map<String, Object> source = hit.source();
-                if (source != null) {
-                    log.debug("Document source : {}", source);
-                    log.debug("documentType : {}", source.get("documentType"));
-                    log.debug("apiEndpoints : {}", source.get("apiEndpoints"));
-                    log.debug("crawlTimestamp : {}", source.get("crawlTimestamp"));
-                    log.debug("metadata : {}", source.get("metadata"));
-                }
-            });
-
-            // Désérialisation en SearchDocument
-            SearchResponse<SearchDocument> response = elasticsearchClient.search(searchRequest, SearchDocument.class);
-
-            List<SearchDocument> documents = response.hits().hits().stream()
-                    .map(Hit::source)
-                    .filter(doc -> doc != null)
-                    .collect(Collectors.toList());
-
-            long totalHits = response.hits().total() != null ? response.hits().total().value() : 0;
+            List<SearchDocument> documents;
+            long totalHits;
+            if (searchDiagnostics.shouldInspectRawSource()) {
+                // Mode diagnostic : sources brutes inspectées puis converties, toujours en un seul appel
+                SearchResponse<Map> rawResponse = elasticsearchClient.search(searchRequest, Map.class);
+                documents = rawResponse.hits().hits().stream()
+                        .map(Hit::source)
+                        .filter(Objects::nonNull)
+                        .map(this::inspectAndConvert)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+                totalHits = rawResponse.hits().total() != null ? rawResponse.hits().total().value() : 0;
+            } else {
+                SearchResponse<SearchDocument> response = elasticsearchClient.search(searchRequest, SearchDocument.class);
+                documents = response.hits().hits().stream()
+                        .map(Hit::source)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList());
+                totalHits = response.hits().total() != null ? response.hits().total().value() : 0;
+            }
 
             return new PageImpl<>(documents, pageable, totalHits);
 
@@ -301,4 +295,21 @@ public class DocumentRepositoryImpl implements DocumentRepositoryCustom {
             return new PageImpl<>(Collections.emptyList(), pageable, 0);
         }
     }
+
+    /**
+     * Journalise une source brute puis la convertit en SearchDocument (mode diagnostic).
+     */
+    private SearchDocument inspectAndConvert(Map<?, ?> source) {
+        log.debug("Document source : {}", source);
+        log.debug("documentType : {}", source.get("documentType"));
+        log.debug("apiEndpoints : {}", source.get("apiEndpoints"));
+        log.debug("crawlTimestamp : {}", source.get("crawlTimestamp"));
+        log.debug("metadata : {}", source.get("metadata"));
+        try {
+            return objectMapper.convertValue(source, SearchDocument.class);
+        } catch (IllegalArgumentException e) {
+            log.error("Document non désérialisable : {}", source.get("url"), e);
+            return null;
+        }
+    }
 }
\ No newline at end of file
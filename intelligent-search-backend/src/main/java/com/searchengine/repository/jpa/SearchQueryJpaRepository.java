@@ -1,12 +1,25 @@
 package com.searchengine.repository.jpa;
 
 import com.searchengine.model.entity.SearchQuery;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SearchQueryJpaRepository extends JpaRepository<SearchQuery, Long> {
     List<SearchQuery> findByQueryContainingIgnoreCase(String query);
-}
\ No newline at end of file
+
+    /**
+     * Requêtes les plus fréquentes depuis une date, sous la forme [langue, requête, nombre d'occurrences].
+     * Une ligne sans hitCount compte pour une occurrence.
+     */
+    @Query("select q.language, q.query, sum(coalesce(q.hitCount, 1)) from SearchQuery q "
+            + "where q.timestamp >= :since and q.query is not null "
+            + "group by q.language, q.query order by sum(coalesce(q.hitCount, 1)) desc")
+    List<Object[]> findTopQueriesSince(@Param("since") LocalDateTime since, Pageable pageable);
+}
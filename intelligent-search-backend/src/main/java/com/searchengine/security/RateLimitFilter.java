@@ -1,11 +1,19 @@
 package com.searchengine.security;
 
-import com.searchengine.exception.IndexingException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -15,9 +23,29 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
- * Filter for rate limiting requests by IP address.
+ * Filter for rate limiting requests by IP address, with a limit shared by all backend nodes.
+ * <p>
+ * The global limit is a token bucket per IP stored in Redis ({@code rate_limit:bucket:<ip>}), refilled
+ * continuously at the configured rate and updated by a single atomic Lua call. Nodes do not call Redis
+ * for every request:
+ * <ul>
+ *   <li>a local {@link TokenBucket} per IP rejects traffic that exceeds the limit on this node alone,
+ *   without any Redis call;</li>
+ *   <li>allowed requests consume tokens leased from the Redis bucket in small batches: at most
+ *   {@code security.rate.limit.lease-size}, and never more than the node's share of the bucket
+ *   (limit / {@code security.rate.limit.nodes}, at least one token), so one node cannot hold the whole
+ *   bucket while the others are starved;</li>
+ *   <li>a lease not used within {@code security.rate.limit.lease-ttl-ms} expires; its unused tokens are handed
+ *   back to the Redis bucket with the next lease request, up to the bucket capacity;</li>
+ *   <li>when Redis grants nothing, the IP is rejected locally until the next token is due.</li>
+ * </ul>
+ * Leased tokens are taken from the global bucket, so the limit holds across nodes; a node may only spend
+ * them up to lease-ttl-ms after they were granted. If Redis is unavailable, only the local limit applies.
  */
 @Component
 @ConditionalOnProperty(name = "security.enabled", havingValue = "true", matchIfMissing = true)
@@ -25,18 +53,113 @@ public class RateLimitFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
     private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String KEY_PREFIX = "rate_limit:bucket:";
+    // The bucket refills completely in one second: an idle key older than that is the same as a full bucket
+    private static final long BUCKET_TTL_MS = 2000;
+
+    /**
+     * Global token bucket. Puts back the ARGV[5] unused tokens of an expired lease (up to the capacity), then
+     * takes up to ARGV[3] tokens and returns the number granted, or, when the bucket is empty, minus the delay
+     * in milliseconds until the next token. The Redis clock is used so that all nodes agree on the refill;
+     * the key expires once the bucket would be full again.
+     * ARGV: capacity, refill per millisecond, requested tokens, key TTL in milliseconds, returned tokens.
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local refillPerMs = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local returned = tonumber(ARGV[5]) or 0
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(state[1])
+            local ts = tonumber(state[2])
+            if tokens == nil or ts == nil then
+              tokens = capacity
+              ts = now
+            end
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * refillPerMs + returned)
+            local granted = math.min(requested, math.floor(tokens))
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            if granted > 0 then
+              return granted
+            end
+            return -math.max(1, math.ceil((1 - tokens) / refillPerMs))
+            """, Long.class);
+    private static final RedisSerializer<Long> RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
 
     private final RedisTemplate<String, Object> redisTemplate;
     private final int maxRequestsPerSecond;
+    private final int leaseSize;
+    private final long leaseTtlNanos;
+    private final LongSupplier nanoClock;
+    private final Object[] scriptArguments;
+    private final Cache<String, ClientLimit> clients;
+    private final Counter redisCalls;
+    private final Counter localRejections;
+    private final Counter globalRejections;
+
+    /**
+     * Rate limit state of one IP on this node. Guarded by its own monitor.
+     */
+    private static final class ClientLimit {
+        private final TokenBucket localBucket;
+        private int leasedTokens;
+        private long leaseExpiresAt;
+        private long rejectedUntil;
+        private boolean rejecting;
+
+        private ClientLimit(TokenBucket localBucket) {
+            this.localBucket = localBucket;
+        }
+    }
+
+    @Autowired
+    public RateLimitFilter(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry,
+                           @Value("${security.rate.limit.per.second:5}") int maxRequestsPerSecond,
+                           @Value("${security.rate.limit.lease-size:10}") int leaseSize,
+                           @Value("${security.rate.limit.nodes:2}") int nodes,
+                           @Value("${security.rate.limit.lease-ttl-ms:1000}") long leaseTtlMs,
+                           @Value("${security.rate.limit.local.max-clients:100000}") long maxClients) {
+        this(redisTemplate, meterRegistry, maxRequestsPerSecond, leaseSize, nodes, leaseTtlMs, maxClients,
+                System::nanoTime);
+    }
 
-    public RateLimitFilter(RedisTemplate<String, Object> redisTemplate,
-                           @Value("${security.rate.limit.per.second:5}") int maxRequestsPerSecond) {
+    /**
+     * @param nanoClock Monotonic time source in nanoseconds for leases and local buckets (System::nanoTime
+     *                  outside tests)
+     */
+    RateLimitFilter(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry,
+                    int maxRequestsPerSecond, int leaseSize, int nodes, long leaseTtlMs, long maxClients,
+                    LongSupplier nanoClock) {
         this.redisTemplate = redisTemplate;
         this.maxRequestsPerSecond = maxRequestsPerSecond;
+        // A lease is at most this node's share of the bucket, otherwise one node could hold all of it
+        this.leaseSize = Math.max(1, Math.min(leaseSize, maxRequestsPerSecond / Math.max(1, nodes)));
+        this.leaseTtlNanos = TimeUnit.MILLISECONDS.toNanos(leaseTtlMs);
+        this.nanoClock = nanoClock;
+        this.scriptArguments = new Object[]{
+                String.valueOf(maxRequestsPerSecond),
+                String.valueOf(maxRequestsPerSecond / 1000.0),
+                String.valueOf(this.leaseSize),
+                String.valueOf(BUCKET_TTL_MS),
+                "0"};
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .build();
+
+        this.redisCalls = Counter.builder("searchengine.ratelimit.redis.calls")
+                .description("Redis calls made by the rate limiter to lease tokens from the global bucket")
+                .register(meterRegistry);
+        this.localRejections = rejectionCounter(meterRegistry, "local");
+        this.globalRejections = rejectionCounter(meterRegistry, "global");
     }
 
     /**
-     * Applies rate limiting by IP address using Redis.
+     * Applies rate limiting by IP address: local pre-filter, then tokens leased from Redis.
      *
      * @param request HTTP request
      * @param response HTTP response
@@ -49,42 +172,87 @@ public class RateLimitFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String clientIp = getClientIpAddress(request);
-        String key = "rate_limit:" + clientIp;
+        ClientLimit client = clients.get(clientIp,
+                ip -> new ClientLimit(new TokenBucket(maxRequestsPerSecond, maxRequestsPerSecond, nanoClock)));
 
-        try {
-            Long currentCount = redisTemplate.opsForValue().increment(key);
-
-            // Set expiration only on first increment
-            if (currentCount == 1) {
-                redisTemplate.expire(key, Duration.ofSeconds(1));
-            }
+        if (!client.localBucket.tryConsume()) {
+            localRejections.increment();
+            logger.warn("Rate limit exceeded on this node for IP: {}, limit: {}", clientIp, maxRequestsPerSecond);
+            reject(response);
+            return;
+        }
+        if (!acquire(clientIp, client)) {
+            globalRejections.increment();
+            logger.warn("Rate limit exceeded for IP: {}, limit: {}", clientIp, maxRequestsPerSecond);
+            reject(response);
+            return;
+        }
 
-            if (currentCount > maxRequestsPerSecond) {
-                logger.warn("Rate limit exceeded for IP: {}, count: {}, limit: {}",
-                        clientIp, currentCount, maxRequestsPerSecond);
+        logger.debug("Rate limit check passed for IP: {}", clientIp);
+        filterChain.doFilter(request, response);
+    }
 
-                response.setStatus(HTTP_TOO_MANY_REQUESTS);
-                response.setContentType("application/json");
-                response.setCharacterEncoding("UTF-8");
+    /**
+     * Takes one token from the current lease, leasing a new batch from Redis when it is used up or expired.
+     * The unused tokens of an expired lease go back to Redis with that call.
+     * Concurrent requests of the same IP wait for the lease in progress instead of calling Redis in turn.
+     *
+     * @return true if the request is allowed
+     */
+    private boolean acquire(String clientIp, ClientLimit client) {
+        synchronized (client) {
+            long now = nanoClock.getAsLong();
+            if (client.leasedTokens > 0 && now - client.leaseExpiresAt < 0) {
+                client.leasedTokens--;
+                return true;
+            }
+            if (client.rejecting && now - client.rejectedUntil < 0) {
+                return false;
+            }
 
-                String jsonResponse = String.format(
-                        "{\"errorCode\": \"RATE_LIMIT_EXCEEDED\", \"message\": \"Too many requests. Limit: %d requests per second\"}",
-                        maxRequestsPerSecond
-                );
-                response.getWriter().write(jsonResponse);
-                return;
+            Object[] arguments = scriptArguments;
+            if (client.leasedTokens > 0) {
+                arguments = scriptArguments.clone();
+                arguments[4] = String.valueOf(client.leasedTokens);
+                client.leasedTokens = 0;
             }
+            Long result;
+            try {
+                redisCalls.increment();
+                result = redisTemplate.execute(ACQUIRE_SCRIPT, RedisSerializer.string(),
+                        RESULT_SERIALIZER, List.of(KEY_PREFIX + clientIp),
+                        arguments);
+            } catch (Exception e) {
+                // Continue with the request instead of failing it: only the local limit applies while Redis is down
+                logger.error("Rate limit Redis call failed for IP: {}, local limit only", clientIp, e);
+                return true;
+            }
+            if (result == null) {
+                return true;
+            }
+            if (result <= 0) {
+                client.leasedTokens = 0;
+                client.rejecting = true;
+                client.rejectedUntil = now + TimeUnit.MILLISECONDS.toNanos(-result);
+                return false;
+            }
+            client.rejecting = false;
+            client.leasedTokens = (int) (result - 1);
+            client.leaseExpiresAt = now + leaseTtlNanos;
+            return true;
+        }
+    }
 
-            logger.debug("Rate limit check passed for IP: {}, count: {}/{}",
-                    clientIp, currentCount, maxRequestsPerSecond);
-            filterChain.doFilter(request, response);
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HTTP_TOO_MANY_REQUESTS);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
 
-        } catch (Exception e) {
-            logger.error("Rate limit filter error for IP: {}", clientIp, e);
-            // Continue with the request instead of throwing exception to avoid breaking the filter chain
-            logger.warn("Continuing request processing due to rate limit error");
-            filterChain.doFilter(request, response);
-        }
+        String jsonResponse = String.format(
+                "{\"errorCode\": \"RATE_LIMIT_EXCEEDED\", \"message\": \"Too many requests. Limit: %d requests per second\"}",
+                maxRequestsPerSecond
+        );
+        response.getWriter().write(jsonResponse);
     }
 
     /**
@@ -124,4 +292,11 @@ public class RateLimitFilter extends OncePerRequestFilter {
                 path.startsWith("/actuator/info") ||
                 path.startsWith("/favicon.ico");
     }
-}
\ No newline at end of file
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("searchengine.ratelimit.rejected")
+                .description("Requests rejected by the rate limiter, by source (local bucket or global Redis bucket)")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.searchengine.security;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Local token bucket: up to {@code capacity} tokens, refilled continuously at {@code refillPerSecond}.
+ * Instances are thread-safe.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock Monotonic time source in nanoseconds (System::nanoTime outside tests)
+     */
+    TokenBucket(double capacity, double refillPerSecond, LongSupplier nanoClock) {
+        this.capacity = Math.max(1, capacity);
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.nanoClock = nanoClock;
+        this.tokens = this.capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return true if the call is allowed
+     */
+    public synchronized boolean tryConsume() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
@@ -1,77 +1,185 @@
 package com.searchengine.service;
 
-import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.CompletionContext;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import com.searchengine.component.autocomplete.AutocompleteIndex;
+import com.searchengine.component.autocomplete.PopularQueryTracker;
+import com.searchengine.component.autocomplete.PrefixResultCache;
+import com.searchengine.component.indexing.SuggestionIndexer;
+import com.searchengine.component.search.SingleFlight;
 import com.searchengine.exception.SearchException;
 import com.searchengine.model.dto.response.AutocompleteResponse;
-import com.searchengine.model.entity.SearchDocument;
+import com.searchengine.model.entity.AutocompleteSuggestion;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
-import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Slf4j
 public class AutocompleteService {
 
-    private final ElasticsearchClient elasticsearchClient;
+    private static final String SUGGESTER_NAME = "autocomplete";
+
+    private final ElasticsearchAsyncClient elasticsearchClient;
+    private final AutocompleteIndex autocompleteIndex;
+    private final PopularQueryTracker popularQueryTracker;
+    private final PrefixResultCache prefixResultCache;
+    private final SingleFlight<String, AutocompleteResponse> autocompleteFlight;
+
+    @Value("${app.autocomplete.suggester.fallback-enabled:true}")
+    private boolean fallbackEnabled;
 
     @Autowired
-    public AutocompleteService(ElasticsearchClient elasticsearchClient) {
+    public AutocompleteService(ElasticsearchAsyncClient elasticsearchClient, AutocompleteIndex autocompleteIndex,
+                               PopularQueryTracker popularQueryTracker, PrefixResultCache prefixResultCache,
+                               MeterRegistry meterRegistry) {
         this.elasticsearchClient = elasticsearchClient;
+        this.autocompleteIndex = autocompleteIndex;
+        this.popularQueryTracker = popularQueryTracker;
+        this.prefixResultCache = prefixResultCache;
+        this.autocompleteFlight = new SingleFlight<>("autocomplete", meterRegistry);
     }
 
     public AutocompleteResponse getAutocompleteSuggestions(String prefix, String language, int maxSuggestions) {
+        try {
+            return getAutocompleteSuggestionsAsync(prefix, language, maxSuggestions).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof SearchException searchException ? searchException : e;
+        }
+    }
+
+    /**
+     * Calcule les suggestions de façon asynchrone. Annuler le future retourné retire l'appelant
+     * du calcul partagé ; les requêtes Elasticsearch en cours sont interrompues quand plus aucun
+     * appelant ne les attend.
+     *
+     * @param prefix Préfixe saisi
+     * @param language Langue (optionnelle)
+     * @param maxSuggestions Nombre maximal de suggestions
+     * @return Future de la réponse, annulable
+     */
+    public CompletableFuture<AutocompleteResponse> getAutocompleteSuggestionsAsync(String prefix, String language, int maxSuggestions) {
         if (!StringUtils.hasText(prefix)) {
             log.warn("Préfixe vide fourni pour l'autocomplétion");
-            return AutocompleteResponse.builder().suggestions(List.of()).build();
+            return CompletableFuture.completedFuture(AutocompleteResponse.builder().suggestions(List.of()).build());
         }
 
+        // Les frappes identiques concurrentes (préfixe populaire) partagent un seul calcul
+        String flightKey = prefix.trim().toLowerCase() + '|' + (language != null ? language.toLowerCase() : "*") + '|' + maxSuggestions;
+        return autocompleteFlight.execute(flightKey, () -> computeSuggestions(prefix, language, maxSuggestions));
+    }
+
+    private CompletableFuture<AutocompleteResponse> computeSuggestions(String prefix, String language, int maxSuggestions) {
+        CompletableFuture<AutocompleteResponse> result = new CompletableFuture<>();
+        PendingCalls calls = new PendingCalls(result);
         try {
             // Extraire le dernier mot partiel pour la recherche
             String trimmedPrefix = prefix.trim();
             String searchPrefix = extractLastWord(trimmedPrefix);
             log.debug("Préfixe de recherche extrait : {}", searchPrefix);
 
-            // Restaurer la logique originale avec deux requêtes
-            List<String> suggestions = searchElasticsearch(searchPrefix, maxSuggestions);
-            List<SearchDocument> docs = fetchDocumentsFromElasticsearch(searchPrefix, maxSuggestions, language);
+            // Chemin principal : requêtes populaires et titres depuis les tries en mémoire, sans aller-retour réseau.
+            // Sinon une seule requête par frappe, servie par le FST du completion suggester
+            List<String> popular = popularQueryTracker.complete(trimmedPrefix, language, maxSuggestions);
+            List<String> titles = autocompleteIndex.complete(trimmedPrefix, language, maxSuggestions);
+            CompletableFuture<List<String>> titlesFuture = titles.isEmpty() && popular.size() < maxSuggestions
+                    // Un préfixe plus long est servi en filtrant le résultat en cache d'un préfixe plus court
+                    ? prefixResultCache.get(trimmedPrefix, language, maxSuggestions,
+                            (p, size) -> suggestFromIndex(p, language, size, calls))
+                    : CompletableFuture.completedFuture(titles);
 
-            log.debug("Suggestions from Elasticsearch (titles): {}", suggestions);
-            log.debug("Fetched documents for completion: {} documents", docs.size());
+            titlesFuture.thenCompose(found -> {
+                        List<String> suggestions = mergeSuggestions(popular, found, maxSuggestions);
+                        log.debug("Suggestions populaires : {}, titres : {}", popular, found);
+                        if (suggestions.isEmpty() && fallbackEnabled) {
+                            // Index de suggestions vide (pas encore alimenté) : repli sur les titres des documents
+                            return searchTitles(searchPrefix, maxSuggestions, calls);
+                        }
+                        return CompletableFuture.completedFuture(suggestions);
+                    })
+                    .thenApply(suggestions -> toResponse(suggestions, trimmedPrefix, searchPrefix, maxSuggestions))
+                    .whenComplete((response, error) -> {
+                        if (error == null) {
+                            result.complete(response);
+                        } else {
+                            result.completeExceptionally(failure(prefix, error));
+                        }
+                    });
+        } catch (Exception e) {
+            result.completeExceptionally(failure(prefix, e));
+        }
+        return result;
+    }
 
-            // Chercher une complétion dans les titres des suggestions
-            for (String title : suggestions) {
-                // Essayer d'abord une complétion pour le mot actuel
-                String extension = findCompletionInText(title, searchPrefix);
-                if (extension != null) {
-                    log.debug("Found completion in title: {}", extension);
-                    return buildResponse(suggestions, extension, true, maxSuggestions);
-                }
-                // Si aucune complétion n'est trouvée et le préfixe est vide (mot complet avec espace),
-                // chercher le mot suivant
-                if (!StringUtils.hasText(searchPrefix)) {
-                    String nextWord = findNextWordInText(title, trimmedPrefix);
-                    if (nextWord != null) {
-                        log.debug("Found next word in title: {}", nextWord);
-                        return buildResponse(suggestions, nextWord, false, maxSuggestions);
-                    }
+    private AutocompleteResponse toResponse(List<String> suggestions, String trimmedPrefix, String searchPrefix, int maxSuggestions) {
+        // Chercher une complétion dans les titres des suggestions
+        for (String title : suggestions) {
+            // Essayer d'abord une complétion pour le mot actuel
+            String extension = findCompletionInText(title, searchPrefix);
+            if (extension != null) {
+                log.debug("Found completion in title: {}", extension);
+                return buildResponse(suggestions, extension, true, maxSuggestions);
+            }
+            // Si aucune complétion n'est trouvée et le préfixe est vide (mot complet avec espace),
+            // chercher le mot suivant
+            if (!StringUtils.hasText(searchPrefix)) {
+                String nextWord = findNextWordInText(title, trimmedPrefix);
+                if (nextWord != null) {
+                    log.debug("Found next word in title: {}", nextWord);
+                    return buildResponse(suggestions, nextWord, false, maxSuggestions);
                 }
             }
+        }
 
-            // Si aucune complétion n'est trouvée, retourner sans complétion
-            log.debug("No completion found for prefix: {}", searchPrefix);
-            return buildResponse(suggestions, null, false, maxSuggestions);
+        // Si aucune complétion n'est trouvée, retourner sans complétion
+        log.debug("No completion found for prefix: {}", searchPrefix);
+        return buildResponse(suggestions, null, false, maxSuggestions);
+    }
 
-        } catch (Exception e) {
-            log.error("Erreur lors de l'autocomplétion pour le préfixe '{}'", prefix, e);
-            throw new SearchException("Échec de l'opération d'autocomplétion", e);
+    private Throwable failure(String prefix, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException || cause instanceof SearchException) {
+            return cause;
         }
+        log.error("Erreur lors de l'autocomplétion pour le préfixe '{}'", prefix, cause);
+        return new SearchException("Échec de l'opération d'autocomplétion", cause);
+    }
+
+    /**
+     * Fusionne requêtes populaires et titres : la moitié des places au plus revient aux requêtes
+     * populaires, les places libres sont complétées par l'autre source.
+     */
+    private List<String> mergeSuggestions(List<String> popular, List<String> titles, int maxSuggestions) {
+        if (popular.isEmpty()) {
+            return titles;
+        }
+        int popularSlots = Math.max(1, Math.max(maxSuggestions / 2, maxSuggestions - titles.size()));
+        LinkedHashSet<String> merged = new LinkedHashSet<>(popular.subList(0, Math.min(popularSlots, popular.size())));
+        for (String title : titles) {
+            if (merged.size() >= maxSuggestions) {
+                break;
+            }
+            merged.add(title);
+        }
+        for (String query : popular) {
+            if (merged.size() >= maxSuggestions) {
+                break;
+            }
+            merged.add(query);
+        }
+        return new ArrayList<>(merged);
     }
 
     private AutocompleteResponse buildResponse(List<String> suggestions, String completion, boolean isExtension, int maxSuggestions) {
@@ -82,21 +190,49 @@ public class AutocompleteService {
                 .build();
     }
 
-    private List<String> searchElasticsearch(String prefix, int size) throws IOException {
+    /**
+     * Interroge le completion suggester de l'index « autocomplete », filtré par langue si elle est fournie.
+     */
+    private CompletableFuture<List<String>> suggestFromIndex(String prefix, String language, int size, PendingCalls calls) {
+        SearchRequest request = SearchRequest.of(s -> s
+                .index(SuggestionIndexer.INDEX)
+                .suggest(sg -> sg.suggesters(SUGGESTER_NAME, fs -> fs
+                        .prefix(prefix)
+                        .completion(c -> {
+                            c.field("suggestion").size(size).skipDuplicates(true);
+                            if (StringUtils.hasText(language)) {
+                                c.contexts(SuggestionIndexer.LANGUAGE_CONTEXT, List.of(CompletionContext.of(cc -> cc
+                                        .context(ctx -> ctx.category(language.toLowerCase())))));
+                            }
+                            return c;
+                        })))
+                .source(src -> src.filter(f -> f.includes("text")))
+        );
+
+        return calls.track(elasticsearchClient.search(request, AutocompleteSuggestion.class)).thenApply(response -> {
+            List<Suggestion<AutocompleteSuggestion>> results = response.suggest().getOrDefault(SUGGESTER_NAME, List.of());
+
+            List<String> suggestions = new ArrayList<>();
+            for (Suggestion<AutocompleteSuggestion> result : results) {
+                if (!result.isCompletion()) {
+                    continue;
+                }
+                result.completion().options().forEach(option -> suggestions.add(
+                        option.source() != null && option.source().getText() != null ? option.source().getText() : option.text()));
+            }
+            return suggestions;
+        });
+    }
+
+    private CompletableFuture<List<String>> searchTitles(String prefix, int size, PendingCalls calls) {
         SearchRequest request = SearchRequest.of(s -> s
                 .index("documents")
                 .size(size)
-                .query(q -> q.bool(b -> b
-                        .should(s1 -> s1.matchPhrasePrefix(mp -> mp.field("title").query(prefix)))
-                        .should(s2 -> s2.matchPhrasePrefix(mp -> mp.field("content").query(prefix)))
-                        .minimumShouldMatch("1")
-                ))
+                .query(q -> q.matchPhrasePrefix(mp -> mp.field("title").query(prefix)))
                 .source(src -> src.filter(f -> f.includes("title")))
         );
 
-        SearchResponse<Map> response = elasticsearchClient.search(request, Map.class);
-
-        return response.hits().hits().stream()
+        return calls.track(elasticsearchClient.search(request, Map.class)).thenApply(response -> response.hits().hits().stream()
                 .map(hit -> {
                     Map<String, Object> source = hit.source();
                     return source != null && source.containsKey("title")
@@ -104,43 +240,33 @@ public class AutocompleteService {
                             : null;
                 })
                 .filter(Objects::nonNull)
-                .toList();
+                .toList());
     }
 
-    private List<SearchDocument> fetchDocumentsFromElasticsearch(String prefix, int size, String language) throws IOException {
-        // Vérifier si la langue est fournie, sinon utiliser une valeur par défaut
-        if (!StringUtils.hasText(language)) {
-            log.warn("Langue non fournie, utilisation de la langue par défaut 'fr'");
-            language = "fr";
-        }
+    /**
+     * Requêtes Elasticsearch lancées pour un calcul de suggestions : elles sont annulées
+     * (requête HTTP interrompue) si le calcul est annulé.
+     */
+    private static final class PendingCalls {
 
-        String finalLanguage = language;
-        SearchRequest request = SearchRequest.of(s -> s
-                .index("documents")
-                .size(size)
-                .query(q -> q.bool(b -> b
-                        .must(m -> m.term(t -> t.field("metadata.language").value(finalLanguage)))
-                        .should(s1 -> s1.matchPhrasePrefix(mp -> mp.field("title").query(prefix)))
-                        .should(s2 -> s2.matchPhrasePrefix(mp -> mp.field("content").query(prefix)))
-                        .minimumShouldMatch("1")
-                ))
-                .source(src -> src.filter(f -> f.includes("title", "content", "metadata", "documentType", "apiEndpoints", "url", "description", "isDynamic", "crawlTimestamp", "httpStatus", "contentHash", "links", "mediaUrls")))
-        );
+        private final CompletableFuture<?> owner;
+        private final Set<CompletableFuture<?>> calls = ConcurrentHashMap.newKeySet();
 
-        try {
-            SearchResponse<Map> rawResponse = elasticsearchClient.search(request, Map.class);
-            log.debug("Réponse brute Elasticsearch : {}", rawResponse.hits().hits());
-
-            SearchResponse<SearchDocument> response = elasticsearchClient.search(request, SearchDocument.class);
-            log.debug("Réponse Elasticsearch désérialisée : {}", response.hits().hits());
-            return response.hits().hits().stream()
-                    .map(hit -> hit.source())
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            log.error("Échec de la désérialisation de la réponse Elasticsearch pour le préfixe '{}' et langue '{}'. Détails : {}",
-                    prefix, language, e.getMessage());
-            throw new IOException("Erreur lors de la récupération des documents", e);
+        private PendingCalls(CompletableFuture<?> owner) {
+            this.owner = owner;
+            owner.whenComplete((value, error) -> {
+                if (owner.isCancelled()) {
+                    calls.forEach(call -> call.cancel(true));
+                }
+            });
+        }
+
+        private <T> CompletableFuture<T> track(CompletableFuture<T> call) {
+            calls.add(call);
+            if (owner.isCancelled()) {
+                call.cancel(true);
+            }
+            return call;
         }
     }
 
@@ -1,5 +1,6 @@
 package com.searchengine.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.searchengine.utils.CacheUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,13 +19,15 @@ public class CacheService {
 
     private static final Logger logger = LoggerFactory.getLogger(CacheService.class);
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
 
     @Value("${app.cache.ttl-seconds:3600}")
     private long defaultTtlSeconds;
 
     @Autowired
-    public CacheService(RedisTemplate<String, Object> redisTemplate) {
+    public CacheService(RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper) {
         this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -34,10 +37,21 @@ public class CacheService {
      * @param result The search result
      */
     public void cacheSearchResult(String query, Object result) {
+        cacheSearchResult(query, result, defaultTtlSeconds);
+    }
+
+    /**
+     * Caches a search result for a given query with an explicit TTL.
+     *
+     * @param query The search query (or composite cache key)
+     * @param result The search result
+     * @param ttlSeconds Time to live in seconds
+     */
+    public void cacheSearchResult(String query, Object result, long ttlSeconds) {
         logger.debug("Caching search result for query: {}", query);
         try {
             String cacheKey = "search:" + query;
-            CacheUtils.cacheObject(redisTemplate, cacheKey, result, defaultTtlSeconds);
+            CacheUtils.cacheObject(redisTemplate, cacheKey, result, ttlSeconds);
             logger.debug("Search result cached for query: {}", query);
         } catch (Exception e) {
             logger.error("Failed to cache search result for query: {}", query, e);
@@ -63,4 +77,25 @@ public class CacheService {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves a cached search result and converts it to the expected type.
+     * The Redis serializer is untyped, so values come back as maps and must be converted.
+     *
+     * @param query The search query (or composite cache key)
+     * @param type Expected result type
+     * @return Cached result or null if not found
+     */
+    public <T> T getCachedSearchResult(String query, Class<T> type) {
+        Object cached = getCachedSearchResult(query);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return objectMapper.convertValue(cached, type);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cached search result for query: {} cannot be converted to {}", query, type.getSimpleName(), e);
+            return null;
+        }
+    }
+}
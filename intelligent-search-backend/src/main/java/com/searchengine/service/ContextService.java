@@ -40,4 +40,46 @@ public class ContextService {
             throw new RuntimeException("Failed to build search context for session: " + sessionId, e);
         }
     }
+
+    /**
+     * Builds a context from the request data only, without any session lookup.
+     * It is cheap enough to compute on the request thread and serves as the default
+     * context when the session-backed context is not available in time.
+     *
+     * @param ipAddress The client IP address
+     * @param userAgent The user agent string
+     * @return SearchContext without session ID
+     */
+    public SearchContext buildRequestContext(String ipAddress, String userAgent) {
+        return contextAnalyzer.analyzeContext(null, ipAddress, userAgent);
+    }
+
+    /**
+     * Reduces a search context to a coarse bucket used in cache keys.
+     * Only the attributes that influence scoring are kept, and coordinates are
+     * rounded to the degree so that nearby users share cached results.
+     *
+     * @param context The search context (may be null)
+     * @return Bucket identifier, never null
+     */
+    public String contextBucket(SearchContext context) {
+        if (context == null) {
+            return "none";
+        }
+        StringBuilder bucket = new StringBuilder(32);
+        SearchContext.GeoLocation geo = context.getGeoLocation();
+        if (geo != null) {
+            bucket.append(geo.getCountry() != null ? geo.getCountry() : "-").append(':')
+                    .append(geo.getLatitude() != null ? Math.round(geo.getLatitude()) : "-").append(':')
+                    .append(geo.getLongitude() != null ? Math.round(geo.getLongitude()) : "-");
+        } else {
+            bucket.append("nogeo");
+        }
+        SearchContext.UserProfile profile = context.getUserProfile();
+        if (profile != null) {
+            bucket.append(':').append(profile.getDeviceType())
+                    .append(':').append(profile.getPreferredLanguage());
+        }
+        return bucket.toString();
+    }
 }
\ No newline at end of file
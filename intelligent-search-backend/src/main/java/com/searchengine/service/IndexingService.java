@@ -1,21 +1,30 @@
 package com.searchengine.service;
 
 import com.searchengine.component.indexing.DocumentProcessor;
+import com.searchengine.component.indexing.SuggestionIndexer;
+import com.searchengine.component.search.SpellingCorrector;
 import com.searchengine.model.dto.request.IndexRequest;
+import com.searchengine.model.entity.RankSignals;
 import com.searchengine.model.entity.SearchDocument;
 import com.searchengine.repository.elasticsearch.DocumentRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.IndexedObjectInformation;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
 import org.springframework.data.elasticsearch.core.query.IndexQuery;
 import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -25,20 +34,27 @@ import java.util.stream.Collectors;
 public class IndexingService {
 
     private static final Logger logger = LoggerFactory.getLogger(IndexingService.class);
+    private static final String[] LINK_SIGNAL_FIELDS = {"signals.pageRank", "signals.domainRank", "signals.inboundLinks"};
     private final DocumentRepository documentRepository;
     private final DocumentProcessor documentProcessor;
     private final ElasticsearchOperations elasticsearchOperations;
+    private final SuggestionIndexer suggestionIndexer;
+    private final SpellingCorrector spellingCorrector;
     private final int batchSize;
     private final int subBatchSize;
 
     public IndexingService(DocumentRepository documentRepository,
                            DocumentProcessor documentProcessor,
                            ElasticsearchOperations elasticsearchOperations,
+                           SuggestionIndexer suggestionIndexer,
+                           SpellingCorrector spellingCorrector,
                            @Value("${app.indexing.batch-size:100}") int batchSize,
                            @Value("${app.indexing.sub-batch-size:20}") int subBatchSize) {
         this.documentRepository = documentRepository;
         this.documentProcessor = documentProcessor;
         this.elasticsearchOperations = elasticsearchOperations;
+        this.suggestionIndexer = suggestionIndexer;
+        this.spellingCorrector = spellingCorrector;
         this.batchSize = batchSize;
         this.subBatchSize = Math.max(1, subBatchSize); // Éviter les valeurs <= 0
     }
@@ -63,6 +79,9 @@ public class IndexingService {
             throw new IllegalArgumentException("Batch size exceeds limit: " + batchSize);
         }
 
+        // L'indexation remplace tout le _source : on reprend les signaux du graphe des liens déjà calculés
+        carryOverLinkSignals(searchDocuments);
+
         // Traitement et validation des documents
         List<SearchDocument> validSearchDocuments = new ArrayList<>();
         List<String> processingErrors = new ArrayList<>();
@@ -107,6 +126,12 @@ public class IndexingService {
                     // Aucun moyen de savoir si un document a échoué individuellement, donc on considère tout comme indexé
                     indexedCount += bulkResponse.size();
 
+                    // Mise à jour de l'index de suggestions de l'autocomplétion
+                    suggestionIndexer.index(subBatch);
+
+                    // Enrichissement du dictionnaire de correction orthographique
+                    spellingCorrector.learn(subBatch);
+
                 } catch (Exception e) {
                     logger.error("Erreur pendant l'indexation d'un sous-lot (taille = {}): {}", subBatch.size(), e.getMessage(), e);
                     // En cas d'erreur globale du sous-lot, on log les documents
@@ -128,4 +153,54 @@ public class IndexingService {
             throw new RuntimeException("Indexing failed for batchId: " + indexRequest.getBatchId(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reprend les signaux du graphe des liens (PageRank, rang du domaine, liens entrants) des versions
+     * déjà indexées des documents. Ils ne sont recalculés que par le calcul du PageRank ; sans cette
+     * reprise, une réindexation les effacerait et la popularité perdrait le nombre de liens entrants.
+     *
+     * @param documents Documents reçus du crawler
+     */
+    private void carryOverLinkSignals(List<SearchDocument> documents) {
+        List<String> ids = documents.stream()
+                .map(SearchDocument::getUrl)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Map<String, RankSignals> stored = new HashMap<>();
+        try {
+            NativeQuery query = NativeQuery.builder()
+                    .withIds(ids)
+                    .withSourceFilter(new FetchSourceFilterBuilder().withIncludes(LINK_SIGNAL_FIELDS).build())
+                    .build();
+            for (MultiGetItem<SearchDocument> item : elasticsearchOperations.multiGet(
+                    query, SearchDocument.class, IndexCoordinates.of("documents"))) {
+                if (item.hasItem() && item.getItem().getSignals() != null) {
+                    stored.put(item.getItem().getUrl(), item.getItem().getSignals());
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Lecture des signaux du graphe des liens impossible, ils seront absents jusqu'au prochain PageRank : {}",
+                    e.getMessage());
+            return;
+        }
+
+        for (SearchDocument doc : documents) {
+            RankSignals previous = stored.get(doc.getUrl());
+            if (previous == null) {
+                // Signaux calculés par le serveur uniquement : on ignore ceux qu'enverrait le crawler
+                doc.setSignals(null);
+                continue;
+            }
+            RankSignals carried = new RankSignals();
+            carried.setPageRank(previous.getPageRank());
+            carried.setDomainRank(previous.getDomainRank());
+            carried.setInboundLinks(previous.getInboundLinks());
+            doc.setSignals(carried);
+        }
+    }
+}
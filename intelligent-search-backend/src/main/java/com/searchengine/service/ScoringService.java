@@ -1,15 +1,15 @@
 package com.searchengine.service;
 
+import com.searchengine.component.ranking.RankingWeights;
 import com.searchengine.component.scoring.ScoreCalculator;
 import com.searchengine.model.dto.response.DocumentResponse;
 import com.searchengine.model.entity.SearchContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service pour calculer et appliquer des scores aux résultats de recherche.
@@ -19,21 +19,11 @@ public class ScoringService {
 
     private static final Logger logger = LoggerFactory.getLogger(ScoringService.class);
     private final ScoreCalculator scoreCalculator;
+    private final RankingWeights rankingWeights;
 
-    @Value("${app.scoring.weight.popularity:0.4}")
-    private double popularityWeight;
-
-    @Value("${app.scoring.weight.freshness:0.3}")
-    private double freshnessWeight;
-
-    @Value("${app.scoring.weight.relevance:0.3}")
-    private double relevanceWeight;
-
-    @Value("${app.scoring.weight.location:0.0}")
-    private double locationWeight;
-
-    public ScoringService(ScoreCalculator scoreCalculator) {
+    public ScoringService(ScoreCalculator scoreCalculator, RankingWeights rankingWeights) {
         this.scoreCalculator = scoreCalculator;
+        this.rankingWeights = rankingWeights;
     }
 
     /**
@@ -47,15 +37,18 @@ public class ScoringService {
     public List<DocumentResponse> applyScoring(List<DocumentResponse> documents, String query, SearchContext context) {
         logger.info("Application du scoring à {} documents pour la requête : {}", documents.size(), query);
         try {
-            return documents.stream()
-                    .peek(document -> {
-                        double score = scoreCalculator.calculateScore(
-                                document, context, popularityWeight, freshnessWeight,  locationWeight);
-                        document.setScore(score);
-                        logger.debug("Score calculé {} pour le document : {}", score, document.getUrl());
-                    })
-                    .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
-                    .collect(Collectors.toList());
+            // Scoring en lot : tous les documents sont gardés, déjà triés par score décroissant
+            ScoreCalculator.RankedBatch ranked = scoreCalculator.scoreBatch(scoreCalculator.toBatch(documents),
+                    context, rankingWeights.getPopularity(), rankingWeights.getFreshness(), rankingWeights.getLocation(),
+                    documents.size());
+            List<DocumentResponse> scored = new ArrayList<>(documents.size());
+            for (int i = 0; i < ranked.indices().length; i++) {
+                DocumentResponse document = documents.get(ranked.indices()[i]);
+                document.setScore(ranked.scores()[i]);
+                logger.debug("Score calculé {} pour le document : {}", ranked.scores()[i], document.getUrl());
+                scored.add(document);
+            }
+            return scored;
         } catch (Exception e) {
             logger.error("Échec de l'application du scoring pour la requête : {}", query, e);
             throw new RuntimeException("Échec du scoring pour la requête : " + query, e);
@@ -1,158 +1,191 @@
 package com.searchengine.service;
 
-import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.ElasticsearchAsyncClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.MsearchRequest;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.OpenPointInTimeResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
+import co.elastic.clients.elasticsearch.core.search.SourceConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.searchengine.component.autocomplete.PopularQueryTracker;
+import com.searchengine.component.cache.SearchResultCache;
 import com.searchengine.component.context.SessionTracker;
+import com.searchengine.component.ranking.RankingCandidates;
+import com.searchengine.component.ranking.RankingPipeline;
+import com.searchengine.component.ranking.RankingWeights;
+import com.searchengine.component.scoring.RankingQueryBuilder;
 import com.searchengine.component.scoring.ScoreCalculator;
+import com.searchengine.component.search.FacetAggregations;
+import com.searchengine.component.search.ResponseProjection;
+import com.searchengine.component.search.SearchCursorCodec;
+import com.searchengine.component.search.SingleFlight;
+import com.searchengine.component.search.SpellingCorrector;
 import com.searchengine.exception.SearchException;
+import com.searchengine.model.dto.request.BatchSearchRequest;
 import com.searchengine.model.dto.request.SearchRequestDto;
+import com.searchengine.model.dto.response.BatchSearchResponse;
 import com.searchengine.model.dto.response.SearchResponseDto;
 import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.dto.response.SearchFacets;
 import com.searchengine.model.entity.SearchContext;
-import com.searchengine.model.entity.SearchDocument;
-import com.searchengine.utils.SearchUtils;
+import com.searchengine.model.enums.SearchStreamFormat;
+import com.searchengine.utils.QueryNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @Slf4j
 public class SearchService {
 
-    private final ElasticsearchClient elasticsearchClient;
+    private static final String RANKING_MODE_SERVER = "server";
+
+    // Tri total : le score puis l'URL (identifiant du document) pour départager les égalités
+    private static final List<SortOptions> PAGE_SORT = List.of(
+            SortOptions.of(so -> so.score(sc -> sc.order(SortOrder.Desc))),
+            SortOptions.of(so -> so.field(f -> f.field("url").order(SortOrder.Asc))));
+
+    private static final byte[] SSE_RECORD_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+
+    private final ElasticsearchAsyncClient elasticsearchClient;
     private final ScoreCalculator scoreCalculator;
     private final ContextService contextService;
     private final SessionTracker sessionTracker;
+    private final SearchResultCache searchResultCache;
+    private final RankingQueryBuilder rankingQueryBuilder;
+    private final RankingPipeline rankingPipeline;
+    private final RankingWeights rankingWeights;
+    private final SearchCursorCodec searchCursorCodec;
+    private final FacetAggregations facetAggregations;
+    private final PopularQueryTracker popularQueryTracker;
+    private final SpellingCorrector spellingCorrector;
+    private final Executor searchExecutor;
+    private final SingleFlight<String, SearchResponse<DocumentResponse>> searchFlight;
+    private final ObjectMapper objectMapper;
 
-    @Value("${app.scoring.weight.popularity:0.4}")
-    private double popularityWeight;
+    @Value("${app.search.fuzziness:AUTO}")
+    private String fuzzinessLevel; // Nouvelle propriété pour configurer la fuzziness
 
-    @Value("${app.scoring.weight.freshness:0.3}")
-    private double freshnessWeight;
+    @Value("${app.search.ranking.mode:client}")
+    private String rankingMode; // "client" : re-scoring Java de la page, "server" : function_score Elasticsearch
 
-    @Value("${app.scoring.weight.relevance:0.3}")
-    private double relevanceWeight;
+    @Value("${app.search.pit.keep-alive:2m}")
+    private String pitKeepAlive; // Durée de vie du point-in-time entre deux pages
 
-    @Value("${app.scoring.weight.location:0.0}")
-    private double locationWeight;
+    @Value("${app.search.stage.context-timeout-ms:150}")
+    private long contextTimeoutMs; // Au-delà, le contexte par défaut (sans session) est utilisé
 
-    @Value("${app.scoring.weight.languageBoost:1.2}")
-    private double languageBoost;
+    @Value("${app.search.stage.search-timeout-ms:5000}")
+    private long searchTimeoutMs;
 
-    @Value("${app.search.fuzziness:AUTO}")
-    private String fuzzinessLevel; // Nouvelle propriété pour configurer la fuzziness
+    @Value("${app.search.stream.window-size:200}")
+    private int streamWindowSize; // Nombre de résultats lus et scorés à la fois en mode flux
+
+    @Value("${app.search.stream.max-results:10000}")
+    private int streamMaxResults;
 
     @Autowired
-    public SearchService(ElasticsearchClient elasticsearchClient, ScoreCalculator scoreCalculator,
-                         ContextService contextService, SessionTracker sessionTracker) {
+    public SearchService(ElasticsearchAsyncClient elasticsearchClient, ScoreCalculator scoreCalculator,
+                         ContextService contextService, SessionTracker sessionTracker,
+                         SearchResultCache searchResultCache, RankingQueryBuilder rankingQueryBuilder,
+                         RankingPipeline rankingPipeline, RankingWeights rankingWeights,
+                         SearchCursorCodec searchCursorCodec, FacetAggregations facetAggregations,
+                         PopularQueryTracker popularQueryTracker, SpellingCorrector spellingCorrector,
+                         @Qualifier("searchExecutor") Executor searchExecutor, MeterRegistry meterRegistry,
+                         ObjectMapper objectMapper) {
         this.elasticsearchClient = elasticsearchClient;
         this.scoreCalculator = scoreCalculator;
         this.contextService = contextService;
         this.sessionTracker = sessionTracker;
+        this.searchResultCache = searchResultCache;
+        this.rankingQueryBuilder = rankingQueryBuilder;
+        this.rankingPipeline = rankingPipeline;
+        this.rankingWeights = rankingWeights;
+        this.searchCursorCodec = searchCursorCodec;
+        this.facetAggregations = facetAggregations;
+        this.popularQueryTracker = popularQueryTracker;
+        this.spellingCorrector = spellingCorrector;
+        this.searchExecutor = searchExecutor;
+        this.searchFlight = new SingleFlight<>("search", meterRegistry);
+        this.objectMapper = objectMapper;
     }
 
     public SearchResponseDto search(SearchRequestDto request, String ipAddress, String userAgent) {
         log.info("Traitement de la requête de recherche : {}", request.getQuery());
         try {
-            String sessionId = sessionTracker.getOrCreateSessionId(ipAddress);
-            SearchContext context = contextService.buildContext(sessionId, ipAddress, userAgent);
-
-            String cleanedQuery = SearchUtils.cleanQuery(request.getQuery()).trim();
-
-            if (!StringUtils.hasText(cleanedQuery) || cleanedQuery.contains("*") || cleanedQuery.contains("\"")) {
-                throw new SearchException("Requête invalide ou dangereuse");
-            }
-
-            // Construction de la requête Elasticsearch
-            SearchRequest esRequest = SearchRequest.of(s -> s
-                    .index("documents")
-                    .size(request.getSize())
-                    .query(q -> q.bool(b -> {
-                        // Remplacement de queryString par match avec fuzziness
-                        b.must(m -> m.match(mq -> mq
-                                .field("content")
-                                .query(cleanedQuery)
-                                .fuzziness(fuzzinessLevel) // Ajout de la fuzziness
-                                .prefixLength(1) // Protège les premiers caractères pour performances
-                                .maxExpansions(50) // Limite l'expansion pour éviter surcharge
-                        ));
-
-                        // Filtre par type de document uniquement si spécifié
-                        if (request.getDocumentType() != null && request.getDocumentType().getValue() != null) {
-                            b.filter(f -> f.term(t -> t.field("documentType").value(request.getDocumentType().getValue())));
-                        }
+            // Contexte minimal (IP, user-agent) calculé localement : il suffit pour le cache et la requête Elasticsearch.
+            // La session (Redis) et le contexte complet sont résolus en parallèle et ne sont attendus qu'avant le scoring.
+            SearchContext requestContext = contextService.buildRequestContext(ipAddress, userAgent);
+            PreparedSearch prepared = prepare(request, requestContext, true);
+            CompletableFuture<SearchContext> contextFuture = resolveContext(ipAddress, userAgent, requestContext);
 
-                        // Filtre par langue si spécifié
-                        if (StringUtils.hasText(request.getLanguage())) {
-                            b.filter(f -> f.term(t -> t.field("metadata.language").value(request.getLanguage())));
-                        }
-                        return b;
-                    }))
-                    .source(src -> src.filter(f -> f.includes("title", "url", "description", "documentType",
-                            "crawlTimestamp", "links", "mediaUrls", "metadata")))
-            );
-
-            // Exécution de la requête
-            SearchResponse<SearchDocument> esResponse = elasticsearchClient.search(esRequest, SearchDocument.class);
-            List<SearchDocument> searchDocuments = esResponse.hits().hits().stream()
-                    .map(hit -> hit.source())
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            // Conversion en DocumentResponse
-            List<DocumentResponse> results = searchDocuments.stream().map(doc -> {
-                DocumentResponse resp = new DocumentResponse();
-                resp.setUrl(doc.getUrl());
-                resp.setTitle(doc.getTitle());
-                resp.setDescription(doc.getDescription());
-                resp.setDocumentType(doc.getDocumentType());
-                resp.setCrawlTimestamp(doc.getCrawlTimestamp());
-                resp.setLinks(doc.getLinks());
-                resp.setMediaUrls(doc.getMediaUrls());
-                resp.setMetadata(doc.getMetadata());
-                return resp;
-            }).collect(Collectors.toList());
-
-            // Calcul des scores
-            for (DocumentResponse doc : results) {
-                double relevanceScore = 1.0;
-                double languageBoostValue = 1.0;
-                if (StringUtils.hasText(request.getLanguage()) &&
-                        request.getLanguage().equalsIgnoreCase(doc.getMetadata().getOrDefault("language", ""))) {
-                    languageBoostValue = this.languageBoost;
+            // Les requêtes répétées sont servies par le cache (local puis Redis) ; les pages suivies par curseur ne sont pas mises en cache
+            if (prepared.cacheKey() != null && prepared.aggregations() == null) {
+                SearchResponseDto cached = searchResultCache.get(prepared.cacheKey());
+                if (cached != null) {
+                    log.debug("Résultats servis depuis le cache pour la requête : {}", prepared.cleanedQuery());
+                    SearchResponseDto response = withContext(cached, contextFuture.join(), prepared.didYouMean());
+                    response.setFacets(prepared.cachedFacets());
+                    return response;
                 }
-
-                double otherScore = scoreCalculator.calculateScore(doc, context,
-                        popularityWeight, freshnessWeight, locationWeight);
-
-                double finalScore = (
-                        otherScore * (popularityWeight + freshnessWeight + locationWeight) +
-                                relevanceScore * relevanceWeight
-                ) / (popularityWeight + freshnessWeight + locationWeight + relevanceWeight) * languageBoostValue;
-
-                doc.setScore(finalScore);
             }
 
-            // Tri des résultats par score
-            List<DocumentResponse> sortedResults = results.stream()
-                    .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
-                    .collect(Collectors.toList());
+            // Exécution de la requête sur un point-in-time (première page par from/size, pages suivantes par search_after).
+            // Les requêtes identiques concurrentes partagent un seul appel Elasticsearch.
+            String flightKey = (prepared.cacheKey() != null
+                    ? prepared.cacheKey()
+                    : prepared.fingerprint() + '|' + request.getSize() + '|' + request.getCursor())
+                    + (prepared.aggregations() != null ? "|facets" : "");
+            // Seul l'appelant qui a lancé la requête peut réutiliser les sources désérialisées
+            AtomicBoolean leader = new AtomicBoolean();
+            SearchResponse<DocumentResponse> esResponse = await(searchFlight.execute(flightKey,
+                            () -> {
+                                leader.set(true);
+                                return executePage(prepared);
+                            })
+                    .orTimeout(searchTimeoutMs, TimeUnit.MILLISECONDS));
 
-            // Construction de la réponse
-            SearchResponseDto response = new SearchResponseDto();
-            response.setResults(sortedResults);
-            response.setTotalResults(esResponse.hits().total() != null ? esResponse.hits().total().value() : 0);
-            response.setContext(context);
+            // Le contexte complet n'est attendu qu'ici, juste avant le scoring
+            SearchContext context = contextFuture.join();
+            SearchResponseDto response = buildResponse(esResponse, prepared, context, leader.get());
+            if (prepared.cacheKey() != null) {
+                searchResultCache.put(prepared.cacheKey(), response);
+            }
 
-            return response;
+            SearchResponseDto contextualResponse = withContext(response, context, prepared.didYouMean());
+            contextualResponse.setFacets(resolveFacets(esResponse, prepared));
+            return contextualResponse;
 
+        } catch (TimeoutException e) {
+            log.error("Délai dépassé pour la requête Elasticsearch ({} ms)", searchTimeoutMs);
+            throw new SearchException("Délai de recherche dépassé", e);
         } catch (IOException e) {
             log.error("Échec de la requête Elasticsearch", e);
             throw new SearchException("Erreur d'accès aux données Elasticsearch", e);
@@ -161,4 +194,603 @@ public class SearchService {
             throw new SearchException("Échec de l'opération de recherche", e);
         }
     }
+
+    /**
+     * Exécute plusieurs recherches en un seul aller-retour Elasticsearch (_msearch).
+     * Le contexte est construit une seule fois pour tout le lot ; chaque recherche produit un résultat
+     * ou une erreur, dans l'ordre des requêtes reçues.
+     *
+     * @param batchRequest Lot de recherches
+     * @param ipAddress Adresse IP du client
+     * @param userAgent User-Agent du client
+     * @return Résultats et erreurs, dans l'ordre du lot
+     */
+    public BatchSearchResponse searchBatch(BatchSearchRequest batchRequest, String ipAddress, String userAgent) {
+        List<SearchRequestDto> requests = batchRequest.getSearches();
+        log.info("Traitement d'un lot de {} recherches", requests.size());
+
+        SearchContext requestContext = contextService.buildRequestContext(ipAddress, userAgent);
+        CompletableFuture<SearchContext> contextFuture = resolveContext(ipAddress, userAgent, requestContext);
+
+        BatchSearchResponse.Item[] items = new BatchSearchResponse.Item[requests.size()];
+        List<PreparedSearch> pending = new ArrayList<>();
+        List<Integer> pendingPositions = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                PreparedSearch prepared = prepare(requests.get(i), requestContext, true);
+                SearchResponseDto cached = prepared.cacheKey() != null && prepared.aggregations() == null
+                        ? searchResultCache.get(prepared.cacheKey())
+                        : null;
+                if (cached != null) {
+                    SearchResponseDto response = withContext(cached, null, prepared.didYouMean());
+                    response.setFacets(prepared.cachedFacets());
+                    items[i] = BatchSearchResponse.Item.success(response);
+                } else {
+                    pending.add(prepared);
+                    pendingPositions.add(i);
+                }
+            } catch (SearchException e) {
+                items[i] = BatchSearchResponse.Item.failure(e.getMessage());
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                MsearchResponse<DocumentResponse> msearchResponse = await(elasticsearchClient
+                        .msearch(buildMultiSearchRequest(pending), DocumentResponse.class)
+                        .orTimeout(searchTimeoutMs, TimeUnit.MILLISECONDS));
+                SearchContext context = contextFuture.join();
+
+                List<MultiSearchResponseItem<DocumentResponse>> responses = msearchResponse.responses();
+                for (int j = 0; j < pending.size(); j++) {
+                    PreparedSearch prepared = pending.get(j);
+                    MultiSearchResponseItem<DocumentResponse> item = responses.get(j);
+                    if (item.isFailure()) {
+                        log.warn("Échec de la recherche {} du lot : {}", pendingPositions.get(j), item.failure().error().reason());
+                        items[pendingPositions.get(j)] = BatchSearchResponse.Item.failure("Échec de l'opération de recherche");
+                        continue;
+                    }
+                    SearchResponseDto response = buildResponse(item.result(), prepared, context, true);
+                    if (prepared.cacheKey() != null) {
+                        searchResultCache.put(prepared.cacheKey(), response);
+                    }
+                    SearchResponseDto itemResponse = withContext(response, null, prepared.didYouMean());
+                    itemResponse.setFacets(resolveFacets(item.result(), prepared));
+                    items[pendingPositions.get(j)] = BatchSearchResponse.Item.success(itemResponse);
+                }
+            } catch (TimeoutException e) {
+                log.error("Délai dépassé pour le lot de recherches ({} ms)", searchTimeoutMs);
+                throw new SearchException("Délai de recherche dépassé", e);
+            } catch (IOException e) {
+                log.error("Échec de la requête multi-recherche Elasticsearch", e);
+                throw new SearchException("Erreur d'accès aux données Elasticsearch", e);
+            }
+        }
+
+        BatchSearchResponse batchResponse = new BatchSearchResponse();
+        batchResponse.setResults(Arrays.asList(items));
+        batchResponse.setContext(contextFuture.join());
+        return batchResponse;
+    }
+
+    /**
+     * Prépare une recherche diffusée en flux (NDJSON ou Server-Sent Events) pour les gros volumes.
+     * La requête est validée immédiatement ; les résultats sont ensuite lus par fenêtres sur un point-in-time,
+     * scorés fenêtre par fenêtre et écrits au fil de l'eau, si bien que la mémoire reste bornée par la taille
+     * de fenêtre quel que soit le nombre de résultats demandés. En mode client, le tri par score s'applique
+     * à l'intérieur de chaque fenêtre ; en mode serveur, l'ordre Elasticsearch est global.
+     *
+     * @param request Requête de recherche (size = nombre total de résultats à diffuser)
+     * @param ipAddress Adresse IP du client
+     * @param userAgent User-Agent du client
+     * @param format Format du flux
+     * @return Corps de réponse écrit de manière asynchrone
+     */
+    public StreamingResponseBody streamSearch(SearchRequestDto request, String ipAddress, String userAgent,
+                                              SearchStreamFormat format) {
+        log.info("Recherche diffusée en flux ({}) : {}", format, request.getQuery());
+        SearchContext requestContext = contextService.buildRequestContext(ipAddress, userAgent);
+        PreparedSearch prepared = prepare(request, requestContext, false);
+        CompletableFuture<SearchContext> contextFuture = resolveContext(ipAddress, userAgent, requestContext);
+        int limit = Math.min(request.getSize(), streamMaxResults);
+
+        return out -> {
+            SearchCursorCodec.Cursor cursor = prepared.cursor();
+            List<FieldValue> searchAfter = cursor != null && cursor.offset() == null ? cursor.searchAfter() : null;
+            int from = cursor != null && cursor.offset() != null ? cursor.offset() : 0;
+            String pit = null;
+            long total = 0;
+            int emitted = 0;
+            try {
+                pit = cursor != null && cursor.pit() != null ? cursor.pit() : await(openPointInTime());
+                SearchContext context = null;
+                while (emitted < limit) {
+                    int windowSize = Math.min(streamWindowSize, limit - emitted);
+                    SearchResponse<DocumentResponse> window = await(elasticsearchClient
+                            .search(buildPageRequest(prepared, from, windowSize, pit, searchAfter), DocumentResponse.class)
+                            .orTimeout(searchTimeoutMs, TimeUnit.MILLISECONDS));
+                    if (window.pitId() != null) {
+                        pit = window.pitId();
+                    }
+                    total = window.hits().total() != null ? window.hits().total().value() : total;
+                    List<Hit<DocumentResponse>> hits = window.hits().hits();
+                    if (hits.isEmpty()) {
+                        break;
+                    }
+
+                    if (context == null) {
+                        context = contextFuture.join();
+                    }
+                    for (DocumentResponse doc : scoreHits(hits, prepared, context, true, 0, hits.size())) {
+                        writeStreamRecord(out, format, "result", doc);
+                    }
+                    out.flush();
+
+                    emitted += hits.size();
+                    searchAfter = hits.get(hits.size() - 1).sort();
+                    if (hits.size() < windowSize) {
+                        break;
+                    }
+                }
+                if (format == SearchStreamFormat.SSE) {
+                    writeStreamRecord(out, format, "end", Map.of("totalResults", total, "emitted", emitted));
+                }
+                out.flush();
+                log.debug("Flux de recherche terminé : {} résultats émis sur {}", emitted, total);
+            } catch (TimeoutException e) {
+                log.error("Délai dépassé pendant la diffusion des résultats ({} ms)", searchTimeoutMs);
+                throw new SearchException("Délai de recherche dépassé", e);
+            } finally {
+                if (pit != null) {
+                    closePointInTime(pit);
+                }
+            }
+        };
+    }
+
+    private void writeStreamRecord(OutputStream out, SearchStreamFormat format, String event, Object value)
+            throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        if (format == SearchStreamFormat.SSE) {
+            out.write(("event: " + event + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.write(json);
+            out.write(SSE_RECORD_END);
+        } else {
+            out.write(json);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Requête validée et prête à être exécutée.
+     * {@code from} est la position de la page dans le classement (-1 pour une reprise par search_after) ;
+     * {@code depth} est le nombre de candidats lus depuis le début du classement quand la page recoupe
+     * la fenêtre de re-scoring (0 sinon).
+     */
+    private record PreparedSearch(SearchRequestDto request, String cleanedQuery, String fingerprint,
+                                  SearchCursorCodec.Cursor cursor, String cacheKey, Query query,
+                                  ResponseProjection projection, SourceConfig source,
+                                  Query postFilter, Map<String, Aggregation> aggregations,
+                                  String facetKey, SearchFacets cachedFacets, String didYouMean,
+                                  int from, int depth) {
+
+        int readFrom() {
+            return depth > 0 ? 0 : from;
+        }
+
+        int readSize() {
+            return depth > 0 ? depth : request.getSize();
+        }
+    }
+
+    /**
+     * Valide et normalise une requête, décode son curseur et construit la requête Elasticsearch.
+     * Quand des facettes sont demandées et absentes du cache, les filtres passent en post_filter
+     * et les agrégations sont ajoutées à la requête.
+     * La requête est d'abord soumise au dictionnaire orthographique : une correction complète est recherchée
+     * en plus des termes d'origine, jamais à leur place ; la correspondance floue n'est utilisée que si la
+     * correction ne résout pas tous les termes.
+     */
+    private PreparedSearch prepare(SearchRequestDto request, SearchContext requestContext, boolean allowFacets) {
+        String cleanedQuery = QueryNormalizer.normalize(request.getQuery());
+
+        if (!StringUtils.hasText(cleanedQuery) || cleanedQuery.contains("*") || cleanedQuery.contains("\"")) {
+            throw new SearchException("Requête invalide ou dangereuse");
+        }
+
+        // Un curseur n'est accepté que pour la requête qui l'a produit, à l'ordre des termes près :
+        // l'empreinte suit la clé canonique du cache, dont les pages (et leur curseur) sont partagées
+        String canonicalQuery = QueryNormalizer.canonicalKey(cleanedQuery);
+        String fingerprint = searchCursorCodec.fingerprint(canonicalQuery,
+                request.getDocumentType() != null ? request.getDocumentType().getValue() : null, request.getLanguage());
+        SearchCursorCodec.Cursor cursor = StringUtils.hasText(request.getCursor())
+                ? searchCursorCodec.decode(request.getCursor(), fingerprint)
+                : null;
+
+        // Correction orthographique en amont (« vouliez-vous dire »)
+        SpellingCorrector.Correction correction = spellingCorrector.correct(cleanedQuery);
+
+        // Seule la première page compte comme une recherche pour les requêtes populaires
+        if (cursor == null && request.getPage() == 0) {
+            popularQueryTracker.record(cleanedQuery, request.getLanguage());
+        }
+
+        // Seuls les champs demandés (et ceux utiles au scoring) sont lus dans _source
+        ResponseProjection projection = ResponseProjection.of(request.getFields());
+        List<String> includes = projection.sourceIncludes(!isServerSideRanking() || rankingPipeline.rescoring());
+        SourceConfig source = SourceConfig.of(src -> src.filter(f -> f.includes(includes)));
+
+        // Tant que la page recoupe la fenêtre de re-scoring, toute la fenêtre est lue puis classée,
+        // et la page n'est découpée qu'après : sinon le re-scoring ne verrait que les candidats de la page
+        int from = cursor == null
+                ? request.getPage() * request.getSize()
+                : cursor.offset() != null ? cursor.offset() : -1;
+        int depth = from >= 0 ? rankingPipeline.candidateDepth(from, request.getSize()) : 0;
+
+        String cacheKey = cursor == null
+                ? searchResultCache.buildKey(canonicalQuery, request.getDocumentType(), request.getLanguage(),
+                request.getPage(), request.getSize(), projection.key(), contextService.contextBucket(requestContext))
+                : null;
+
+        // Facettes : servies par leur propre cache, sinon calculées avec cette page
+        Map<String, Query> filters = buildFilters(request);
+        String facetKey = null;
+        SearchFacets cachedFacets = null;
+        boolean computeFacets = false;
+        if (allowFacets && request.isIncludeFacets()) {
+            facetKey = searchResultCache.buildFacetKey(canonicalQuery, request.getDocumentType(), request.getLanguage());
+            cachedFacets = searchResultCache.getFacets(facetKey);
+            computeFacets = cachedFacets == null;
+        }
+        Query postFilter = computeFacets && !filters.isEmpty()
+                ? Query.of(q -> q.bool(b -> b.filter(new ArrayList<>(filters.values()))))
+                : null;
+        Map<String, Aggregation> aggregations = computeFacets ? facetAggregations.build(filters) : null;
+
+        // Construction de la requête Elasticsearch
+        Query baseQuery = buildBaseQuery(cleanedQuery, correction.resolved() ? correction.suggestion() : null,
+                !correction.resolved(), computeFacets ? List.of() : filters.values());
+        Query esQuery = isServerSideRanking()
+                ? rankingQueryBuilder.buildRankedQuery(baseQuery, requestContext, rankingWeights.getPopularity(),
+                rankingWeights.getFreshness(), rankingWeights.getLocation(), request.getLanguage(),
+                rankingWeights.getLanguageBoost())
+                : baseQuery;
+        return new PreparedSearch(request, cleanedQuery, fingerprint, cursor, cacheKey, esQuery, projection, source,
+                postFilter, aggregations, facetKey, cachedFacets, correction.suggestion(), from, depth);
+    }
+
+    private boolean isServerSideRanking() {
+        return RANKING_MODE_SERVER.equalsIgnoreCase(rankingMode);
+    }
+
+    /**
+     * Convertit, score et trie une page de résultats Elasticsearch pour un appelant.
+     */
+    private SearchResponseDto buildResponse(ResponseBody<DocumentResponse> esResponse, PreparedSearch prepared,
+                                            SearchContext context, boolean ownsSources) {
+        SearchRequestDto request = prepared.request();
+
+        // Construction de la réponse (mise en cache sans le contexte propre à la session)
+        SearchResponseDto response = new SearchResponseDto();
+        int first = prepared.depth() > 0 ? prepared.from() : 0;
+        response.setResults(scoreHits(esResponse.hits().hits(), prepared, context, ownsSources, first, request.getSize()));
+        response.setTotalResults(esResponse.hits().total() != null ? esResponse.hits().total().value() : 0);
+        response.setNextCursor(nextCursor(esResponse, prepared));
+        return response;
+    }
+
+    /**
+     * Classe une fenêtre de résultats par le pipeline de classement et projette sur les champs demandés
+     * les {@code count} résultats classés à partir du rang {@code first}.
+     * Les sources partagées avec des appelants regroupés restent en lecture seule : ceux-ci reçoivent des
+     * résultats projetés, l'appelant propriétaire des sources les renvoie directement sans sélection de champs.
+     */
+    private List<DocumentResponse> scoreHits(List<Hit<DocumentResponse>> hits, PreparedSearch prepared,
+                                             SearchContext context, boolean ownsSources, int first, int count) {
+        List<DocumentResponse> documents = new ArrayList<>(hits.size());
+        List<Double> hitScores = new ArrayList<>(hits.size());
+        for (Hit<DocumentResponse> hit : hits) {
+            if (hit.source() != null) {
+                documents.add(hit.source());
+                hitScores.add(hit.score());
+            }
+        }
+        double[] retrievalScores = hitScores.stream()
+                .mapToDouble(score -> score != null ? score : Double.NaN)
+                .toArray();
+
+        RankingPipeline.Ranking ranking = rankingPipeline.rank(new RankingCandidates(documents, retrievalScores,
+                context, prepared.request().getLanguage(), isServerSideRanking(), scoreCalculator::toBatch));
+
+        int[] order = ranking.order();
+        int end = (int) Math.min(order.length, (long) first + count);
+        List<DocumentResponse> results = new ArrayList<>(Math.max(0, end - first));
+        for (int rank = first; rank < end; rank++) {
+            int position = order[rank];
+            results.add(prepared.projection().project(documents.get(position), ranking.scores()[position], ownsSources));
+        }
+        return results;
+    }
+
+    /**
+     * Exécute une page de résultats sur un point-in-time. Sans curseur, le point-in-time est ouvert dès cette
+     * première page (lue par from/size) : le curseur renvoyé porte sur le même instantané, ce qui garde un ordre
+     * stable pendant les indexations concurrentes dès la première continuation. Avec un curseur, la lecture
+     * reprend par search_after, à coût constant quelle que soit la profondeur. Une page qui recoupe la fenêtre
+     * de re-scoring (première page ou curseur par position) lit toute la fenêtre depuis le début du classement.
+     */
+    private CompletableFuture<SearchResponse<DocumentResponse>> executePage(PreparedSearch prepared) {
+        SearchRequestDto request = prepared.request();
+        SearchCursorCodec.Cursor cursor = prepared.cursor();
+        if (cursor == null || cursor.offset() != null) {
+            int from = prepared.readFrom();
+            int size = prepared.readSize();
+            if (size <= 0) {
+                // Aucun résultat demandé, donc aucun curseur : inutile d'ouvrir un point-in-time
+                return elasticsearchClient.search(buildPageRequest(prepared, from, 0, null, null), DocumentResponse.class);
+            }
+            CompletableFuture<String> pit = cursor != null && cursor.pit() != null
+                    ? CompletableFuture.completedFuture(cursor.pit())
+                    : openPointInTime();
+            return pit
+                    .thenCompose(id -> elasticsearchClient.search(buildPageRequest(prepared, from, size, id, null),
+                            DocumentResponse.class))
+                    .exceptionallyCompose(e -> {
+                        if (!(unwrap(e) instanceof ElasticsearchException)) {
+                            return CompletableFuture.failedFuture(unwrap(e));
+                        }
+                        // Point-in-time indisponible ou expiré : la page est servie sur l'index courant
+                        log.warn("Point-in-time indisponible, page lue sur l'index : {}", unwrap(e).getMessage());
+                        return elasticsearchClient.search(buildPageRequest(prepared, from, size, null, null),
+                                DocumentResponse.class);
+                    });
+        }
+
+        CompletableFuture<String> pit = cursor.pit() != null
+                ? CompletableFuture.completedFuture(cursor.pit())
+                : openPointInTime();
+        return pit
+                .thenCompose(id -> elasticsearchClient.search(buildPageRequest(prepared, 0, request.getSize(), id,
+                        cursor.searchAfter()), DocumentResponse.class))
+                .exceptionallyCompose(e -> {
+                    if (!(unwrap(e) instanceof ElasticsearchException ee) || ee.status() != 404) {
+                        return CompletableFuture.failedFuture(unwrap(e));
+                    }
+                    // Point-in-time expiré : on en rouvre un et on reprend après la même position
+                    log.warn("Point-in-time expiré, réouverture pour la pagination par curseur");
+                    return openPointInTime().thenCompose(id -> elasticsearchClient.search(
+                            buildPageRequest(prepared, 0, request.getSize(), id, cursor.searchAfter()), DocumentResponse.class));
+                });
+    }
+
+    private SearchRequest buildPageRequest(PreparedSearch prepared, int from, int size, String pit,
+                                           List<FieldValue> searchAfter) {
+        return SearchRequest.of(s -> {
+            s.size(size)
+                    .query(prepared.query())
+                    .trackScores(true)
+                    .sort(PAGE_SORT)
+                    .source(prepared.source());
+            if (prepared.postFilter() != null) {
+                s.postFilter(prepared.postFilter());
+            }
+            if (prepared.aggregations() != null) {
+                s.aggregations(prepared.aggregations());
+            }
+            if (pit != null) {
+                s.pit(p -> p.id(pit).keepAlive(k -> k.time(pitKeepAlive)));
+                if (searchAfter != null) {
+                    s.searchAfter(searchAfter);
+                } else {
+                    s.from(from);
+                }
+            } else {
+                s.index("documents").from(from);
+            }
+            return s;
+        });
+    }
+
+    /**
+     * Construit la requête _msearch d'un lot : une entrée par recherche, dans l'ordre du lot.
+     * Une continuation réutilise le point-in-time de son curseur ; sans point-in-time, search_after
+     * s'applique directement sur l'index (aucun point-in-time n'est ouvert pour un lot).
+     */
+    private MsearchRequest buildMultiSearchRequest(List<PreparedSearch> searches) {
+        return MsearchRequest.of(m -> {
+            for (PreparedSearch prepared : searches) {
+                SearchCursorCodec.Cursor cursor = prepared.cursor();
+                String pit = cursor != null ? cursor.pit() : null;
+                m.searches(item -> item
+                        .header(h -> pit != null ? h : h.index("documents"))
+                        .body(b -> {
+                            b.size(prepared.readSize())
+                                    .query(prepared.query())
+                                    .trackScores(true)
+                                    .sort(PAGE_SORT)
+                                    .source(prepared.source());
+                            if (prepared.postFilter() != null) {
+                                b.postFilter(prepared.postFilter());
+                            }
+                            if (prepared.aggregations() != null) {
+                                b.aggregations(prepared.aggregations());
+                            }
+                            if (pit != null) {
+                                b.pit(p -> p.id(pit).keepAlive(k -> k.time(pitKeepAlive)));
+                            }
+                            if (cursor != null && cursor.offset() == null) {
+                                b.searchAfter(cursor.searchAfter());
+                            } else {
+                                b.from(prepared.readFrom());
+                            }
+                            return b;
+                        }));
+            }
+            return m;
+        });
+    }
+
+    private CompletableFuture<String> openPointInTime() {
+        return elasticsearchClient.openPointInTime(o -> o.index("documents").keepAlive(k -> k.time(pitKeepAlive)))
+                .thenApply(OpenPointInTimeResponse::id);
+    }
+
+    /**
+     * Construit le curseur de la page suivante, ou ferme le point-in-time quand la dernière page est atteinte.
+     * Dans la fenêtre de re-scoring, la page suivante reprend par position ; au-delà, l'ordre est de nouveau
+     * celui d'Elasticsearch et la reprise se fait par search_after.
+     */
+    private String nextCursor(ResponseBody<DocumentResponse> esResponse, PreparedSearch prepared) {
+        List<Hit<DocumentResponse>> hits = esResponse.hits().hits();
+        int size = prepared.request().getSize();
+        if (prepared.depth() > 0) {
+            int end = prepared.from() + size;
+            if (hits.size() > end) {
+                return searchCursorCodec.encodeOffset(esResponse.pitId(), end, prepared.fingerprint());
+            }
+            if (hits.size() == prepared.depth() && end == prepared.depth()) {
+                return searchCursorCodec.encode(esResponse.pitId(), hits.get(end - 1).sort(), prepared.fingerprint());
+            }
+        } else if (size > 0 && hits.size() == size) {
+            return searchCursorCodec.encode(esResponse.pitId(), hits.get(hits.size() - 1).sort(), prepared.fingerprint());
+        }
+        if (esResponse.pitId() != null) {
+            closePointInTime(esResponse.pitId());
+        }
+        return null;
+    }
+
+    private void closePointInTime(String pit) {
+        elasticsearchClient.closePointInTime(c -> c.id(pit))
+                .whenComplete((r, e) -> {
+                    if (e != null) {
+                        log.debug("Fermeture du point-in-time impossible, il expirera de lui-même", e);
+                    }
+                });
+    }
+
+    /**
+     * Résout la session et le contexte complet sur l'exécuteur de recherche. Si l'étape dépasse son délai
+     * ou échoue, le contexte de la requête (sans session) est utilisé pour ne pas bloquer la réponse.
+     */
+    private CompletableFuture<SearchContext> resolveContext(String ipAddress, String userAgent, SearchContext fallback) {
+        return CompletableFuture
+                .supplyAsync(() -> contextService.buildContext(
+                        sessionTracker.getOrCreateSessionId(ipAddress), ipAddress, userAgent), searchExecutor)
+                .completeOnTimeout(fallback, contextTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("Contexte de session indisponible, utilisation du contexte par défaut : {}", e.getMessage());
+                    return fallback;
+                });
+    }
+
+    /**
+     * Attend la réponse Elasticsearch en restituant l'exception d'origine.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws IOException, TimeoutException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof TimeoutException timeout) {
+                throw timeout;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Lit les facettes calculées avec la page et les met en cache, ou renvoie celles du cache.
+     */
+    private SearchFacets resolveFacets(ResponseBody<DocumentResponse> esResponse, PreparedSearch prepared) {
+        if (prepared.aggregations() == null) {
+            return prepared.cachedFacets();
+        }
+        SearchFacets facets = facetAggregations.parse(esResponse.aggregations());
+        searchResultCache.putFacets(prepared.facetKey(), facets);
+        return facets;
+    }
+
+    /**
+     * Filtres optionnels de la requête, indexés par champ.
+     */
+    private Map<String, Query> buildFilters(SearchRequestDto request) {
+        Map<String, Query> filters = new LinkedHashMap<>();
+
+        // Filtre par type de document uniquement si spécifié
+        if (request.getDocumentType() != null && request.getDocumentType().getValue() != null) {
+            filters.put(FacetAggregations.DOCUMENT_TYPE, Query.of(f -> f.term(t -> t
+                    .field(FacetAggregations.DOCUMENT_TYPE).value(request.getDocumentType().getValue()))));
+        }
+
+        // Filtre par langue si spécifié
+        if (StringUtils.hasText(request.getLanguage())) {
+            filters.put(FacetAggregations.LANGUAGE, Query.of(f -> f.term(t -> t
+                    .field(FacetAggregations.LANGUAGE).value(request.getLanguage()))));
+        }
+        return filters;
+    }
+
+    /**
+     * Construit la requête de sélection : correspondance textuelle (floue si demandé) et filtres.
+     * Une correction orthographique s'ajoute comme alternative : les termes saisis restent toujours
+     * recherchés, un mot rare mais juste n'est donc jamais remplacé par un voisin plus fréquent.
+     *
+     * @param cleanedQuery Requête normalisée saisie
+     * @param correctedQuery Requête corrigée, ou null
+     * @param fuzzy true pour une correspondance floue des termes saisis
+     * @param filters Filtres
+     */
+    private Query buildBaseQuery(String cleanedQuery, String correctedQuery, boolean fuzzy, Collection<Query> filters) {
+        Query original = Query.of(q -> q.match(mq -> {
+            mq.field("content").query(cleanedQuery);
+            if (fuzzy) {
+                mq.fuzziness(fuzzinessLevel) // Requête non résolue par la correction orthographique
+                        .prefixLength(1) // Protège les premiers caractères pour performances
+                        .maxExpansions(50); // Limite l'expansion pour éviter surcharge
+            }
+            return mq;
+        }));
+        return Query.of(q -> q.bool(b -> {
+            if (correctedQuery == null) {
+                b.must(original);
+            } else {
+                b.must(m -> m.bool(alternatives -> alternatives
+                        .should(original)
+                        .should(sq -> sq.match(mq -> mq.field("content").query(correctedQuery)))
+                        .minimumShouldMatch("1")));
+            }
+            if (!filters.isEmpty()) {
+                b.filter(new ArrayList<>(filters));
+            }
+            return b;
+        }));
+    }
+
+    /**
+     * Copie une réponse (éventuellement partagée via le cache) en y attachant le contexte de la requête
+     * et sa suggestion orthographique. La suggestion n'est jamais mise en cache : la clé de cache ne tient
+     * pas compte de l'ordre des termes, la suggestion si.
+     */
+    private SearchResponseDto withContext(SearchResponseDto source, SearchContext context, String didYouMean) {
+        SearchResponseDto response = new SearchResponseDto();
+        response.setResults(source.getResults());
+        response.setTotalResults(source.getTotalResults());
+        response.setNextCursor(source.getNextCursor());
+        response.setFacets(source.getFacets());
+        response.setDidYouMean(didYouMean);
+        response.setContext(context);
+        return response;
+    }
 }
\ No newline at end of file
@@ -3,10 +3,14 @@ package com.searchengine.utils;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
 import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.PutMappingRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.StringReader;
 
 public class ElasticsearchUtils {
 
@@ -38,4 +42,25 @@ public class ElasticsearchUtils {
         );
         client.indices().create(request);
     }
-}
\ No newline at end of file
+
+    /**
+     * Met à jour le mapping d'un index existant à partir du même fichier que sa création.
+     * Elasticsearch n'accepte que des ajouts (nouveaux champs) : c'est ainsi que les champs
+     * introduits après la création de l'index sont déclarés.
+     *
+     * @param client Client Elasticsearch
+     * @param indexName Nom de l'index
+     * @param mapping JSON du mapping (objet racine contenant "mappings")
+     */
+    public static void putMapping(ElasticsearchClient client, String indexName, String mapping) throws IOException {
+        JsonNode mappings = new ObjectMapper().readTree(mapping).path("mappings");
+        if (mappings.isMissingNode()) {
+            return;
+        }
+        PutMappingRequest request = PutMappingRequest.of(p -> p
+                .index(indexName)
+                .withJson(new StringReader(mappings.toString()))
+        );
+        client.indices().putMapping(request);
+    }
+}
@@ -10,6 +10,9 @@ import org.slf4j.LoggerFactory;
 public class GeoUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(GeoUtils.class);
+    private static final double EARTH_RADIUS_KM = 6371;
+    // Beyond 85 degrees of latitude the equirectangular error grows quickly (tens of km near the poles)
+    private static final double APPROXIMATION_MIN_COS_LATITUDE = Math.cos(Math.toRadians(85));
 
     /**
      * Calculates the distance between two geolocation points using the Haversine formula.
@@ -26,18 +29,8 @@ public class GeoUtils {
                 return 0.0;
             }
 
-            double lat1 = Math.toRadians(geo1.getLatitude());
-            double lon1 = Math.toRadians(geo1.getLongitude());
-            double lat2 = Math.toRadians(geo2.getLatitude());
-            double lon2 = Math.toRadians(geo2.getLongitude());
-
-            double dlon = lon2 - lon1;
-            double dlat = lat2 - lat1;
-            double a = Math.pow(Math.sin(dlat / 2), 2) + Math.cos(lat1) * Math.cos(lat2) * Math.pow(Math.sin(dlon / 2), 2);
-            double c = 2 * Math.asin(Math.sqrt(a));
-            double r = 6371; // Earth's radius in kilometers
-
-            double distance = c * r;
+            double distance = haversineKm(geo1.getLatitude(), geo1.getLongitude(),
+                    geo2.getLatitude(), geo2.getLongitude());
             logger.debug("Calculated distance: {} km", distance);
             return distance;
         } catch (Exception e) {
@@ -45,4 +38,55 @@ public class GeoUtils {
             return 0.0;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Haversine distance between two points given in degrees, without allocation or logging
+     * (used by the batch scoring loops).
+     *
+     * @return Distance in kilometers
+     */
+    public static double haversineKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        return haversineKm(lat1, Math.cos(lat1), Math.toRadians(longitude1), lat2, Math.cos(lat2), Math.toRadians(longitude2));
+    }
+
+    /**
+     * Haversine kernel on coordinates already converted to radians, with the cosine of each latitude
+     * precomputed: a batch against a single origin computes the origin terms once.
+     *
+     * @return Distance in kilometers
+     */
+    public static double haversineKm(double lat1, double cosLat1, double lon1, double lat2, double cosLat2, double lon2) {
+        double sinDlat = Math.sin((lat2 - lat1) / 2);
+        double sinDlon = Math.sin((lon2 - lon1) / 2);
+        double a = sinDlat * sinDlat + cosLat1 * cosLat2 * (sinDlon * sinDlon);
+        return 2 * Math.asin(Math.sqrt(a)) * EARTH_RADIUS_KM;
+    }
+
+    /**
+     * Distance kernel on precomputed radians and cosines. Short distances use the equirectangular
+     * approximation (one square root, no trigonometry), off by at most 250 m below 100 km, across
+     * the antimeridian included; above {@code approximationMaxKm}, or when either point lies beyond
+     * 85 degrees of latitude, the exact haversine distance is returned.
+     *
+     * @param approximationMaxKm Largest approximated distance; 0 always uses haversine
+     * @return Distance in kilometers
+     */
+    public static double distanceKm(double lat1, double cosLat1, double lon1,
+                                    double lat2, double cosLat2, double lon2, double approximationMaxKm) {
+        double dLat = lat2 - lat1;
+        double dLon = lon2 - lon1;
+        if (dLon > Math.PI) {
+            dLon -= 2 * Math.PI;
+        } else if (dLon < -Math.PI) {
+            dLon += 2 * Math.PI;
+        }
+        double x = dLon * 0.5 * (cosLat1 + cosLat2);
+        double approximation = Math.sqrt(x * x + dLat * dLat) * EARTH_RADIUS_KM;
+        return approximation <= approximationMaxKm
+                && cosLat1 >= APPROXIMATION_MIN_COS_LATITUDE && cosLat2 >= APPROXIMATION_MIN_COS_LATITUDE
+                ? approximation
+                : haversineKm(lat1, cosLat1, lon1, lat2, cosLat2, lon2);
+    }
+}
@@ -0,0 +1,114 @@
+package com.searchengine.utils;
+
+import java.util.Arrays;
+
+/**
+ * Normalisation des requêtes de recherche en une seule passe, sans expression régulière.
+ * Les lettres et chiffres Unicode (et les marques diacritiques qui les suivent) sont conservés et mis
+ * en minuscules ; tout le reste (guillemets, apostrophes, caractères spéciaux d'Elasticsearch,
+ * ponctuation, espaces) sert de séparateur, et les séparateurs consécutifs sont réduits à un espace.
+ * Le résultat ne contient donc jamais de caractère interprété par la syntaxe de requête Elasticsearch.
+ */
+public final class QueryNormalizer {
+
+    private QueryNormalizer() {
+    }
+
+    /**
+     * Normalise une requête. Si la requête est déjà sous forme normalisée, la même instance est renvoyée.
+     *
+     * @param query Requête brute
+     * @return Requête normalisée, jamais null
+     */
+    public static String normalize(String query) {
+        if (query == null || query.isEmpty()) {
+            return "";
+        }
+        if (isNormalized(query)) {
+            return query;
+        }
+
+        int length = query.length();
+        char[] out = new char[length];
+        int size = 0;
+        boolean pendingSeparator = false;
+        boolean inWord = false;
+        for (int i = 0; i < length; ) {
+            int codePoint = query.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (isWordChar(codePoint, inWord)) {
+                if (pendingSeparator && size > 0) {
+                    out[size++] = ' ';
+                }
+                pendingSeparator = false;
+                inWord = true;
+                int lower = Character.toLowerCase(codePoint);
+                if (size + 2 > out.length) {
+                    out = Arrays.copyOf(out, out.length * 2 + 2);
+                }
+                size += Character.toChars(lower, out, size);
+            } else {
+                pendingSeparator = true;
+                inWord = false;
+            }
+        }
+        return new String(out, 0, size);
+    }
+
+    /**
+     * Clé canonique d'une requête normalisée pour le cache : les termes sont triés, car une requête
+     * match ne dépend pas de leur ordre. Les doublons sont conservés (ils pèsent dans le score).
+     *
+     * @param normalizedQuery Requête déjà normalisée
+     * @return Clé canonique
+     */
+    public static String canonicalKey(String normalizedQuery) {
+        if (normalizedQuery.indexOf(' ') < 0) {
+            return normalizedQuery;
+        }
+        String[] terms = normalizedQuery.split(" ");
+        Arrays.sort(terms);
+        return String.join(" ", terms);
+    }
+
+    /**
+     * Vérifie sans allocation qu'une chaîne est déjà normalisée.
+     */
+    private static boolean isNormalized(String query) {
+        int length = query.length();
+        boolean previousSpace = true;
+        boolean inWord = false;
+        for (int i = 0; i < length; ) {
+            int codePoint = query.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (codePoint == ' ') {
+                if (previousSpace) {
+                    return false;
+                }
+                previousSpace = true;
+                inWord = false;
+            } else if (isWordChar(codePoint, inWord) && Character.toLowerCase(codePoint) == codePoint) {
+                previousSpace = false;
+                inWord = true;
+            } else {
+                return false;
+            }
+        }
+        return !previousSpace;
+    }
+
+    private static boolean isWordChar(int codePoint, boolean inWord) {
+        if (Character.isLetterOrDigit(codePoint)) {
+            return true;
+        }
+        if (!inWord) {
+            return false;
+        }
+        // Marques diacritiques combinantes (texte décomposé, ex. « e » + accent aigu)
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+}
@@ -4,8 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 
-import java.util.regex.Pattern;
-
 /**
  * Utility class for search-related operations.
  */
@@ -13,15 +11,10 @@ public class SearchUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(SearchUtils.class);
 
-    // Pattern pour supprimer les caractères problématiques pour Elasticsearch
-    private static final Pattern ELASTICSEARCH_SPECIAL_CHARS = Pattern.compile("[\"*+\\-!(){}\\[\\]^~?:\\\\/]");
-
-    // Pattern pour nettoyer les caractères non alphanumériques (sauf espaces)
-    private static final Pattern QUERY_CLEANUP_PATTERN = Pattern.compile("[^a-zA-Z0-9\\s]");
-
     /**
      * Cleans a search query by removing special characters and normalizing whitespace.
-     * Cette méthode est spécialement conçue pour éviter les erreurs Elasticsearch.
+     * Cette méthode est spécialement conçue pour éviter les erreurs Elasticsearch ;
+     * elle délègue à {@link QueryNormalizer} (une seule passe, lettres Unicode conservées).
      *
      * @param query The raw search query
      * @return Cleaned query safe for Elasticsearch
@@ -32,46 +25,9 @@ public class SearchUtils {
             return "";
         }
 
-        try {
-            String cleaned = query.trim();
-
-            // Étape 1: Normaliser les guillemets typographiques et apostrophes
-            cleaned = cleaned.replaceAll("[\"“”]", " ")  // guillemets doubles + guillemets typographiques
-                    .replaceAll("[‘’']", " "); // apostrophes typographiques + apostrophe simple
-
-            // Étape 2: Supprimer tous les caractères spéciaux d'Elasticsearch
-            cleaned = ELASTICSEARCH_SPECIAL_CHARS.matcher(cleaned).replaceAll(" ");
-
-            // Étape 3: Supprimer les autres caractères spéciaux (optionnel, plus restrictif)
-            cleaned = QUERY_CLEANUP_PATTERN.matcher(cleaned).replaceAll(" ");
-
-            // Étape 4: Normaliser les espaces multiples
-            cleaned = cleaned.replaceAll("\\s+", " ").trim();
-
-            // Étape 5: Convertir en minuscules pour la cohérence
-            cleaned = cleaned.toLowerCase();
-
-            logger.debug("Query cleaned: '{}' -> '{}'", query, cleaned);
-
-            // Validation finale
-            if (containsProblematicChars(cleaned)) {
-                logger.warn("Query still contains problematic characters after cleaning: '{}'", cleaned);
-                // En dernier recours, ne garder que les caractères alphanumériques et espaces
-                cleaned = cleaned.replaceAll("[^a-zA-Z0-9\\s]", " ")
-                        .replaceAll("\\s+", " ")
-                        .trim();
-            }
-
-            return cleaned;
-
-        } catch (Exception e) {
-            logger.error("Failed to clean query: '{}'", query, e);
-            // En cas d'erreur, retourner une version ultra-sécurisée
-            return query.replaceAll("[^a-zA-Z0-9\\s]", " ")
-                    .replaceAll("\\s+", " ")
-                    .trim()
-                    .toLowerCase();
-        }
+        String cleaned = QueryNormalizer.normalize(query);
+        logger.debug("Query cleaned: '{}' -> '{}'", query, cleaned);
+        return cleaned;
     }
 
     /**
@@ -0,0 +1,78 @@
+package com.searchengine.websocket;
+
+import com.searchengine.service.AuthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * Authenticates a WebSocket client once, during the HTTP handshake, with the same API key / uuid
+ * pair as {@code ApiKeyAuthFilter}. Browsers cannot set headers on a WebSocket handshake, so the key
+ * can also be accepted as the {@code apiKey} query parameter when {@code allowQueryApiKey} is set.
+ * That fallback is off by default: a secret in the URL ends up in access logs, proxy logs and
+ * browser history, so it should only be enabled behind a proxy that strips or masks query strings.
+ * Anonymous clients (when the key is not required) are identified by their IP address.
+ */
+public class ApiKeyHandshakeInterceptor implements HandshakeInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiKeyHandshakeInterceptor.class);
+    static final String CLIENT_ID_ATTRIBUTE = "autocomplete.clientId";
+
+    private final AuthService authService;
+    private final boolean requireApiKey;
+    private final boolean allowQueryApiKey;
+
+    public ApiKeyHandshakeInterceptor(AuthService authService, boolean requireApiKey, boolean allowQueryApiKey) {
+        this.authService = authService;
+        this.requireApiKey = requireApiKey;
+        this.allowQueryApiKey = allowQueryApiKey;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String apiKey = request.getHeaders().getFirst("X-API-Key");
+        String uuid = null;
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            uuid = servletRequest.getServletRequest().getParameter("uuid");
+            if (!StringUtils.hasText(apiKey) && allowQueryApiKey) {
+                apiKey = servletRequest.getServletRequest().getParameter("apiKey");
+            }
+        }
+
+        boolean authenticated = StringUtils.hasText(apiKey) && StringUtils.hasText(uuid)
+                && authService.validateToken(uuid, apiKey);
+        if (!authenticated && requireApiKey) {
+            logger.warn("Autocomplete WebSocket handshake rejected for {}", request.getRemoteAddress());
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        attributes.put(CLIENT_ID_ATTRIBUTE, authenticated ? "key:" + uuid : "ip:" + remoteHost(request));
+        return true;
+    }
+
+    private static String remoteHost(ServerHttpRequest request) {
+        // Without the port: every connection of a client would otherwise count as a new client
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+        // Nothing to do once the handshake is done
+    }
+}
@@ -0,0 +1,253 @@
+package com.searchengine.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.searchengine.model.dto.request.AutocompleteRequest;
+import com.searchengine.model.dto.response.AutocompleteResponse;
+import com.searchengine.model.dto.response.AutocompletePush;
+import com.searchengine.security.TokenBucket;
+import com.searchengine.service.AutocompleteService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Autocomplete over a WebSocket: the client sends one {@link AutocompleteRequest} JSON message per
+ * keystroke and receives {@link AutocompletePush} messages on the same connection.
+ * <ul>
+ *   <li>Keystrokes are debounced: only the last prefix typed within the debounce window is computed.</li>
+ *   <li>Each client (API key uuid, or IP address when anonymous) has one token bucket shared by all of its
+ *   connections, and a cap on open connections; debounced prefixes over the limit get a RATE_LIMITED push.</li>
+ *   <li>A new computation cancels the previous one still in flight, as the HTTP endpoint does per session.</li>
+ * </ul>
+ */
+public class AutocompleteWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteWebSocketHandler.class);
+    private static final String CONNECTION_ATTRIBUTE = "autocomplete.connection";
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 64 * 1024;
+
+    private final AutocompleteService autocompleteService;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler scheduler;
+    private final long debounceMs;
+    private final double rateCapacity;
+    private final double refillPerSecond;
+    private final int maxConnectionsPerClient;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ConcurrentMap<String, Integer> connectionsPerClient = new ConcurrentHashMap<>();
+    // Kept past the last connection, so that reconnecting does not hand out a full bucket
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter served;
+    private final Counter debounced;
+    private final Counter rateLimited;
+    private final Counter rejected;
+
+    /**
+     * State of one connection. Guarded by its own monitor.
+     */
+    private static final class Connection {
+        private final WebSocketSession session;
+        private final String clientId;
+        private final TokenBucket bucket;
+        private AutocompleteRequest pending;
+        private ScheduledFuture<?> debounce;
+        private CompletableFuture<AutocompleteResponse> inFlight;
+        private long arrivalSequence;
+
+        private Connection(WebSocketSession session, String clientId, TokenBucket bucket) {
+            this.session = session;
+            this.clientId = clientId;
+            this.bucket = bucket;
+        }
+    }
+
+    public AutocompleteWebSocketHandler(AutocompleteService autocompleteService, ObjectMapper objectMapper,
+                                        TaskScheduler scheduler, MeterRegistry meterRegistry,
+                                        long debounceMs, double rateCapacity, double refillPerSecond,
+                                        int maxConnectionsPerClient) {
+        this.autocompleteService = autocompleteService;
+        this.objectMapper = objectMapper;
+        this.scheduler = scheduler;
+        this.debounceMs = debounceMs;
+        this.rateCapacity = rateCapacity;
+        this.refillPerSecond = refillPerSecond;
+        this.maxConnectionsPerClient = Math.max(1, maxConnectionsPerClient);
+        // An idle bucket is full again after capacity / refill seconds: forgetting it later loses nothing
+        long idleSeconds = (long) Math.ceil(Math.max(1, rateCapacity) / Math.max(refillPerSecond, 0.001)) + 1;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .build();
+
+        Gauge.builder("searchengine.autocomplete.websocket.connections", connections, AtomicInteger::get)
+                .description("Open autocomplete WebSocket connections")
+                .register(meterRegistry);
+        this.served = counter(meterRegistry, "served");
+        this.debounced = counter(meterRegistry, "debounced");
+        this.rateLimited = counter(meterRegistry, "rate_limited");
+        this.rejected = Counter.builder("searchengine.autocomplete.websocket.rejected")
+                .description("Autocomplete WebSocket connections closed for exceeding the per-client limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        String clientId = String.valueOf(session.getAttributes().get(ApiKeyHandshakeInterceptor.CLIENT_ID_ATTRIBUTE));
+        boolean[] admitted = new boolean[1];
+        connectionsPerClient.compute(clientId, (key, open) -> {
+            int count = open != null ? open : 0;
+            admitted[0] = count < maxConnectionsPerClient;
+            return admitted[0] ? count + 1 : open;
+        });
+        if (!admitted[0]) {
+            rejected.increment();
+            logger.debug("Autocomplete WebSocket refused for client {}: {} connections already open",
+                    clientId, maxConnectionsPerClient);
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Too many connections"));
+            return;
+        }
+
+        connections.incrementAndGet();
+        WebSocketSession concurrentSession = new ConcurrentWebSocketSessionDecorator(
+                session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT_BYTES);
+        TokenBucket bucket = buckets.get(clientId, id -> new TokenBucket(rateCapacity, refillPerSecond));
+        session.getAttributes().put(CONNECTION_ATTRIBUTE, new Connection(concurrentSession, clientId, bucket));
+        logger.debug("Autocomplete WebSocket opened for client {}", clientId);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Connection connection = (Connection) session.getAttributes().get(CONNECTION_ATTRIBUTE);
+        if (connection == null) {
+            return;
+        }
+        AutocompleteRequest request;
+        try {
+            request = objectMapper.readValue(message.getPayload(), AutocompleteRequest.class);
+        } catch (JsonProcessingException e) {
+            send(connection, AutocompletePush.error(null, "INVALID_MESSAGE"));
+            return;
+        }
+        if (!StringUtils.hasText(request.getPrefix())) {
+            send(connection, AutocompletePush.error(request.getSequence(), "INVALID_MESSAGE"));
+            return;
+        }
+
+        synchronized (connection) {
+            if (request.getSequence() == null) {
+                request.setSequence(++connection.arrivalSequence);
+            }
+            if (connection.pending != null) {
+                debounced.increment();
+            }
+            connection.pending = request;
+            if (connection.debounce != null) {
+                connection.debounce.cancel(false);
+            }
+            connection.debounce = scheduler.schedule(() -> fire(connection), Instant.now().plusMillis(debounceMs));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = (Connection) session.getAttributes().remove(CONNECTION_ATTRIBUTE);
+        if (connection == null) {
+            return;
+        }
+        connections.decrementAndGet();
+        connectionsPerClient.computeIfPresent(connection.clientId, (key, open) -> open > 1 ? open - 1 : null);
+        synchronized (connection) {
+            connection.pending = null;
+            if (connection.debounce != null) {
+                connection.debounce.cancel(false);
+            }
+            if (connection.inFlight != null) {
+                connection.inFlight.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Computes the last prefix received once the debounce window has elapsed.
+     */
+    private void fire(Connection connection) {
+        AutocompleteRequest request;
+        CompletableFuture<AutocompleteResponse> future;
+        synchronized (connection) {
+            request = connection.pending;
+            connection.pending = null;
+            if (request == null || !connection.session.isOpen()) {
+                return;
+            }
+            if (!connection.bucket.tryConsume()) {
+                rateLimited.increment();
+                send(connection, AutocompletePush.error(request.getSequence(), "RATE_LIMITED"));
+                return;
+            }
+            if (connection.inFlight != null) {
+                connection.inFlight.cancel(true);
+            }
+            future = autocompleteService.getAutocompleteSuggestionsAsync(
+                    request.getPrefix(), request.getLanguage(), request.getMaxSuggestions());
+            connection.inFlight = future;
+        }
+
+        Long sequence = request.getSequence();
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            synchronized (connection) {
+                if (connection.inFlight == future) {
+                    connection.inFlight = null;
+                }
+            }
+            if (error != null) {
+                logger.warn("Autocomplete failed on WebSocket for prefix '{}': {}", request.getPrefix(), error.getMessage());
+                send(connection, AutocompletePush.error(sequence, "AUTOCOMPLETE_FAILED"));
+            } else {
+                served.increment();
+                send(connection, AutocompletePush.of(sequence, response));
+            }
+        });
+    }
+
+    private void send(Connection connection, AutocompletePush push) {
+        if (!connection.session.isOpen()) {
+            return;
+        }
+        try {
+            connection.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(push)));
+        } catch (IOException e) {
+            logger.debug("Failed to push autocomplete message: {}", e.getMessage());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("searchengine.autocomplete.websocket.messages")
+                .description("Autocomplete WebSocket keystrokes served, debounced or rate limited")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
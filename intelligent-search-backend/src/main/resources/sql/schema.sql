@@ -47,9 +47,14 @@ CREATE TABLE IF NOT EXISTS search_queries (
     query TEXT,
     session_id VARCHAR(36),
     timestamp TIMESTAMP WITH TIME ZONE NOT NULL,
-    search_type VARCHAR(50)
+    search_type VARCHAR(50),
+    language VARCHAR(16),
+    hit_count BIGINT
 );
 
+ALTER TABLE search_queries ADD COLUMN IF NOT EXISTS language VARCHAR(16);
+ALTER TABLE search_queries ADD COLUMN IF NOT EXISTS hit_count BIGINT;
+
 CREATE INDEX IF NOT EXISTS idx_search_queries_timestamp ON search_queries (timestamp);
 
 
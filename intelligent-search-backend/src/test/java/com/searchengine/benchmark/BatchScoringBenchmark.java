@@ -0,0 +1,142 @@
+package com.searchengine.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.searchengine.component.scoring.FreshnessScorer;
+import com.searchengine.component.scoring.LocationScorer;
+import com.searchengine.component.scoring.PopularityScorer;
+import com.searchengine.component.scoring.ScoreBatch;
+import com.searchengine.component.scoring.ScoreCalculator;
+import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.entity.RankSignals;
+import com.searchengine.model.entity.SearchContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le scoring document par document (appel de chaque scorer sur le document, puis tri complet)
+ * au scoring en lot de {@link ScoreCalculator} sur colonnes primitives avec sélection des k meilleurs.
+ * Lancement : exécuter main depuis l'IDE, ou avec -prof gc pour mesurer les allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchScoringBenchmark {
+
+    private static final double POPULARITY_WEIGHT = 0.3;
+    private static final double FRESHNESS_WEIGHT = 0.3;
+    private static final double LOCATION_WEIGHT = 0.2;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int candidates;
+
+    @Param({"10"})
+    public int k;
+
+    private FreshnessScorer freshnessScorer;
+    private LocationScorer locationScorer;
+    private PopularityScorer popularityScorer;
+    private ScoreCalculator scoreCalculator;
+    private SearchContext context;
+    private List<DocumentResponse> documents;
+    private ScoreBatch batch;
+
+    @Setup
+    public void setUp() {
+        // Sans configuration, logback journalise en DEBUG : on ne mesure que le calcul
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        freshnessScorer = new FreshnessScorer();
+        ReflectionTestUtils.setField(freshnessScorer, "maxAgeDays", 30);
+        ReflectionTestUtils.setField(freshnessScorer, "decayFactor", 0.1);
+        ReflectionTestUtils.setField(freshnessScorer, "boostThresholdHours", 24);
+        locationScorer = new LocationScorer();
+        ReflectionTestUtils.setField(locationScorer, "maxDistanceKm", 1000.0);
+        ReflectionTestUtils.setField(locationScorer, "approximationMaxKm", 100.0);
+
+        popularityScorer = new PopularityScorer();
+        scoreCalculator = new ScoreCalculator(locationScorer, freshnessScorer, popularityScorer);
+        ReflectionTestUtils.setField(scoreCalculator, "parallelThreshold", 4096);
+
+        SearchContext.GeoLocation geo = new SearchContext.GeoLocation();
+        geo.setLatitude(48.85);
+        geo.setLongitude(2.35);
+        context = new SearchContext();
+        context.setGeoLocation(geo);
+
+        Random random = new Random(42);
+        Instant now = Instant.now();
+        documents = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            RankSignals signals = new RankSignals();
+            signals.setPopularity(random.nextDouble());
+            if (random.nextInt(4) > 0) {
+                signals.setLocation(new RankSignals.Location(42 + random.nextDouble() * 8, -4 + random.nextDouble() * 12));
+            }
+            DocumentResponse document = new DocumentResponse();
+            document.setUrl("https://example" + (i % 500) + ".org/page/" + i);
+            document.setCrawlTimestamp(now.minus(random.nextInt(24 * 90), ChronoUnit.HOURS));
+            document.setSignals(signals);
+            documents.add(document);
+        }
+        batch = scoreCalculator.toBatch(documents);
+    }
+
+    @Benchmark
+    public List<DocumentResponse> perDocument() {
+        double totalWeight = POPULARITY_WEIGHT + FRESHNESS_WEIGHT + LOCATION_WEIGHT;
+        List<DocumentResponse> scored = new ArrayList<>(documents.size());
+        for (DocumentResponse document : documents) {
+            document.setScore((popularityScorer.calculatePopularityScore(document) * POPULARITY_WEIGHT
+                    + freshnessScorer.calculateFreshnessScore(document) * FRESHNESS_WEIGHT
+                    + locationScorer.calculateLocationScore(document, context) * LOCATION_WEIGHT) / totalWeight);
+            scored.add(document);
+        }
+        scored.sort(Comparator.comparingDouble(DocumentResponse::getScore).reversed());
+        return scored.subList(0, Math.min(k, scored.size()));
+    }
+
+    @Benchmark
+    public ScoreCalculator.RankedBatch batchWithExtraction() {
+        return scoreCalculator.scoreBatch(scoreCalculator.toBatch(documents), context,
+                POPULARITY_WEIGHT, FRESHNESS_WEIGHT, LOCATION_WEIGHT, k);
+    }
+
+    @Benchmark
+    public ScoreCalculator.RankedBatch batchColumnsOnly() {
+        return scoreCalculator.scoreBatch(batch, context, POPULARITY_WEIGHT, FRESHNESS_WEIGHT, LOCATION_WEIGHT, k);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BatchScoringBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
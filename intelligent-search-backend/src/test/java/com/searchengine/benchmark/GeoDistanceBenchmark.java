@@ -0,0 +1,148 @@
+package com.searchengine.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.searchengine.model.entity.SearchContext;
+import com.searchengine.utils.GeoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare les calculs de distance du scoring de localisation sur un lot de documents :
+ * l'ancien chemin (coordonnées lues dans les métadonnées texte, GeoLocation alloué par document,
+ * GeoUtils.calculateDistance), le haversine sur degrés, le haversine sur radians précalculés
+ * et le noyau de GeoUtils.distanceKm (approximation équirectangulaire sous le seuil).
+ * Le paramètre spreadKm fixe la dispersion des documents autour de l'utilisateur : à 50 km tout
+ * est approché, à 1000 km la plupart des distances repassent par le haversine.
+ * Lancement : exécuter main depuis l'IDE, ou avec -prof gc pour mesurer les allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoDistanceBenchmark {
+
+    private static final double USER_LATITUDE = 48.85;
+    private static final double USER_LONGITUDE = 2.35;
+    private static final double APPROXIMATION_MAX_KM = 100;
+
+    @Param({"10000"})
+    public int documents;
+
+    @Param({"50", "1000"})
+    public double spreadKm;
+
+    private SearchContext.GeoLocation user;
+    private Map<String, String>[] metadata;
+    private double[] latitudeDegrees;
+    private double[] longitudeDegrees;
+    private double[] latitudeRadians;
+    private double[] longitudeRadians;
+    private double[] cosLatitudes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // Sans configuration, logback journalise en DEBUG : on ne mesure que le calcul
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+
+        user = new SearchContext.GeoLocation();
+        user.setLatitude(USER_LATITUDE);
+        user.setLongitude(USER_LONGITUDE);
+
+        Random random = new Random(42);
+        double spreadDegrees = spreadKm / 111.0;
+        metadata = new Map[documents];
+        latitudeDegrees = new double[documents];
+        longitudeDegrees = new double[documents];
+        latitudeRadians = new double[documents];
+        longitudeRadians = new double[documents];
+        cosLatitudes = new double[documents];
+        for (int i = 0; i < documents; i++) {
+            double latitude = USER_LATITUDE + (random.nextDouble() * 2 - 1) * spreadDegrees;
+            double longitude = USER_LONGITUDE + (random.nextDouble() * 2 - 1) * spreadDegrees;
+            metadata[i] = new HashMap<>();
+            metadata[i].put("latitude", Double.toString(latitude));
+            metadata[i].put("longitude", Double.toString(longitude));
+            latitudeDegrees[i] = latitude;
+            longitudeDegrees[i] = longitude;
+            latitudeRadians[i] = Math.toRadians(latitude);
+            longitudeRadians[i] = Math.toRadians(longitude);
+            cosLatitudes[i] = Math.cos(latitudeRadians[i]);
+        }
+    }
+
+    @Benchmark
+    public double metadataStrings() {
+        double total = 0;
+        for (Map<String, String> document : metadata) {
+            SearchContext.GeoLocation location = new SearchContext.GeoLocation();
+            location.setLatitude(Double.parseDouble(document.get("latitude")));
+            location.setLongitude(Double.parseDouble(document.get("longitude")));
+            total += GeoUtils.calculateDistance(user, location);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double haversineDegrees() {
+        double total = 0;
+        for (int i = 0; i < documents; i++) {
+            total += GeoUtils.haversineKm(USER_LATITUDE, USER_LONGITUDE, latitudeDegrees[i], longitudeDegrees[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double haversineRadians() {
+        double lat1 = Math.toRadians(USER_LATITUDE);
+        double cosLat1 = Math.cos(lat1);
+        double lon1 = Math.toRadians(USER_LONGITUDE);
+        double total = 0;
+        for (int i = 0; i < documents; i++) {
+            total += GeoUtils.haversineKm(lat1, cosLat1, lon1, latitudeRadians[i], cosLatitudes[i], longitudeRadians[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double equirectangular() {
+        double lat1 = Math.toRadians(USER_LATITUDE);
+        double cosLat1 = Math.cos(lat1);
+        double lon1 = Math.toRadians(USER_LONGITUDE);
+        double total = 0;
+        for (int i = 0; i < documents; i++) {
+            total += GeoUtils.distanceKm(lat1, cosLat1, lon1, latitudeRadians[i], cosLatitudes[i], longitudeRadians[i],
+                    APPROXIMATION_MAX_KM);
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GeoDistanceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,165 @@
+package com.searchengine.benchmark;
+
+import com.searchengine.component.indexing.LinkGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le calcul hors ligne du PageRank sur un graphe synthétique : construction de la
+ * représentation compacte à partir des liens lus (une tranche par thread de lecture) et itérations
+ * du PageRank, sur un thread puis sur un thread par processeur disponible. Les liens suivent une loi de puissance
+ * (quelques pages très citées), une page sur dix n'a aucun lien sortant et un lien sur vingt
+ * vise une page non indexée.
+ * main affiche aussi l'empreinte estimée du graphe et la mémoire du tas après construction.
+ * Lancement : exécuter main depuis l'IDE, ou avec -prof gc pour mesurer les allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class LinkGraphBenchmark {
+
+    private static final double DAMPING = 0.85;
+    private static final double TOLERANCE = 1e-6;
+    private static final int MAX_ITERATIONS = 50;
+
+    @Param({"100000", "1000000"})
+    public int documents;
+
+    @Param({"10"})
+    public int linksPerDocument;
+
+    /** 0 : un thread par cœur */
+    @Param({"1", "0"})
+    public int threads;
+
+    private String[] urls;
+    private List<String>[] links;
+    private LinkGraph graph;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        generate(documents, linksPerDocument);
+        graph = build(urls, links, parallelism());
+        pool = new ForkJoinPool(parallelism());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public LinkGraph buildGraph() {
+        return build(urls, links, parallelism());
+    }
+
+    @Benchmark
+    public LinkGraph.Ranking pageRank() {
+        return graph.pageRank(DAMPING, TOLERANCE, MAX_ITERATIONS, pool);
+    }
+
+    private int parallelism() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void generate(int n, int averageLinks) {
+        Random random = new Random(42);
+        urls = new String[n];
+        links = new List[n];
+        for (int i = 0; i < n; i++) {
+            urls[i] = "https://site" + (i % (n / 50 + 1)) + ".example/page/" + i;
+        }
+        for (int i = 0; i < n; i++) {
+            if (i % 10 == 0) {
+                links[i] = List.of();
+                continue;
+            }
+            int count = 1 + random.nextInt(2 * averageLinks - 1);
+            List<String> out = new ArrayList<>(count);
+            for (int l = 0; l < count; l++) {
+                if (random.nextInt(20) == 0) {
+                    out.add("https://ailleurs.example/" + random.nextInt(n));
+                } else {
+                    // Loi de puissance : les petits indices reçoivent la plupart des liens
+                    int target = (int) (n * Math.pow(random.nextDouble(), 3));
+                    out.add(urls[Math.min(target, n - 1)]);
+                }
+            }
+            links[i] = out;
+        }
+    }
+
+    /**
+     * Alimente le builder comme le job : une tranche par thread, chacune recevant une partie des documents.
+     */
+    private static LinkGraph build(String[] urls, List<String>[] links, int parallelism) {
+        LinkGraph.Builder builder = new LinkGraph.Builder();
+        List<Thread> readers = new ArrayList<>(parallelism);
+        for (int t = 0; t < parallelism; t++) {
+            LinkGraph.Builder.Slice slice = builder.newSlice();
+            int from = (int) ((long) urls.length * t / parallelism);
+            int to = (int) ((long) urls.length * (t + 1) / parallelism);
+            Thread reader = new Thread(() -> {
+                for (int i = from; i < to; i++) {
+                    slice.addDocument(urls[i], links[i]);
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (Thread reader : readers) {
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        return builder.build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        LinkGraphBenchmark footprint = new LinkGraphBenchmark();
+        footprint.documents = 1_000_000;
+        footprint.linksPerDocument = 10;
+        footprint.threads = 0;
+        footprint.setUp();
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("Graphe : %d nœuds, %d liens, ~%d Mo estimés, tas utilisé %d Mo%n",
+                footprint.graph.nodeCount(), footprint.graph.edgeCount(), footprint.graph.estimatedBytes() >> 20,
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+        footprint.tearDown();
+
+        Options options = new OptionsBuilder()
+                .include(LinkGraphBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
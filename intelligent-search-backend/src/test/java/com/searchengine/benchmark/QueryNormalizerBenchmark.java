@@ -0,0 +1,82 @@
+package com.searchengine.benchmark;
+
+import com.searchengine.utils.QueryNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compare la normalisation en une passe ({@link QueryNormalizer}) à l'ancienne chaîne d'expressions
+ * régulières de SearchUtils.cleanQuery, recopiée ici comme référence.
+ * Lancement : exécuter main depuis l'IDE, ou avec -prof gc pour mesurer les allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryNormalizerBenchmark {
+
+    private static final Pattern LEGACY_SPECIAL_CHARS = Pattern.compile("[\"*+\\-!(){}\\[\\]^~?:\\\\/]");
+    private static final Pattern LEGACY_CLEANUP = Pattern.compile("[^a-zA-Z0-9\\s]");
+
+    @Param({
+            "java spring boot",
+            "  Recherche “avancée” : l'indexation (Elasticsearch) + scoring?  ",
+            "C++ vs. Java: {performance} [2024] ~benchmarks~ \"réels\" / comparaison"
+    })
+    public String query;
+
+    @Benchmark
+    public String singlePass() {
+        return QueryNormalizer.normalize(query);
+    }
+
+    @Benchmark
+    public String legacyRegexChain() {
+        String cleaned = query.trim();
+        cleaned = cleaned.replaceAll("[\"“”]", " ")
+                .replaceAll("[‘’']", " ");
+        cleaned = LEGACY_SPECIAL_CHARS.matcher(cleaned).replaceAll(" ");
+        cleaned = LEGACY_CLEANUP.matcher(cleaned).replaceAll(" ");
+        cleaned = cleaned.replaceAll("\\s+", " ").trim();
+        cleaned = cleaned.toLowerCase();
+        if (legacyContainsProblematicChars(cleaned)) {
+            cleaned = cleaned.replaceAll("[^a-zA-Z0-9\\s]", " ")
+                    .replaceAll("\\s+", " ")
+                    .trim();
+        }
+        return cleaned;
+    }
+
+    private static boolean legacyContainsProblematicChars(String text) {
+        return text.contains("\"") || text.contains("*") || text.contains("+") ||
+                text.contains("-") || text.contains("!") || text.contains("(") ||
+                text.contains(")") || text.contains("{") || text.contains("}") ||
+                text.contains("[") || text.contains("]") || text.contains("^") ||
+                text.contains("~") || text.contains("?") || text.contains(":") ||
+                text.contains("\\") || text.contains("/");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(QueryNormalizerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
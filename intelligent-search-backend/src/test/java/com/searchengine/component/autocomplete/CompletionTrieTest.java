@@ -0,0 +1,121 @@
+package com.searchengine.component.autocomplete;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie que chaque préfixe du trie renvoie les K meilleures complétions de son sous-arbre,
+ * dans l'ordre des poids décroissants, y compris lorsque les poids sont remontés après coup.
+ */
+class CompletionTrieTest {
+
+    @Test
+    void returnsTheBestCompletionsOfEachPrefixByDescendingWeight() {
+        CompletionTrie trie = new CompletionTrie(3, 100);
+        trie.put("paris", "Paris", 50);
+        trie.put("parc", "Parc", 10);
+        trie.put("partage", "Partage", 30);
+        trie.put("pari", "Pari", 20);
+        trie.put("lyon", "Lyon", 40);
+
+        assertEquals(List.of("Paris", "Partage", "Pari"), texts(trie.complete("par", 10)));
+        assertEquals(List.of("Paris", "Pari"), texts(trie.complete("pari", 10)));
+        assertEquals(List.of("Paris", "Lyon", "Partage"), texts(trie.complete("", 10)));
+        assertEquals(List.of("Paris"), texts(trie.complete("par", 1)));
+        assertEquals(List.of(), trie.complete("paz", 10));
+    }
+
+    @Test
+    void raisesAnExistingCompletionButNeverLowersIt() {
+        CompletionTrie trie = new CompletionTrie(2, 100);
+        trie.put("paris", "Paris", 50);
+        trie.put("parc", "Parc", 10);
+        trie.put("partage", "Partage", 30);
+
+        trie.put("parc", "Parc", 60);
+        assertEquals(List.of(new CompletionTrie.Completion("Parc", 60), new CompletionTrie.Completion("Paris", 50)),
+                trie.complete("par", 10));
+
+        trie.put("parc", "Parc", 1);
+        assertEquals(List.of("Parc", "Paris"), texts(trie.complete("par", 10)));
+    }
+
+    @Test
+    void reachesOneCompletionThroughSeveralKeys() {
+        CompletionTrie trie = new CompletionTrie(5, 100);
+        trie.put("tour eiffel", "Tour Eiffel", 10);
+        trie.put("eiffel", "Tour Eiffel", 10);
+
+        assertEquals(List.of("Tour Eiffel"), texts(trie.complete("eif", 5)));
+        assertEquals(List.of("Tour Eiffel"), texts(trie.complete("tour", 5)));
+        assertEquals(List.of("Tour Eiffel"), texts(trie.complete("", 5)));
+        assertEquals(1, trie.termCount());
+    }
+
+    @Test
+    void refusesNewCompletionsOnceFull() {
+        CompletionTrie trie = new CompletionTrie(5, 2);
+        assertTrue(trie.put("paris", "Paris", 1));
+        assertTrue(trie.put("lyon", "Lyon", 1));
+
+        assertFalse(trie.put("nice", "Nice", 100));
+        assertTrue(trie.put("lyon", "Lyon", 5));
+        assertEquals(List.of(), trie.complete("ni", 5));
+        assertEquals(2, trie.termCount());
+    }
+
+    @Test
+    void matchesAFullScanOfRandomCompletions() {
+        Random random = new Random(42);
+        int topK = 4;
+        CompletionTrie trie = new CompletionTrie(topK, 10_000);
+        Map<String, Long> expected = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            String text = randomWord(random);
+            long weight = random.nextInt(1_000);
+            trie.put(text, text, weight);
+            expected.merge(text, weight, Math::max);
+        }
+
+        for (int i = 0; i < 300; i++) {
+            String prefix = randomWord(random).substring(0, 1 + random.nextInt(2));
+            List<Long> scanned = expected.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(prefix))
+                    .map(Map.Entry::getValue)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(topK)
+                    .toList();
+            List<Long> completed = new ArrayList<>();
+            for (CompletionTrie.Completion completion : trie.complete(prefix, topK)) {
+                assertTrue(completion.text().startsWith(prefix));
+                assertEquals(expected.get(completion.text()).longValue(), completion.weight());
+                completed.add(completion.weight());
+            }
+            // Les ex æquo peuvent sortir dans n'importe quel ordre : seuls les poids sont comparés
+            assertEquals(scanned, completed, "préfixe " + prefix);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        int length = 3 + random.nextInt(5);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+
+    private static List<String> texts(List<CompletionTrie.Completion> completions) {
+        return completions.stream().map(CompletionTrie.Completion::text).toList();
+    }
+}
@@ -0,0 +1,224 @@
+package com.searchengine.component.indexing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie la construction du graphe des liens (renumérotation, liens écartés) et le PageRank :
+ * somme des rangs, masse des pages sans lien sortant et convergence sur de petits graphes connus.
+ */
+class LinkGraphTest {
+
+    private static final double DAMPING = 0.85;
+    // Exemple classique : a -> b, c ; b -> c ; c -> a ; d -> c
+    private static final Map<String, List<String>> SMALL_GRAPH = Map.of(
+            "a", List.of("b", "c"),
+            "b", List.of("c"),
+            "c", List.of("a"),
+            "d", List.of("c"));
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void keepsOnlyLinksBetweenIndexedPages() {
+        LinkGraph.Builder builder = new LinkGraph.Builder();
+        LinkGraph.Builder.Slice slice = builder.newSlice();
+        slice.addDocument("https://a.fr/", List.of(
+                "https://b.fr/", "https://b.fr/#section", "https://a.fr/", "https://inconnu.fr/", "", "#haut"));
+        slice.addDocument("https://b.fr/", null);
+
+        LinkGraph graph = builder.build();
+        Map<String, Integer> nodes = nodes(graph);
+
+        assertEquals(2, graph.nodeCount());
+        // Le lien vers b.fr est compté deux fois (avec et sans ancre) ; boucle et page inconnue écartées
+        assertEquals(2, graph.edgeCount());
+        assertEquals(2, graph.inDegree(nodes.get("https://b.fr/")));
+        assertEquals(0, graph.inDegree(nodes.get("https://a.fr/")));
+    }
+
+    @Test
+    void remapsDocumentsReferencedBeforeBeingIndexed() {
+        LinkGraph.Builder builder = new LinkGraph.Builder();
+        LinkGraph.Builder.Slice first = builder.newSlice();
+        LinkGraph.Builder.Slice second = builder.newSlice();
+        // c.fr reçoit un identifiant comme cible avant d'être lu par l'autre tranche ; d.fr n'est jamais indexé
+        first.addDocument("https://a.fr/", List.of("https://c.fr/", "https://d.fr/"));
+        second.addDocument("https://c.fr/", List.of("https://a.fr/"));
+        second.addDocument("https://b.fr/", List.of("https://c.fr/"));
+
+        LinkGraph graph = builder.build();
+        Map<String, Integer> nodes = nodes(graph);
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(Set.of("https://a.fr/", "https://b.fr/", "https://c.fr/"), nodes.keySet());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(2, graph.inDegree(nodes.get("https://c.fr/")));
+        assertEquals(1, graph.inDegree(nodes.get("https://a.fr/")));
+        assertEquals(0, graph.inDegree(nodes.get("https://b.fr/")));
+    }
+
+    @Test
+    void ranksOfASymmetricCycleAreUniform() {
+        LinkGraph graph = graph(Map.of(
+                "a", List.of("b"),
+                "b", List.of("c"),
+                "c", List.of("a")));
+
+        LinkGraph.Ranking ranking = graph.pageRank(DAMPING, 1e-12, 100, pool);
+
+        for (double rank : ranking.ranks()) {
+            assertEquals(1.0 / 3, rank, 1e-12);
+        }
+        assertEquals(1, ranking.iterations());
+    }
+
+    @Test
+    void redistributesTheRankOfDanglingPages() {
+        // a -> b, b sans lien sortant : sans redistribution, la masse de b fuirait à chaque itération
+        LinkGraph graph = graph(Map.of(
+                "a", List.of("b"),
+                "b", List.of()));
+
+        LinkGraph.Ranking ranking = graph.pageRank(DAMPING, 1e-12, 200, pool);
+        Map<String, Integer> nodes = nodes(graph);
+
+        // Point fixe : a = (1-d)/2 + d*b/2 et b = (1-d)/2 + d*b/2 + d*a, soit a = 1/(2+d), b = (1+d)/(2+d)
+        assertEquals(1 / (2 + DAMPING), ranking.ranks()[nodes.get("a")], 1e-9);
+        assertEquals((1 + DAMPING) / (2 + DAMPING), ranking.ranks()[nodes.get("b")], 1e-9);
+        assertEquals(1.0, sum(ranking.ranks()), 1e-9);
+    }
+
+    @Test
+    void convergesToTheKnownRanksOfASmallGraph() {
+        LinkGraph graph = graph(SMALL_GRAPH);
+
+        LinkGraph.Ranking ranking = graph.pageRank(DAMPING, 1e-12, 500, pool);
+        double[] expected = powerIteration(graph, SMALL_GRAPH, 2_000);
+
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            assertEquals(expected[node], ranking.ranks()[node], 1e-9, graph.url(node));
+        }
+        Map<String, Integer> nodes = nodes(graph);
+        // d ne reçoit aucun lien : il ne garde que la part de téléportation (1 - d) / n
+        assertEquals(0.0375, ranking.ranks()[nodes.get("d")], 1e-9);
+        assertTrue(ranking.ranks()[nodes.get("c")] > ranking.ranks()[nodes.get("a")]);
+        assertTrue(ranking.delta() < 1e-12);
+        assertTrue(ranking.iterations() < 500);
+    }
+
+    @Test
+    void ranksSumToOneOnAGraphWithDanglingPagesAndIsolatedNodes() {
+        Map<String, List<String>> links = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            // Un nœud sur cinq sans lien sortant, un sur sept isolé
+            if (i % 5 == 0) {
+                links.put("p" + i, List.of());
+            } else if (i % 7 == 0) {
+                links.put("p" + i, List.of("p" + i));
+            } else {
+                links.put("p" + i, List.of("p" + (i * 3 % 200), "p" + (i * 7 % 200), "p" + ((i + 1) % 200)));
+            }
+        }
+        LinkGraph graph = graph(links);
+
+        LinkGraph.Ranking ranking = graph.pageRank(DAMPING, 1e-10, 200, pool);
+
+        assertEquals(1.0, sum(ranking.ranks()), 1e-9);
+        for (double rank : ranking.ranks()) {
+            assertTrue(rank >= (1 - DAMPING) / graph.nodeCount() - 1e-15);
+        }
+    }
+
+    @Test
+    void stopsAtTheIterationCap() {
+        LinkGraph graph = graph(Map.of(
+                "a", List.of("b"),
+                "b", List.of("a", "c"),
+                "c", List.of()));
+
+        LinkGraph.Ranking ranking = graph.pageRank(DAMPING, 0.0, 3, pool);
+
+        assertEquals(3, ranking.iterations());
+        assertEquals(1.0, sum(ranking.ranks()), 1e-12);
+    }
+
+    @Test
+    void handlesAnEmptyGraph() {
+        LinkGraph graph = new LinkGraph.Builder().build();
+
+        LinkGraph.Ranking ranking = graph.pageRank(DAMPING, 1e-9, 10, pool);
+
+        assertEquals(0, graph.nodeCount());
+        assertEquals(0, ranking.ranks().length);
+        assertEquals(0, ranking.iterations());
+    }
+
+    private static LinkGraph graph(Map<String, List<String>> links) {
+        LinkGraph.Builder builder = new LinkGraph.Builder();
+        LinkGraph.Builder.Slice slice = builder.newSlice();
+        links.forEach(slice::addDocument);
+        return builder.build();
+    }
+
+    private static Map<String, Integer> nodes(LinkGraph graph) {
+        Map<String, Integer> nodes = new HashMap<>();
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            nodes.put(graph.url(node), node);
+        }
+        return nodes;
+    }
+
+    private static double sum(double[] values) {
+        double total = 0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * PageRank de référence : itération séquentielle sur les liens sortants, sans critère d'arrêt.
+     */
+    private static double[] powerIteration(LinkGraph graph, Map<String, List<String>> links, int iterations) {
+        int n = graph.nodeCount();
+        Map<String, Integer> nodes = nodes(graph);
+        int[][] out = new int[n][];
+        links.forEach((url, targets) -> out[nodes.get(url)] = targets.stream().mapToInt(nodes::get).toArray());
+
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int u = 0; u < n; u++) {
+                if (out[u].length == 0) {
+                    dangling += rank[u];
+                }
+            }
+            Arrays.fill(next, (1 - DAMPING) / n + DAMPING * dangling / n);
+            for (int u = 0; u < n; u++) {
+                for (int v : out[u]) {
+                    next[v] += DAMPING * rank[u] / out[u].length;
+                }
+            }
+            rank = next;
+        }
+        return rank;
+    }
+}
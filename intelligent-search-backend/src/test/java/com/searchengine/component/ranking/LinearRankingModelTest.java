@@ -0,0 +1,47 @@
+package com.searchengine.component.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vérifie le modèle linéaire : biais plus somme pondérée, valeurs inconnues comptées pour 0,
+ * et rejet d'un nombre de poids différent du nombre de caractéristiques.
+ */
+class LinearRankingModelTest {
+
+    private static final List<RankingFeature> FEATURES = List.of(RankingFeature.POPULARITY, RankingFeature.PAGE_RANK);
+
+    @Test
+    void addsTheWeightedFeaturesToTheBias() {
+        LinearRankingModel model = new LinearRankingModel(FEATURES, new double[]{2.0, 3.0}, 1.0, 1.0, 1.0, "test");
+
+        assertEquals(1.0 + 2.0 * 0.5 + 3.0 * 2.0, model.score(new double[]{0.5, 2.0}), 1e-12);
+    }
+
+    @Test
+    void countsUnknownValuesAsZero() {
+        LinearRankingModel model = new LinearRankingModel(FEATURES, new double[]{2.0, 3.0}, 1.0, 1.0, 1.0, "test");
+
+        assertEquals(1.0 + 3.0 * 2.0, model.score(new double[]{Double.NaN, 2.0}), 1e-12);
+        assertEquals(1.0, model.score(new double[]{Double.NaN, Double.NaN}), 0.0);
+    }
+
+    @Test
+    void keepsItsOwnCopyOfTheWeights() {
+        double[] weights = {2.0, 3.0};
+        LinearRankingModel model = new LinearRankingModel(FEATURES, weights, 0.0, 1.0, 1.0, "test");
+        weights[0] = 100.0;
+
+        assertEquals(2.0, model.score(new double[]{1.0, 0.0}), 0.0);
+    }
+
+    @Test
+    void rejectsAWeightCountThatDoesNotMatchTheFeatures() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new LinearRankingModel(FEATURES, new double[]{1.0}, 0.0, 1.0, 1.0, "test"));
+    }
+}
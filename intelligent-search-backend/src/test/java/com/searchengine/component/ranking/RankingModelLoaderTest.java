@@ -0,0 +1,144 @@
+package com.searchengine.component.ranking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Vérifie le chargement du modèle de re-scoring : modèles linéaire et en arbres, rejet d'un fichier
+ * invalide (le modèle précédent reste en place), rechargement d'un fichier complété sans changement
+ * de date de modification, et désactivation quand le fichier disparaît.
+ */
+class RankingModelLoaderTest {
+
+    private static final String LINEAR = """
+            {"type": "linear", "version": "v1", "features": ["popularity", "pageRank"],
+             "bias": 1.0, "weights": [2.0, 3.0], "modelWeight": 0.5}
+            """;
+
+    private Path directory;
+    private Path modelFile;
+    private RankingModelLoader loader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("ranking-model");
+        modelFile = directory.resolve("model.json");
+        loader = new RankingModelLoader(new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(loader, "modelPath", modelFile.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(modelFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    void loadsALinearModel() throws IOException {
+        write(LINEAR, 1_000);
+
+        loader.reloadIfChanged();
+
+        RankingModel model = loader.current();
+        assertNotNull(model);
+        assertEquals(List.of(RankingFeature.POPULARITY, RankingFeature.PAGE_RANK), model.features());
+        assertEquals(1.0 + 2.0 * 0.5 + 3.0 * 2.0, model.score(new double[]{0.5, 2.0}), 1e-12);
+        assertEquals(1.0, model.queryWeight(), 0.0);
+        assertEquals(0.5, model.modelWeight(), 0.0);
+    }
+
+    @Test
+    void loadsATreeEnsembleWhoseMissingBranchDefaultsToYes() throws IOException {
+        write("""
+                {"type": "trees", "features": ["pageRank"], "baseScore": 0.5, "learningRate": 0.5,
+                 "trees": [[{"feature": 0, "threshold": 1.0, "yes": 1, "no": 2},
+                            {"leaf": 1.0}, {"leaf": 3.0}]]}
+                """, 1_000);
+
+        loader.reloadIfChanged();
+
+        RankingModel model = loader.current();
+        assertNotNull(model);
+        assertEquals(0.5 + 0.5 * 1.0, model.score(new double[]{0.2}), 1e-12);
+        assertEquals(0.5 + 0.5 * 3.0, model.score(new double[]{1.5}), 1e-12);
+        assertEquals(0.5 + 0.5 * 1.0, model.score(new double[]{Double.NaN}), 1e-12);
+    }
+
+    @Test
+    void keepsThePreviousModelWhenTheNewFileIsInvalid() throws IOException {
+        write(LINEAR, 1_000);
+        loader.reloadIfChanged();
+        RankingModel previous = loader.current();
+
+        for (String invalid : List.of(
+                "{\"type\": \"linear\", \"features\": [\"unknown\"], \"weights\": [1.0]}",
+                "{\"type\": \"linear\", \"features\": [\"popularity\"], \"weights\": [1.0, 2.0]}",
+                "{\"type\": \"linear\", \"features\": [\"popularity\"], \"weights\": [\"heavy\"]}",
+                "{\"type\": \"forest\", \"features\": [\"popularity\"]}",
+                "{\"type\": \"trees\", \"features\": [\"popularity\"], \"trees\": [[{\"feature\": 0, \"threshold\": 1.0, \"yes\": 0, \"no\": 1}, {\"leaf\": 1.0}]]}",
+                "{\"type\": \"linear\", \"features\": []}")) {
+            write(invalid, 2_000);
+            loader.reloadIfChanged();
+
+            assertSame(previous, loader.current(), invalid);
+        }
+    }
+
+    @Test
+    void reloadsAFileCompletedAfterAPartialReadWithTheSameModificationTime() throws IOException {
+        write(LINEAR.substring(0, LINEAR.length() / 2), 5_000);
+        loader.reloadIfChanged();
+        assertNull(loader.current());
+
+        // Écriture terminée dans la même seconde : la date de modification n'a pas changé
+        write(LINEAR, 5_000);
+        loader.reloadIfChanged();
+
+        assertNotNull(loader.current());
+    }
+
+    @Test
+    void skipsTheFileWhileItIsUnchanged() throws IOException {
+        write(LINEAR, 1_000);
+        loader.reloadIfChanged();
+        RankingModel loaded = loader.current();
+
+        loader.reloadIfChanged();
+
+        assertSame(loaded, loader.current());
+    }
+
+    @Test
+    void disablesTheRescoreWhenTheFileDisappears() throws IOException {
+        write(LINEAR, 1_000);
+        loader.reloadIfChanged();
+        assertNotNull(loader.current());
+
+        Files.delete(modelFile);
+        loader.reloadIfChanged();
+
+        assertNull(loader.current());
+    }
+
+    private void write(String json, long modifiedMillis) throws IOException {
+        Files.writeString(modelFile, json, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(modelFile, FileTime.from(Instant.ofEpochMilli(modifiedMillis)));
+    }
+}
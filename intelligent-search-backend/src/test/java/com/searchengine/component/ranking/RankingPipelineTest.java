@@ -0,0 +1,206 @@
+package com.searchengine.component.ranking;
+
+import com.searchengine.model.dto.response.DocumentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le pipeline de classement : annulation d'une étape qui dépasse son budget ou échoue,
+ * re-scoring limité à la fenêtre placée en tête, ordre d'Elasticsearch conservé sans re-scoring
+ * (scores finaux compris), bonus de langue et profondeur de lecture nécessaire pour qu'une page voie
+ * toute la fenêtre.
+ */
+class RankingPipelineTest {
+
+    private static final double[] RETRIEVAL_SCORES = {4.0, 3.0, 2.0, 1.0};
+
+    @Test
+    void rollsBackAStageThatExceedsItsBudget() {
+        RankingPipeline pipeline = pipeline(new MockEnvironment().withProperty("app.ranking.stages.slow.budget-ms", "1"),
+                2, retrieval(),
+                stage("slow", RankingStage.Phase.RERANK, candidates -> {
+                    for (int i = 0; i < candidates.size(); i++) {
+                        candidates.setScore(i, 100.0 + i);
+                    }
+                    while (true) {
+                        candidates.checkBudget();
+                    }
+                }),
+                stage("boost", RankingStage.Phase.RERANK, candidates -> candidates.setScore(3, candidates.score(3) + 10.0)));
+
+        RankingPipeline.Ranking ranking = pipeline.rank(candidates(false));
+
+        // Scores d'avant l'étape annulée, l'étape suivante s'exécute normalement
+        assertArrayEquals(new double[]{4.0, 3.0, 2.0, 11.0}, ranking.scores(), 0.0);
+        assertArrayEquals(new int[]{3, 0, 1, 2}, ranking.order());
+    }
+
+    @Test
+    void rollsBackAStageThatFails() {
+        RankingPipeline pipeline = pipeline(new MockEnvironment(), 2, retrieval(),
+                stage("broken", RankingStage.Phase.RERANK, candidates -> {
+                    candidates.setScore(0, -1.0);
+                    throw new IllegalStateException("panne");
+                }));
+
+        RankingPipeline.Ranking ranking = pipeline.rank(candidates(false));
+
+        assertArrayEquals(RETRIEVAL_SCORES, ranking.scores(), 0.0);
+        assertArrayEquals(new int[]{0, 1, 2, 3}, ranking.order());
+    }
+
+    @Test
+    void rescoresOnlyTheWindowAndPutsItFirst() {
+        List<int[]> windows = new ArrayList<>();
+        RankingPipeline pipeline = pipeline(new MockEnvironment(), 2, retrieval(),
+                stage("model-rescore", RankingStage.Phase.RESCORE, candidates -> {
+                    windows.add(candidates.window().clone());
+                    for (int position : candidates.window()) {
+                        candidates.setScore(position, position == 1 ? 0.5 : 0.1);
+                    }
+                }));
+
+        RankingPipeline.Ranking ranking = pipeline.rank(candidates(true));
+
+        assertArrayEquals(new int[]{0, 1}, windows.get(0));
+        // La fenêtre reste en tête même si ses nouveaux scores sont plus bas que ceux du reste de la page
+        assertArrayEquals(new int[]{1, 0, 2, 3}, ranking.order());
+        assertArrayEquals(new double[]{0.1, 0.5, 2.0, 1.0}, ranking.scores(), 0.0);
+    }
+
+    @Test
+    void keepsTheElasticsearchOrderWhenTheRescoreIsRolledBack() {
+        RankingPipeline pipeline = pipeline(new MockEnvironment(), 2, retrieval(),
+                stage("model-rescore", RankingStage.Phase.RESCORE, candidates -> {
+                    candidates.setScore(1, 50.0);
+                    throw new IllegalStateException("modèle incohérent");
+                }));
+
+        RankingPipeline.Ranking ranking = pipeline.rank(candidates(true));
+
+        assertArrayEquals(new int[]{0, 1, 2, 3}, ranking.order());
+        assertArrayEquals(RETRIEVAL_SCORES, ranking.scores(), 0.0);
+    }
+
+    @Test
+    void sortsByScoreOnlyWhenElasticsearchDidNotRank() {
+        RankingPipeline pipeline = pipeline(new MockEnvironment(), 0, retrieval(),
+                stage("boost", RankingStage.Phase.RERANK, candidates -> candidates.setScore(2, 9.0)));
+
+        assertArrayEquals(new int[]{0, 1, 2, 3}, pipeline.rank(candidates(true)).order());
+        assertArrayEquals(new int[]{2, 0, 1, 3}, pipeline.rank(candidates(false)).order());
+    }
+
+    @Test
+    void appliesTheLanguageBoostOnlyWhenElasticsearchDidNotRank() {
+        RankingWeights weights = new RankingWeights();
+        ReflectionTestUtils.setField(weights, "popularity", 0.4);
+        ReflectionTestUtils.setField(weights, "freshness", 0.3);
+        ReflectionTestUtils.setField(weights, "relevance", 0.3);
+        ReflectionTestUtils.setField(weights, "languageBoost", 2.0);
+        RankingPipeline pipeline = pipeline(new MockEnvironment(), 0, retrieval(), new BlendStage(weights));
+
+        // Mode serveur : le bonus est déjà dans le score d'Elasticsearch, les scores finaux suivent son ordre
+        RankingPipeline.Ranking server = pipeline.rank(candidates(true, "fr"));
+        assertArrayEquals(new int[]{0, 1, 2, 3}, server.order());
+        assertArrayEquals(new double[]{4.3, 3.3, 2.3, 1.3}, server.scores(), 1e-9);
+
+        // Mode client : le document en français (position 3) passe devant la position 2
+        RankingPipeline.Ranking client = pipeline.rank(candidates(false, "fr"));
+        assertArrayEquals(new int[]{0, 1, 3, 2}, client.order());
+        assertArrayEquals(new double[]{4.3, 3.3, 2.3, 2.6}, client.scores(), 1e-9);
+    }
+
+    @Test
+    void readsTheWholeWindowWhilePagesOverlapIt() {
+        RankingPipeline pipeline = pipeline(new MockEnvironment(), 50, retrieval(),
+                stage("model-rescore", RankingStage.Phase.RESCORE, candidates -> {
+                }));
+
+        assertTrue(pipeline.rescoring());
+        assertEquals(50, pipeline.candidateDepth(0, 10));
+        assertEquals(50, pipeline.candidateDepth(40, 10));
+        assertEquals(60, pipeline.candidateDepth(40, 20));
+        assertEquals(0, pipeline.candidateDepth(50, 10));
+        assertEquals(0, pipeline.candidateDepth(0, 0));
+    }
+
+    @Test
+    void readsPagesAsIsWithoutAnActiveRescoreStage() {
+        RankingStage disabled = new ScriptedStage("model-rescore", RankingStage.Phase.RESCORE, candidates -> {
+        }, false);
+        RankingPipeline pipeline = pipeline(new MockEnvironment(), 50, retrieval(), disabled);
+
+        assertFalse(pipeline.rescoring());
+        assertEquals(0, pipeline.candidateDepth(0, 10));
+    }
+
+    private static RankingPipeline pipeline(MockEnvironment environment, int windowSize, RankingStage... stages) {
+        RankingPipeline pipeline = new RankingPipeline(List.of(stages), environment, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(pipeline, "windowSize", windowSize);
+        return pipeline;
+    }
+
+    private static RankingCandidates candidates(boolean serverSideRanking) {
+        return candidates(serverSideRanking, null);
+    }
+
+    /**
+     * Candidats de RETRIEVAL_SCORES ; seul le dernier est en français.
+     */
+    private static RankingCandidates candidates(boolean serverSideRanking, String language) {
+        List<DocumentResponse> documents = new ArrayList<>();
+        for (int i = 0; i < RETRIEVAL_SCORES.length; i++) {
+            DocumentResponse document = new DocumentResponse();
+            document.setMetadata(Map.of("language", i == RETRIEVAL_SCORES.length - 1 ? "FR" : "en"));
+            documents.add(document);
+        }
+        return new RankingCandidates(documents, RETRIEVAL_SCORES.clone(), null, language, serverSideRanking,
+                batch -> {
+                    throw new AssertionError("Caractéristiques inutiles pour ces étapes");
+                });
+    }
+
+    private static RankingStage retrieval() {
+        return stage("retrieval", RankingStage.Phase.RETRIEVE, candidates -> {
+            for (int i = 0; i < candidates.size(); i++) {
+                candidates.setScore(i, candidates.retrievalScore(i));
+            }
+        });
+    }
+
+    private static RankingStage stage(String name, RankingStage.Phase phase, Consumer<RankingCandidates> action) {
+        return new ScriptedStage(name, phase, action, true);
+    }
+
+    private record ScriptedStage(String name, RankingStage.Phase phase, Consumer<RankingCandidates> action,
+                                 boolean enabled) implements RankingStage {
+
+        @Override
+        public long defaultBudgetMillis() {
+            return 1_000;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        @Override
+        public void apply(RankingCandidates candidates) {
+            action.accept(candidates);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.searchengine.component.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vérifie l'évaluation de l'ensemble d'arbres : seuil strict, branche des valeurs inconnues,
+ * somme des arbres avec score de base et taux d'apprentissage, et rejet des arbres mal formés.
+ */
+class TreeEnsembleRankingModelTest {
+
+    private static final List<RankingFeature> FEATURES = List.of(RankingFeature.POPULARITY, RankingFeature.PAGE_RANK);
+
+    @Test
+    void goesToYesBelowTheThresholdAndToNoFromIt() {
+        TreeEnsembleRankingModel model = model(0.0, 1.0, List.of(split(0, 0.5, 1, 2, 2), leaf(1.0), leaf(2.0)));
+
+        assertEquals(1.0, model.score(new double[]{0.4, 0.0}), 0.0);
+        assertEquals(2.0, model.score(new double[]{0.5, 0.0}), 0.0);
+        assertEquals(2.0, model.score(new double[]{0.9, 0.0}), 0.0);
+    }
+
+    @Test
+    void followsTheMissingBranchForUnknownValues() {
+        // Valeur inconnue envoyée à gauche, alors qu'une valeur au-dessus du seuil irait à droite
+        TreeEnsembleRankingModel model = model(0.0, 1.0, List.of(split(1, 1.0, 1, 2, 1), leaf(-0.5), leaf(0.5)));
+
+        assertEquals(-0.5, model.score(new double[]{0.0, Double.NaN}), 0.0);
+        assertEquals(0.5, model.score(new double[]{0.0, 3.0}), 0.0);
+    }
+
+    @Test
+    void evaluatesEveryLevelOfADeeperTree() {
+        TreeEnsembleRankingModel model = model(0.0, 1.0, List.of(
+                split(0, 0.5, 1, 2, 2),
+                split(1, 2.0, 3, 4, 4),
+                leaf(10.0),
+                leaf(1.0),
+                leaf(2.0)));
+
+        assertEquals(1.0, model.score(new double[]{0.1, 1.0}), 0.0);
+        assertEquals(2.0, model.score(new double[]{0.1, Double.NaN}), 0.0);
+        assertEquals(10.0, model.score(new double[]{0.7, 1.0}), 0.0);
+    }
+
+    @Test
+    void addsTheBaseScoreToTheScaledLeavesOfEveryTree() {
+        TreeEnsembleRankingModel model = new TreeEnsembleRankingModel(FEATURES, List.of(
+                List.of(split(0, 0.5, 1, 2, 2), leaf(1.0), leaf(2.0)),
+                List.of(leaf(4.0))), 0.5, 0.1, 1.0, 1.0, "test");
+
+        assertEquals(0.5 + 0.1 * (1.0 + 4.0), model.score(new double[]{0.2, 0.0}), 1e-12);
+        assertEquals(0.5 + 0.1 * (2.0 + 4.0), model.score(new double[]{0.8, 0.0}), 1e-12);
+    }
+
+    @Test
+    void rejectsChildrenThatDoNotPointForwardInsideTheTree() {
+        assertThrows(IllegalArgumentException.class,
+                () -> model(0.0, 1.0, List.of(split(0, 0.5, 0, 1, 1), leaf(1.0))));
+        assertThrows(IllegalArgumentException.class,
+                () -> model(0.0, 1.0, List.of(split(0, 0.5, 1, 2, 2), leaf(1.0))));
+        assertThrows(IllegalArgumentException.class,
+                () -> model(0.0, 1.0, List.of(split(0, 0.5, 1, 2, 3), leaf(1.0), leaf(2.0))));
+    }
+
+    @Test
+    void rejectsUndeclaredFeaturesAndEmptyTrees() {
+        assertThrows(IllegalArgumentException.class,
+                () -> model(0.0, 1.0, List.of(split(2, 0.5, 1, 2, 2), leaf(1.0), leaf(2.0))));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TreeEnsembleRankingModel(FEATURES, List.of(), 0.0, 1.0, 1.0, 1.0, "test"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TreeEnsembleRankingModel(FEATURES, List.of(List.of()), 0.0, 1.0, 1.0, 1.0, "test"));
+    }
+
+    private static TreeEnsembleRankingModel model(double baseScore, double learningRate,
+                                                  List<TreeEnsembleRankingModel.Node> tree) {
+        return new TreeEnsembleRankingModel(FEATURES, List.of(tree), baseScore, learningRate, 1.0, 1.0, "test");
+    }
+
+    private static TreeEnsembleRankingModel.Node split(int feature, double threshold, int yes, int no, int missing) {
+        return new TreeEnsembleRankingModel.Node(feature, threshold, yes, no, missing, 0.0);
+    }
+
+    private static TreeEnsembleRankingModel.Node leaf(double value) {
+        return new TreeEnsembleRankingModel.Node(-1, 0.0, 0, 0, 0, value);
+    }
+}
@@ -0,0 +1,104 @@
+package com.searchengine.component.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vérifie que la sélection des k meilleurs donne le même résultat qu'un tri stable décroissant :
+ * ex æquo départagés par la position, k nul ou supérieur au nombre de candidats, fusion de tas partiels.
+ */
+class TopKSelectorTest {
+
+    @Test
+    void returnsTheBestScoresInDescendingOrder() {
+        ScoreCalculator.RankedBatch ranked = select(3, 0.2, 0.9, 0.5, 0.1, 0.7);
+
+        assertArrayEquals(new int[]{1, 4, 2}, ranked.indices());
+        assertArrayEquals(new double[]{0.9, 0.7, 0.5}, ranked.scores(), 0.0);
+    }
+
+    @Test
+    void breaksTiesByPosition() {
+        ScoreCalculator.RankedBatch ranked = select(4, 0.5, 0.8, 0.5, 0.8, 0.5, 0.8);
+
+        assertArrayEquals(new int[]{1, 3, 5, 0}, ranked.indices());
+    }
+
+    @Test
+    void keepsTheEarliestTiedCandidatesWhenTheHeapIsFull() {
+        // Tous égaux : seuls les deux premiers doivent rester, quel que soit l'ordre d'arrivée
+        ScoreCalculator.RankedBatch ranked = select(2, 1.0, 1.0, 1.0, 1.0);
+
+        assertArrayEquals(new int[]{0, 1}, ranked.indices());
+    }
+
+    @Test
+    void selectsNothingWhenKIsZero() {
+        ScoreCalculator.RankedBatch ranked = select(0, 0.3, 0.1);
+
+        assertEquals(0, ranked.indices().length);
+        assertEquals(0, ranked.scores().length);
+    }
+
+    @Test
+    void returnsEveryCandidateWhenKExceedsTheirNumber() {
+        ScoreCalculator.RankedBatch ranked = select(10, 0.3, 0.1, 0.3);
+
+        assertArrayEquals(new int[]{0, 2, 1}, ranked.indices());
+        assertArrayEquals(new double[]{0.3, 0.3, 0.1}, ranked.scores(), 0.0);
+    }
+
+    @Test
+    void mergesPartialHeapsIntoTheGlobalTopK() {
+        Random random = new Random(7);
+        double[] scores = new double[1_000];
+        for (int i = 0; i < scores.length; i++) {
+            // Scores arrondis pour provoquer de nombreux ex æquo entre tranches
+            scores[i] = random.nextInt(50) / 50.0;
+        }
+        int k = 25;
+
+        // Tranches inégales, fusionnées dans le désordre comme le ferait le scoring parallèle
+        int[] bounds = {0, 90, 400, 410, 1_000};
+        TopKSelector merged = new TopKSelector(k);
+        for (int chunk = bounds.length - 2; chunk >= 0; chunk--) {
+            TopKSelector partial = new TopKSelector(k);
+            for (int i = bounds[chunk]; i < bounds[chunk + 1]; i++) {
+                partial.offer(i, scores[i]);
+            }
+            merged.merge(partial);
+        }
+        ScoreCalculator.RankedBatch ranked = merged.drain();
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertArrayEquals(expected, ranked.indices());
+    }
+
+    @Test
+    void mergingAnEmptyHeapChangesNothing() {
+        TopKSelector selector = new TopKSelector(2);
+        selector.offer(0, 0.4);
+        selector.merge(new TopKSelector(2));
+        selector.merge(new TopKSelector(0));
+
+        assertArrayEquals(new int[]{0}, selector.drain().indices());
+    }
+
+    private static ScoreCalculator.RankedBatch select(int k, double... scores) {
+        TopKSelector selector = new TopKSelector(k);
+        for (int i = 0; i < scores.length; i++) {
+            selector.offer(i, scores[i]);
+        }
+        return selector.drain();
+    }
+}
@@ -0,0 +1,104 @@
+package com.searchengine.component.search;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.searchengine.exception.SearchException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le jeton de pagination par curseur : aller-retour des formes search_after et par position,
+ * rejet d'un curseur produit par une autre requête, d'un jeton illisible et d'une position négative.
+ */
+class SearchCursorCodecTest {
+
+    private final SearchCursorCodec codec = new SearchCursorCodec(new ObjectMapper());
+    private final String fingerprint = codec.fingerprint("moteur recherche", "web_page", "fr");
+
+    @Test
+    void roundTripsTheSearchAfterForm() {
+        String token = codec.encode("pit-1",
+                List.of(FieldValue.of(12.5), FieldValue.of(1_700_000_000_000L), FieldValue.of("https://a.example/")),
+                fingerprint);
+
+        SearchCursorCodec.Cursor cursor = codec.decode(token, fingerprint);
+
+        assertEquals("pit-1", cursor.pit());
+        assertNull(cursor.offset());
+        List<FieldValue> searchAfter = cursor.searchAfter();
+        assertEquals(3, searchAfter.size());
+        assertEquals(12.5, searchAfter.get(0).doubleValue());
+        assertEquals(1_700_000_000_000L, searchAfter.get(1).longValue());
+        assertEquals("https://a.example/", searchAfter.get(2).stringValue());
+    }
+
+    @Test
+    void keepsIntegralSortValuesAsLongs() {
+        // Jackson relit un petit entier en Integer : search_after doit tout de même recevoir un long
+        String token = codec.encode(null, List.of(FieldValue.of(42L)), fingerprint);
+
+        SearchCursorCodec.Cursor cursor = codec.decode(token, fingerprint);
+
+        assertNull(cursor.pit());
+        assertTrue(cursor.searchAfter().get(0).isLong());
+        assertEquals(42L, cursor.searchAfter().get(0).longValue());
+    }
+
+    @Test
+    void roundTripsTheOffsetForm() {
+        String token = codec.encodeOffset("pit-2", 50, fingerprint);
+
+        SearchCursorCodec.Cursor cursor = codec.decode(token, fingerprint);
+
+        assertEquals("pit-2", cursor.pit());
+        assertEquals(50, cursor.offset());
+        assertTrue(cursor.after().isEmpty());
+    }
+
+    @Test
+    void rejectsACursorFromAnotherQuery() {
+        String token = codec.encodeOffset(null, 20, fingerprint);
+
+        assertThrows(SearchException.class, () -> codec.decode(token, codec.fingerprint("moteur", "web_page", "fr")));
+        assertThrows(SearchException.class, () -> codec.decode(token, codec.fingerprint("moteur recherche", null, "fr")));
+        assertThrows(SearchException.class, () -> codec.decode(token, codec.fingerprint("moteur recherche", "web_page", "en")));
+    }
+
+    @Test
+    void fingerprintIgnoresLanguageCaseOnly() {
+        assertEquals(fingerprint, codec.fingerprint("moteur recherche", "web_page", "FR"));
+        assertNotEquals(fingerprint, codec.fingerprint("moteur recherche", "web_page", null));
+        assertEquals(32, fingerprint.length());
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(SearchException.class, () -> codec.decode("pas un jeton !", fingerprint));
+        assertThrows(SearchException.class, () -> codec.decode(base64("{\"pit\":"), fingerprint));
+        assertThrows(SearchException.class, () -> codec.decode(base64("[1, 2, 3]"), fingerprint));
+        // Ni valeurs de tri, ni position : rien à partir de quoi reprendre
+        assertThrows(SearchException.class, () -> codec.decode(
+                base64("{\"pit\":null,\"after\":[],\"fingerprint\":\"" + fingerprint + "\",\"offset\":null}"),
+                fingerprint));
+    }
+
+    @Test
+    void rejectsANegativeOffset() {
+        String token = codec.encodeOffset("pit-3", -10, fingerprint);
+
+        assertThrows(SearchException.class, () -> codec.decode(token, fingerprint));
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
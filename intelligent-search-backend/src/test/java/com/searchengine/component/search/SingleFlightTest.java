@@ -0,0 +1,146 @@
+package com.searchengine.component.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie le regroupement des appels concurrents : un seul appel sous-jacent pour N appelants,
+ * annulation d'un appelant sans effet sur les autres, annulation de l'appel quand tous ont annulé,
+ * et libération de la clé après un succès ou un échec.
+ */
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> flight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        int callers = 8;
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<CompletableFuture<String>>> submitted = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                submitted.add(executor.submit(() -> {
+                    start.await();
+                    return flight.execute("java spring", () -> {
+                        calls.incrementAndGet();
+                        return source;
+                    });
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<String>> waiters = new ArrayList<>();
+            for (Future<CompletableFuture<String>> future : submitted) {
+                waiters.add(future.get(5, TimeUnit.SECONDS));
+            }
+
+            // Résultat publié une fois tous les appelants inscrits
+            source.complete("résultat");
+
+            for (CompletableFuture<String> waiter : waiters) {
+                assertEquals("résultat", waiter.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1.0, count("executed"));
+        assertEquals(callers - 1.0, count("coalesced"));
+    }
+
+    @Test
+    void cancellingOneWaiterLeavesTheOthersRunning() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.execute("clé", () -> source);
+        CompletableFuture<String> second = flight.execute("clé", () -> {
+            throw new AssertionError("L'appel en cours doit être rejoint");
+        });
+
+        first.cancel(true);
+
+        assertFalse(source.isCancelled());
+        assertEquals(1, flight.inFlightCount());
+        source.complete("résultat");
+        assertEquals("résultat", second.get(5, TimeUnit.SECONDS));
+        assertTrue(first.isCancelled());
+        assertEquals(0.0, count("cancelled"));
+    }
+
+    @Test
+    void cancellingAllWaitersCancelsTheCall() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.execute("clé", () -> source);
+        CompletableFuture<String> second = flight.execute("clé", () -> source);
+
+        first.cancel(true);
+        second.cancel(true);
+
+        assertTrue(source.isCancelled());
+        assertEquals(0, flight.inFlightCount());
+        assertEquals(1.0, count("cancelled"));
+
+        // L'appel abandonné n'est pas rejoint : l'appelant suivant relance une requête
+        CompletableFuture<String> retry = flight.execute("clé", () -> CompletableFuture.completedFuture("relancé"));
+        assertEquals("relancé", retry.join());
+    }
+
+    @Test
+    void releasesTheKeyAfterCompletion() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> waiter = flight.execute("clé", () -> source);
+        assertEquals(1, flight.inFlightCount());
+
+        source.complete("premier");
+
+        assertEquals("premier", waiter.join());
+        assertEquals(0, flight.inFlightCount());
+        assertEquals("second", flight.execute("clé", () -> CompletableFuture.completedFuture("second")).join());
+        assertEquals(2.0, count("executed"));
+    }
+
+    @Test
+    void releasesTheKeyAfterFailure() {
+        CompletableFuture<String> failed = flight.execute("clé",
+                () -> CompletableFuture.failedFuture(new IllegalStateException("panne")));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(0, flight.inFlightCount());
+
+        // Un appel qui lève au lieu de renvoyer un future échoué libère aussi la clé
+        CompletableFuture<String> thrown = flight.execute("clé", () -> {
+            throw new IllegalArgumentException("requête refusée");
+        });
+        assertTrue(thrown.isCompletedExceptionally());
+        assertEquals(0, flight.inFlightCount());
+
+        assertEquals("rétabli", flight.execute("clé", () -> CompletableFuture.completedFuture("rétabli")).join());
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("searchengine.singleflight.requests")
+                .tag("flight", "test")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+}
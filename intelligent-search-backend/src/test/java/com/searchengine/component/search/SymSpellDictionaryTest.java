@@ -0,0 +1,120 @@
+package com.searchengine.component.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie les corrections du dictionnaire SymSpell : distances 1 et 2, transpositions,
+ * seuil d'occurrences, plafond du vocabulaire et mots plus longs que le préfixe indexé.
+ */
+class SymSpellDictionaryTest {
+
+    @Test
+    void correctsSingleEdits() {
+        SymSpellDictionary dictionary = dictionary(2, 1, 1000, "recherche", "moteur", "index");
+
+        assertSuggestion(dictionary.lookup("moteurs", 2), "moteur", 1);
+        assertSuggestion(dictionary.lookup("moter", 2), "moteur", 1);
+        assertSuggestion(dictionary.lookup("motour", 2), "moteur", 1);
+        assertSuggestion(dictionary.lookup("indx", 1), "index", 1);
+    }
+
+    @Test
+    void correctsTwoEditsOnlyWithinTheRequestedDistance() {
+        SymSpellDictionary dictionary = dictionary(2, 1, 1000, "recherche");
+
+        assertSuggestion(dictionary.lookup("recherxhz", 2), "recherche", 2);
+        assertNull(dictionary.lookup("recherxhz", 1));
+        assertNull(dictionary.lookup("rexhexxhe", 2));
+    }
+
+    @Test
+    void countsAnAdjacentTranspositionAsOneEdit() {
+        SymSpellDictionary dictionary = dictionary(2, 1, 1000, "moteur", "recherche");
+
+        assertSuggestion(dictionary.lookup("motuer", 1), "moteur", 1);
+        assertSuggestion(dictionary.lookup("rehcerche", 1), "recherche", 1);
+    }
+
+    @Test
+    void correctsWordsLongerThanTheIndexedPrefix() {
+        SymSpellDictionary dictionary = dictionary(2, 1, 1000, "internationalisation", "internationale");
+
+        // L'erreur porte sur la partie non indexée du mot : seule la distance complète départage
+        assertSuggestion(dictionary.lookup("internationalisatoin", 2), "internationalisation", 1);
+        assertSuggestion(dictionary.lookup("intrenationale", 2), "internationale", 1);
+    }
+
+    @Test
+    void prefersTheSmallestDistanceThenTheMostFrequentTerm() {
+        SymSpellDictionary dictionary = new SymSpellDictionary(2, 1, 1000);
+        dictionary.add("chat", 5);
+        dictionary.add("chats", 50);
+        dictionary.add("chaton", 500);
+        dictionary.add("char", 20);
+
+        // « chat » est à distance 0 : il est renvoyé tel quel malgré des voisins plus fréquents
+        assertSuggestion(dictionary.lookup("chat", 2), "chat", 0);
+        // À distance 1, « chats » (50) l'emporte sur « chat » (5) et « char » (20) ; « chaton » est à 2
+        assertSuggestion(dictionary.lookup("chatx", 2), "chats", 1);
+    }
+
+    @Test
+    void ignoresWordsSeenFewerThanMinCountTimes() {
+        SymSpellDictionary dictionary = new SymSpellDictionary(2, 3, 1000);
+        dictionary.add("moteur", 2);
+
+        assertFalse(dictionary.contains("moteur"));
+        assertNull(dictionary.lookup("moteurs", 2));
+        assertEquals(0, dictionary.size());
+
+        dictionary.add("moteur", 1);
+        assertTrue(dictionary.contains("moteur"));
+        assertSuggestion(dictionary.lookup("moteurs", 2), "moteur", 1);
+        assertEquals(1, dictionary.size());
+    }
+
+    @Test
+    void stopsLearningNewWordsOnceFullButKeepsCountingKnownOnes() {
+        SymSpellDictionary dictionary = new SymSpellDictionary(2, 2, 2);
+        dictionary.add("moteur", 1);
+        dictionary.add("index", 2);
+        dictionary.add("recherche", 5);
+
+        assertFalse(dictionary.contains("recherche"));
+        assertNull(dictionary.lookup("recherch", 2));
+
+        // « moteur » occupait déjà une place : il atteint le seuil malgré le plafond
+        dictionary.add("moteur", 1);
+        assertTrue(dictionary.contains("moteur"));
+        assertEquals(2, dictionary.size());
+    }
+
+    @Test
+    void returnsNothingForAnEmptyDictionaryOrAZeroDistance() {
+        assertNull(new SymSpellDictionary(2, 1, 1000).lookup("moteur", 2));
+
+        SymSpellDictionary dictionary = dictionary(2, 1, 1000, "moteur");
+        assertNull(dictionary.lookup("moteurs", 0));
+        assertSuggestion(dictionary.lookup("moteur", 0), "moteur", 0);
+    }
+
+    private static SymSpellDictionary dictionary(int maxEditDistance, long minCount, int maxWords, String... words) {
+        SymSpellDictionary dictionary = new SymSpellDictionary(maxEditDistance, minCount, maxWords);
+        for (String word : words) {
+            dictionary.add(word, minCount);
+        }
+        return dictionary;
+    }
+
+    private static void assertSuggestion(SymSpellDictionary.Suggestion suggestion, String term, int distance) {
+        assertNotNull(suggestion, "aucune correction, attendu " + term);
+        assertEquals(term, suggestion.term());
+        assertEquals(distance, suggestion.distance());
+    }
+}
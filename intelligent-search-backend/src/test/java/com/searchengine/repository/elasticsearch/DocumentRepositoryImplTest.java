@@ -0,0 +1,79 @@
+package com.searchengine.repository.elasticsearch;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.searchengine.component.monitoring.SearchDiagnostics;
+import com.searchengine.model.entity.SearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+/**
+ * Vérifie qu'une requête logique du repository ne déclenche qu'un seul appel Elasticsearch.
+ */
+@ExtendWith(MockitoExtension.class)
+class DocumentRepositoryImplTest {
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    private SearchDiagnostics searchDiagnostics;
+    private DocumentRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        searchDiagnostics = new SearchDiagnostics();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        repository = new DocumentRepositoryImpl(elasticsearchClient, objectMapper, searchDiagnostics);
+    }
+
+    @Test
+    void executesExactlyOneSearchPerQuery() throws IOException {
+        doReturn(emptyResponse()).when(elasticsearchClient).search(any(SearchRequest.class), eq(SearchDocument.class));
+
+        repository.findByContentContainingOrTitleContaining("java", "java", PageRequest.of(0, 10));
+
+        verify(elasticsearchClient, times(1)).search(any(SearchRequest.class), any(Class.class));
+        verifyNoMoreInteractions(elasticsearchClient);
+    }
+
+    @Test
+    void diagnosticModeStillExecutesExactlyOneSearch() throws IOException {
+        ReflectionTestUtils.setField(searchDiagnostics, "sampleRate", 1);
+        doReturn(emptyResponse()).when(elasticsearchClient).search(any(SearchRequest.class), eq(Map.class));
+
+        repository.findByTitleAutocomplete("jav", "fr", PageRequest.of(0, 5));
+
+        verify(elasticsearchClient, times(1)).search(any(SearchRequest.class), any(Class.class));
+        verifyNoMoreInteractions(elasticsearchClient);
+    }
+
+    private static <T> SearchResponse<T> emptyResponse() {
+        return SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h
+                        .hits(List.of())
+                        .total(t -> t.value(0).relation(TotalHitsRelation.Eq))));
+    }
+}
@@ -0,0 +1,179 @@
+package com.searchengine.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie la limite partagée entre plusieurs nœuds simulés, branchés sur un seau Redis simulé
+ * (même algorithme que le script Lua, horloge commune) : un bail ne prend qu'une part du seau,
+ * les jetons inutilisés d'un bail expiré reviennent au seau, la limite globale tient dans la durée
+ * avec un partage équitable entre nœuds, et seule la limite locale s'applique quand Redis est indisponible.
+ */
+class RateLimitFilterTest {
+
+    private static final String CLIENT_IP = "203.0.113.7";
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+    private final SimulatedRedis redis = new SimulatedRedis(clock);
+
+    @Test
+    void leasesOnlyTheNodeShareOfTheBucket() {
+        RateLimitFilter first = node(6, 3, 1_000);
+        RateLimitFilter second = node(6, 3, 1_000);
+
+        assertTrue(allowed(first));
+        // Le premier nœud ne garde que 2 jetons : les 4 autres restent disponibles pour le second
+        assertEquals(4.0, redis.tokens(), 1e-9);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(allowed(second), "requête " + i);
+        }
+        assertFalse(allowed(second));
+    }
+
+    @Test
+    void handsBackTheUnusedTokensOfAnExpiredLease() {
+        RateLimitFilter first = node(6, 3, 100);
+        RateLimitFilter second = node(6, 3, 100);
+        assertTrue(allowed(first));
+        while (allowed(second)) {
+            // Le second nœud vide le seau
+        }
+
+        advanceMillis(101);
+
+        // Le jeton inutilisé du premier bail revient au seau et sert la requête suivante
+        assertTrue(allowed(first));
+        assertFalse(allowed(first));
+    }
+
+    @Test
+    void holdsTheGlobalLimitAcrossNodesAndSharesItFairly() {
+        RateLimitFilter[] nodes = {node(5, 2, 1_000), node(5, 2, 1_000), node(5, 2, 1_000)};
+        int[] allowedPerNode = new int[nodes.length];
+
+        // 10 s de trafic : chaque nœud reçoit une requête toutes les 20 ms (150 requêtes par seconde au total),
+        // dans un ordre d'arrivée qui tourne d'un intervalle à l'autre
+        for (int tick = 0; tick < 500; tick++) {
+            for (int k = 0; k < nodes.length; k++) {
+                int n = (tick + k) % nodes.length;
+                if (allowed(nodes[n])) {
+                    allowedPerNode[n]++;
+                }
+            }
+            advanceMillis(20);
+        }
+
+        int total = allowedPerNode[0] + allowedPerNode[1] + allowedPerNode[2];
+        // Capacité initiale plus 10 s de recharge
+        assertTrue(total <= 5 + 5 * 10, "total " + total);
+        assertTrue(total >= 5 * 10 * 9 / 10, "total " + total);
+        for (int count : allowedPerNode) {
+            assertTrue(count >= total / 6, "répartition " + count + " sur " + total);
+        }
+    }
+
+    @Test
+    void servesTheFullLimitAgainOnceTheBucketHasRefilled() {
+        RateLimitFilter first = node(5, 2, 1_000);
+        int burst = 0;
+        while (allowed(first)) {
+            burst++;
+        }
+        assertEquals(5, burst);
+
+        advanceMillis(1_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(allowed(first), "requête " + i);
+        }
+    }
+
+    @Test
+    void appliesOnlyTheLocalLimitWhileRedisIsDown() {
+        redis.failing = true;
+        RateLimitFilter first = node(5, 2, 1_000);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(allowed(first), "requête " + i);
+        }
+        assertFalse(allowed(first));
+    }
+
+    private RateLimitFilter node(int limit, int nodes, long leaseTtlMs) {
+        return new RateLimitFilter(redis, new SimpleMeterRegistry(), limit, 10, nodes, leaseTtlMs, 1_000, clock::get);
+    }
+
+    private static boolean allowed(RateLimitFilter filter) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search");
+        request.setRemoteAddr(CLIENT_IP);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response.getStatus() != 429;
+    }
+
+    private void advanceMillis(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Redis simulé : exécute en Java l'algorithme du script de RateLimitFilter, sur l'horloge du test.
+     */
+    private static final class SimulatedRedis extends RedisTemplate<String, Object> {
+
+        private final AtomicLong clock;
+        private final Map<String, double[]> buckets = new HashMap<>();
+        private boolean failing;
+
+        private SimulatedRedis(AtomicLong clock) {
+            this.clock = clock;
+        }
+
+        double tokens() {
+            return buckets.get("rate_limit:bucket:" + CLIENT_IP)[0];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, RedisSerializer<?> argsSerializer,
+                             RedisSerializer<T> resultSerializer, List<String> keys, Object... args) {
+            if (failing) {
+                throw new IllegalStateException("Redis indisponible");
+            }
+            double capacity = Double.parseDouble((String) args[0]);
+            double refillPerMs = Double.parseDouble((String) args[1]);
+            long requested = Long.parseLong((String) args[2]);
+            double returned = Double.parseDouble((String) args[4]);
+            long now = TimeUnit.NANOSECONDS.toMillis(clock.get());
+
+            double[] state = buckets.computeIfAbsent(keys.get(0), key -> new double[]{capacity, now});
+            double tokens = Math.min(capacity, state[0] + Math.max(0, now - state[1]) * refillPerMs + returned);
+            long granted = Math.min(requested, (long) Math.floor(tokens));
+            state[0] = tokens - granted;
+            state[1] = now;
+            if (granted > 0) {
+                return (T) Long.valueOf(granted);
+            }
+            return (T) Long.valueOf(-Math.max(1, (long) Math.ceil((1 - state[0]) / refillPerMs)));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.searchengine.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import com.searchengine.model.dto.request.SearchRequestDto;
+import com.searchengine.model.dto.response.DocumentResponse;
+import com.searchengine.model.entity.SearchContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.elasticsearch.ElasticsearchContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie que le classement calculé par Elasticsearch (function_score, scripts painless et décroissance
+ * géographique native) donne le même ordre que le scoring Java, sur des documents non migrés (métadonnées)
+ * et migrés (signaux précalculés). Elasticsearch, Redis et PostgreSQL sont lancés en conteneurs :
+ * le test s'exécute partout où Docker est disponible, en particulier en CI.
+ */
+@SpringBootTest(properties = "app.search.cache.enabled=false")
+@Testcontainers(disabledWithoutDocker = true)
+class SearchRankingParityTest {
+
+    private static final String[] DOMAINS = {
+            "https://fr.wikipedia.org/wiki/", "https://blog.example.org/", "https://www.univ-paris.edu/",
+            "https://github.com/", "https://news.example.com/", "https://shop12345.example.net/"
+    };
+
+    @Container
+    static final ElasticsearchContainer ELASTICSEARCH = new ElasticsearchContainer(
+            DockerImageName.parse("docker.elastic.co/elasticsearch/elasticsearch:8.14.0"))
+            .withEnv("xpack.security.enabled", "false")
+            .withEnv("ES_JAVA_OPTS", "-Xms512m -Xmx512m");
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void containerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.elasticsearch.uris", () -> "http://" + ELASTICSEARCH.getHttpHostAddress());
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+    }
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private ElasticsearchClient elasticsearchClient;
+
+    // Utilisateur localisé : la composante de localisation participe au classement
+    @MockitoBean
+    private ContextService contextService;
+
+    private final List<String> fixtureUrls = new ArrayList<>();
+    private String token;
+
+    @BeforeEach
+    void indexFixtures() throws IOException {
+        SearchContext.GeoLocation geo = new SearchContext.GeoLocation();
+        geo.setLatitude(45.0);
+        geo.setLongitude(2.5);
+        SearchContext context = new SearchContext();
+        context.setGeoLocation(geo);
+        when(contextService.buildRequestContext(nullable(String.class), nullable(String.class))).thenReturn(context);
+        when(contextService.buildContext(nullable(String.class), nullable(String.class), nullable(String.class)))
+                .thenReturn(context);
+        when(contextService.contextBucket(any())).thenReturn("parity");
+
+        token = "parity" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        Instant now = Instant.now();
+        for (int i = 0; i < 18; i++) {
+            String url = DOMAINS[i % DOMAINS.length] + token + "-" + i;
+            Map<String, String> metadata = new HashMap<>();
+            metadata.put("language", "fr");
+            metadata.put("popularity", String.valueOf(5 + i * 7));
+            metadata.put("link_count", String.valueOf(i * 3 % 11));
+            metadata.put("latitude", String.valueOf(43.0 + i * 0.7));
+            metadata.put("longitude", String.valueOf(1.0 + i * 0.4));
+
+            Map<String, Object> document = new HashMap<>();
+            document.put("url", url);
+            document.put("title", "Fixture " + i);
+            document.put("content", token + " contenu de test numero " + i);
+            document.put("documentType", "web_page");
+            document.put("crawlTimestamp", now.minus(i * 61L + 3, ChronoUnit.HOURS).toString());
+            document.put("metadata", metadata);
+            if (i >= 12) {
+                // Document migré : popularité et localisation précalculées à l'indexation
+                document.put("signals", Map.of(
+                        "popularity", 0.1 + (i - 12) * 0.15,
+                        "location", Map.of("lat", 42.0 + (i - 12) * 1.1, "lon", 3.0 - (i - 12) * 0.6)));
+            }
+
+            elasticsearchClient.index(r -> r.index("documents").id(url).document(document));
+            fixtureUrls.add(url);
+        }
+        elasticsearchClient.indices().refresh(r -> r.index("documents"));
+    }
+
+    @AfterEach
+    void deleteFixtures() throws IOException {
+        for (String url : fixtureUrls) {
+            elasticsearchClient.delete(r -> r.index("documents").id(url).refresh(Refresh.True));
+        }
+        fixtureUrls.clear();
+    }
+
+    @Test
+    void serverSideRankingMatchesClientSideOrdering() {
+        List<String> clientOrder = rankedUrls("client");
+        List<String> serverOrder = rankedUrls("server");
+
+        assertFalse(clientOrder.isEmpty());
+        assertEquals(clientOrder, serverOrder);
+    }
+
+    private List<String> rankedUrls(String mode) {
+        ReflectionTestUtils.setField(searchService, "rankingMode", mode);
+        SearchRequestDto request = new SearchRequestDto();
+        request.setQuery(token);
+        request.setSize(fixtureUrls.size());
+        return searchService.search(request, "127.0.0.1", "JUnit").getResults().stream()
+                .map(DocumentResponse::getUrl)
+                .toList();
+    }
+}
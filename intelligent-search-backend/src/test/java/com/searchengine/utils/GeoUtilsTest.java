@@ -0,0 +1,95 @@
+package com.searchengine.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérifie que GeoUtils.distanceKm reste à moins de 250 m du haversine sous le seuil d'approximation
+ * de 100 km, sur tout le globe : de part et d'autre de l'antiméridien et près des pôles, où le calcul
+ * repasse par le haversine. Au-dessus du seuil, la distance exacte est renvoyée.
+ */
+class GeoUtilsTest {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double APPROXIMATION_MAX_KM = 100;
+    private static final double MAX_ERROR_KM = 0.25;
+
+    @Test
+    void staysWithinTheStatedErrorOfHaversineBelowTheThreshold() {
+        Random random = new Random(42);
+        double worst = 0;
+        for (int i = 0; i < 500_000; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            double[] destination = destination(latitude, longitude, random.nextDouble() * 360,
+                    random.nextDouble() * APPROXIMATION_MAX_KM * 1.1);
+            worst = Math.max(worst, error(latitude, longitude, destination[0], destination[1]));
+        }
+        assertTrue(worst <= MAX_ERROR_KM, "Écart maximal " + worst + " km");
+    }
+
+    @Test
+    void handlesPairsAcrossTheAntimeridian() {
+        for (double latitude : new double[]{0, 45, -60, 84}) {
+            double exact = GeoUtils.haversineKm(latitude, 179.9, latitude, -179.9);
+
+            assertTrue(exact < APPROXIMATION_MAX_KM);
+            assertEquals(exact, distance(latitude, 179.9, latitude, -179.9), MAX_ERROR_KM);
+            assertEquals(exact, distance(latitude, -179.9, latitude, 179.9), MAX_ERROR_KM);
+        }
+    }
+
+    @Test
+    void fallsBackToHaversineNearThePoles() {
+        // 0,2 degré de part et d'autre du pôle Nord : 22 km, alors que l'approximation en donnait 35
+        assertEquals(GeoUtils.haversineKm(89.9, 0, 89.9, 180), distance(89.9, 0, 89.9, 180), 0.0);
+        assertEquals(GeoUtils.haversineKm(-89.5, 45, -90, 0), distance(-89.5, 45, -90, 0), 0.0);
+        assertEquals(GeoUtils.haversineKm(86, 10, 86.5, 20), distance(86, 10, 86.5, 20), 0.0);
+    }
+
+    @Test
+    void returnsTheExactDistanceAboveTheThreshold() {
+        assertEquals(GeoUtils.haversineKm(48.85, 2.35, 51.51, -0.13), distance(48.85, 2.35, 51.51, -0.13), 0.0);
+        assertEquals(343.5, GeoUtils.haversineKm(48.85, 2.35, 51.51, -0.13), 1.0);
+    }
+
+    @Test
+    void alwaysUsesHaversineWhenTheThresholdIsZero() {
+        double lat1 = Math.toRadians(48.85);
+        double lat2 = Math.toRadians(48.86);
+        double lon1 = Math.toRadians(2.35);
+        double lon2 = Math.toRadians(2.36);
+
+        assertEquals(GeoUtils.haversineKm(lat1, Math.cos(lat1), lon1, lat2, Math.cos(lat2), lon2),
+                GeoUtils.distanceKm(lat1, Math.cos(lat1), lon1, lat2, Math.cos(lat2), lon2, 0), 0.0);
+    }
+
+    private static double error(double latitude1, double longitude1, double latitude2, double longitude2) {
+        return Math.abs(distance(latitude1, longitude1, latitude2, longitude2)
+                - GeoUtils.haversineKm(latitude1, longitude1, latitude2, longitude2));
+    }
+
+    private static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double lat1 = Math.toRadians(latitude1);
+        double lat2 = Math.toRadians(latitude2);
+        return GeoUtils.distanceKm(lat1, Math.cos(lat1), Math.toRadians(longitude1),
+                lat2, Math.cos(lat2), Math.toRadians(longitude2), APPROXIMATION_MAX_KM);
+    }
+
+    /**
+     * Point atteint depuis (latitude, longitude) selon un cap et une distance, longitude ramenée dans [-180, 180].
+     */
+    private static double[] destination(double latitude, double longitude, double bearingDegrees, double distanceKm) {
+        double lat = Math.toRadians(latitude);
+        double bearing = Math.toRadians(bearingDegrees);
+        double angle = distanceKm / EARTH_RADIUS_KM;
+        double lat2 = Math.asin(Math.sin(lat) * Math.cos(angle) + Math.cos(lat) * Math.sin(angle) * Math.cos(bearing));
+        double lon2 = Math.toRadians(longitude) + Math.atan2(Math.sin(bearing) * Math.sin(angle) * Math.cos(lat),
+                Math.cos(angle) - Math.sin(lat) * Math.sin(lat2));
+        return new double[]{Math.toDegrees(lat2), Math.toDegrees(Math.IEEEremainder(lon2, 2 * Math.PI))};
+    }
+}
@@ -22,6 +22,11 @@ const FILTER_TO_DOCUMENT_TYPE: Record<string, string | undefined> = {
   'WEB_PAGE': 'web_page'
 };
 
+const createSessionId = (): string =>
+  typeof crypto !== 'undefined' && 'randomUUID' in crypto
+    ? crypto.randomUUID()
+    : `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}`;
+
 const SearchBar = ({ setResults, setTotalResults, setSearchContext, currentFilter, currentPage }: SearchBarProps) => {
   const [query, setQuery] = useState('');
   const [displayQuery, setDisplayQuery] = useState('');
@@ -34,6 +39,9 @@ const SearchBar = ({ setResults, setTotalResults, setSearchContext, currentFilte
 
   const inputRef = useRef<HTMLInputElement>(null);
   const completionRef = useRef<HTMLSpanElement>(null);
+  // Identifiant de session et numéro de frappe : le serveur annule les requêtes dépassées
+  const autocompleteSessionId = useRef<string>(createSessionId());
+  const autocompleteSequence = useRef(0);
 
   const handleSuggestionFill = (suggestion: string) => {
     setQuery(suggestion);
@@ -77,20 +85,28 @@ const SearchBar = ({ setResults, setTotalResults, setSearchContext, currentFilte
 
   const handleAutocomplete = async () => {
     if (query.length < 2) {
+      autocompleteSequence.current++;
       setSuggestions([]);
       setCompletion(null);
       setShowSuggestions(false);
       return;
     }
+    const sequence = ++autocompleteSequence.current;
     const request: AutocompleteRequest = {
       prefix: query,
+      sessionId: autocompleteSessionId.current,
+      sequence,
       language: navigator.language,
       maxSuggestions: 5,
     };
     try {
       const response = await getAutocompleteSuggestions(request);
+      // Réponse 204 (requête annulée) ou réponse arrivée après celle d'une frappe plus récente
+      if (!response || sequence !== autocompleteSequence.current) {
+        return;
+      }
       console.log(response);
-      setSuggestions(response.suggestions);
+      setSuggestions(response.suggestions ?? []);
       setCompletion(response.completion);
       setIsExtension(response.isExtension);
       setShowSuggestions(true);
@@ -98,6 +114,9 @@ const SearchBar = ({ setResults, setTotalResults, setSearchContext, currentFilte
 
       setDisplayQuery(query);
     } catch (error) {
+      if (sequence !== autocompleteSequence.current) {
+        return;
+      }
       console.error('Autocomplete failed:', error);
       setCompletion(null);
       setDisplayQuery(query);
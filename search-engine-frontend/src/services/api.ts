@@ -16,9 +16,10 @@ export const search = async (request: SearchRequest): Promise<SearchResponse> =>
   return response.data;
 };
 
-export const getAutocompleteSuggestions = async (request: AutocompleteRequest): Promise<AutocompleteResponse> => {
+// Renvoie null quand le serveur répond 204 : la requête a été remplacée par une frappe plus récente
+export const getAutocompleteSuggestions = async (request: AutocompleteRequest): Promise<AutocompleteResponse | null> => {
   const response = await api.post('/api/autocomplete', request);
-  return response.data;
+  return response.status === 204 ? null : response.data;
 };
 
 export const checkHealth = async (): Promise<HealthResponse> => {
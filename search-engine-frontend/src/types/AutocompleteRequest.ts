@@ -1,6 +1,7 @@
 export interface AutocompleteRequest {
   prefix: string;
   sessionId?: string;
+  sequence?: number;
   language?: string;
   maxSuggestions?: number;
 }
\ No newline at end of file